@@ -0,0 +1,158 @@
+package base;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Eine eingefrorene, kompakte Darstellung eines {@link Graph} im CSR-Format (compressed sparse row).
+ * Jeder Knoten erhält eine ganzzahlige Id (seine Position in {@link Graph#getNodes()}).
+ * Die Kanten eines Knotens mit der Id i liegen in den Arrays an den Positionen
+ * {@link #getFirstEdge(int) getFirstEdge(i)} bis ausschließlich {@link #getLastEdge(int) getLastEdge(i)}.
+ * Zu jeder dieser Positionen sind der Zielknoten, das Gewicht und die ursprüngliche Kante gespeichert.
+ *
+ * Wird der Graph danach verändert, bleibt die kompakte Darstellung unverändert, siehe {@link #isCurrent()}.
+ *
+ * @param <T> Die zugrundeliegende Datenstruktur, beispielsweise {@link game.map.Castle}
+ */
+public class CompactGraph<T> {
+
+    private final Graph<T> graph;
+    private final int modificationCount;
+
+    private final Node<T>[] nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final Edge<T>[] edges;
+
+    @SuppressWarnings("unchecked")
+    private CompactGraph(Graph<T> graph, ToDoubleFunction<Edge<T>> weight) {
+        this.graph = graph;
+        this.modificationCount = graph.getModificationCount();
+
+        List<Node<T>> nodeList = graph.getNodes();
+        int nodeCount = nodeList.size();
+
+        int edgeCount = 0;
+        for (Node<T> node : nodeList)
+            edgeCount += graph.getDegree(node);
+
+        this.nodes = (Node<T>[]) nodeList.toArray(new Node<?>[nodeCount]);
+        this.offsets = new int[nodeCount + 1];
+        this.targets = new int[edgeCount];
+        this.weights = new double[edgeCount];
+        this.edges = (Edge<T>[]) new Edge<?>[edgeCount];
+
+        // Jede Kante wird nur einmal bewertet, auch wenn sie in zwei Adjazenzlisten steht
+        double[] edgeWeights = new double[graph.getEdges().size()];
+        for (Edge<T> edge : graph.getEdges())
+            edgeWeights[edge.getIndex()] = weight.applyAsDouble(edge);
+
+        int position = 0;
+        for (int id = 0; id < nodeCount; id++) {
+            offsets[id] = position;
+            Node<T> node = nodes[id];
+            for (Edge<T> edge : graph.getAdjacentEdges(node)) {
+                targets[position] = edge.getOtherNode(node).getIndex();
+                weights[position] = edgeWeights[edge.getIndex()];
+                edges[position] = edge;
+                position++;
+            }
+        }
+        offsets[nodeCount] = position;
+    }
+
+    /**
+     * Erzeugt eine kompakte Darstellung des aktuellen Zustands des Graphen
+     * @param graph der Graph
+     * @param weight die Funktion, mit der jeder Kante einmalig ein Gewicht zugewiesen wird
+     * @param <T> die Datenstruktur des Graphen
+     * @return die kompakte Darstellung
+     */
+    public static <T> CompactGraph<T> of(Graph<T> graph, ToDoubleFunction<Edge<T>> weight) {
+        return new CompactGraph<>(graph, weight);
+    }
+
+    /**
+     * Prüft, ob seit dem Erzeugen weder Knoten noch Kanten zum Graphen hinzugefügt wurden
+     * @return true, wenn die kompakte Darstellung dem Graphen entspricht
+     */
+    public boolean isCurrent() {
+        return graph.getModificationCount() == modificationCount;
+    }
+
+    /**
+     * Gibt den zugrundeliegenden Graphen zurück
+     * @return der Graph
+     */
+    public Graph<T> getGraph() {
+        return graph;
+    }
+
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Gibt die Id eines Knotens zurück
+     * @param node der Knoten
+     * @return die Id des Knotens
+     */
+    public int getId(Node<T> node) {
+        return node.getIndex();
+    }
+
+    /**
+     * Gibt den Knoten zu einer Id zurück
+     * @param id die Id
+     * @return der Knoten
+     */
+    public Node<T> getNode(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Gibt die Position der ersten Kante des Knotens zurück
+     * @param id die Id des Knotens
+     * @return die Position der ersten Kante
+     */
+    public int getFirstEdge(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Gibt die Position nach der letzten Kante des Knotens zurück
+     * @param id die Id des Knotens
+     * @return die Position nach der letzten Kante
+     */
+    public int getLastEdge(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gibt die Id des Knotens zurück, zu dem die Kante an der Position führt
+     * @param position die Position der Kante
+     * @return die Id des Zielknotens
+     */
+    public int getTarget(int position) {
+        return targets[position];
+    }
+
+    /**
+     * Gibt das Gewicht der Kante an der Position zurück
+     * @param position die Position der Kante
+     * @return das Gewicht der Kante
+     */
+    public double getWeight(int position) {
+        return weights[position];
+    }
+
+    /**
+     * Gibt die ursprüngliche Kante an der Position zurück
+     * @param position die Position der Kante
+     * @return die Kante
+     */
+    public Edge<T> getEdge(int position) {
+        return edges[position];
+    }
+}
@@ -0,0 +1,110 @@
+package base;
+
+import java.util.Arrays;
+
+/**
+ * Eine Union-Find-Struktur über ganzzahlige Ids, die mit 0 beginnend fortlaufend vergeben werden.
+ * Durch Pfadhalbierung und Vereinigung nach Größe benötigen {@link #find(int)} und {@link #union(int, int)}
+ * amortisiert nahezu konstante Zeit. Zusätzlich wird die Anzahl der Zusammenhangskomponenten mitgezählt.
+ */
+public class DisjointSet {
+
+    // Id -> Id des Elternelements, Wurzeln verweisen auf sich selbst
+    private int[] parents;
+
+    // Wurzel -> Anzahl der Elemente in der Menge
+    private int[] sizes;
+
+    private int count;
+    private int components;
+
+    /**
+     * Erzeugt eine leere Struktur
+     */
+    public DisjointSet() {
+        this.parents = new int[16];
+        this.sizes = new int[16];
+        this.count = 0;
+        this.components = 0;
+    }
+
+    /**
+     * Fügt ein neues Element in einer eigenen Menge hinzu
+     * @return die Id des neuen Elements
+     */
+    public int add() {
+        if (count == parents.length) {
+            parents = Arrays.copyOf(parents, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 2);
+        }
+
+        parents[count] = count;
+        sizes[count] = 1;
+        components++;
+        return count++;
+    }
+
+    /**
+     * Gibt die Anzahl der Elemente zurück
+     * @return die Anzahl der Elemente
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gibt die Anzahl der disjunkten Mengen zurück
+     * @return die Anzahl der Mengen
+     */
+    public int getComponentCount() {
+        return components;
+    }
+
+    /**
+     * Gibt den Repräsentanten der Menge zurück, in der das Element liegt
+     * @param id die Id des Elements
+     * @return die Id des Repräsentanten
+     */
+    public int find(int id) {
+        while (parents[id] != id) {
+            parents[id] = parents[parents[id]];
+            id = parents[id];
+        }
+
+        return id;
+    }
+
+    /**
+     * Vereinigt die Mengen der beiden Elemente
+     * @param a die Id des ersten Elements
+     * @param b die Id des zweiten Elements
+     * @return true, wenn die Elemente vorher in verschiedenen Mengen lagen
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB)
+            return false;
+
+        if (sizes[rootA] < sizes[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+        components--;
+        return true;
+    }
+
+    /**
+     * Prüft, ob beide Elemente in derselben Menge liegen
+     * @param a die Id des ersten Elements
+     * @param b die Id des zweiten Elements
+     * @return true, wenn beide Elemente in derselben Menge liegen
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+}
@@ -7,15 +7,18 @@ package base;
 public class Edge<T> {
 
     private Node<T> nodeA, nodeB;
+    private int index;
 
     /**
      * Erstellt eine neue Kante zwischen zwei gegebenen Knoten
      * @param nodeA der erste Knoten
      * @param nodeB der zweite Knoten
+     * @param index die Position der Kante in der Kantenliste des Graphen
      */
-    Edge(Node<T> nodeA, Node<T> nodeB) {
+    Edge(Node<T> nodeA, Node<T> nodeB, int index) {
         this.nodeA = nodeA;
         this.nodeB = nodeB;
+        this.index = index;
     }
 
     /**
@@ -51,4 +54,12 @@ public class Edge<T> {
     public Node<T> getOtherNode(Node<T> source) {
         return (nodeA == source ? nodeB : nodeA);
     }
+
+    /**
+     * Gibt die Position der Kante in der Kantenliste ihres Graphen zurück
+     * @return der Index der Kante
+     */
+    int getIndex() {
+        return index;
+    }
 }
@@ -1,10 +1,14 @@
 package base;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -12,6 +16,8 @@ import game.map.Castle;
 
 /**
  * Diese Klasse representiert einen generischen Graphen mit einer Liste aus Knoten und Kanten.
+ * Zusätzlich wird für jeden Knoten eine Adjazenzliste geführt, sodass Kanten eines Knotens in O(Grad)
+ * und eine Kante zwischen zwei Knoten in O(1) gefunden werden können.
  *
  * @param <T> Die zugrundeliegende Datenstruktur, beispielsweise {@link game.map.Castle}
  */
@@ -20,12 +26,27 @@ public class Graph<T> {
     private List<Edge<T>> edges;
     private List<Node<T>> nodes;
 
+    // Für jeden Knoten die angrenzenden Kanten, geordnet nach dem jeweils anderen Knoten
+    private Map<Node<T>, Map<Node<T>, Edge<T>>> adjacency;
+
+    // Der jeweils erste Knoten zu einem Wert, siehe getNode(T)
+    private Map<T, Node<T>> valueIndex;
+
+    // Zusammenhangskomponenten, die Ids entsprechen den Indizes der Knoten
+    private DisjointSet components;
+
+    // Wird bei jeder Änderung erhöht, damit abgeleitete Strukturen wie CompactGraph veraltete Daten erkennen
+    private int modificationCount;
+
     /**
      * Konstruktor für einen neuen, leeren Graphen
      */
     public Graph() {
         this.nodes = new ArrayList<>();
         this.edges = new LinkedList<>();
+        this.adjacency = new HashMap<>();
+        this.valueIndex = new HashMap<>();
+        this.components = new DisjointSet();
     }
 
     /**
@@ -34,8 +55,12 @@ public class Graph<T> {
      * @return Der erstellte Knoten
      */
     public Node<T> addNode(T value) {
-        Node<T> node = new Node<>(value);
+        Node<T> node = new Node<>(value, this.nodes.size());
         this.nodes.add(node);
+        this.modificationCount++;
+        this.adjacency.put(node, new LinkedHashMap<>());
+        this.valueIndex.putIfAbsent(value, node);
+        this.components.add();
         return node;
     }
 
@@ -51,8 +76,12 @@ public class Graph<T> {
             return edge;
         }
 
-        edge = new Edge<>(nodeA, nodeB);
+        edge = new Edge<>(nodeA, nodeB, this.edges.size());
         this.edges.add(edge);
+        this.modificationCount++;
+        this.adjacency.get(nodeA).put(nodeB, edge);
+        this.adjacency.get(nodeB).put(nodeA, edge);
+        this.components.union(nodeA.getIndex(), nodeB.getIndex());
         return edge;
     }
 
@@ -85,16 +114,44 @@ public class Graph<T> {
     }
 
     /**
-     * Diese Methode gibt alle Kanten eines Knotens als Liste mittels Streams zurück.
+     * Diese Methode gibt alle Kanten eines Knotens als Liste zurück.
+     * Die Kanten werden der Adjazenzliste des Knotens entnommen, der Aufwand ist daher nur vom Grad des Knotens abhängig.
      * @param node Der Knoten für die dazugehörigen Kanten
-     * @see java.util.stream.Stream#filter(Predicate)
-     * @see java.util.stream.Stream#collect(Collector)
      * @return Die Liste aller zum Knoten zugehörigen Kanten
      */
     public List<Edge<T>> getEdges(Node<T> node) {
-    	return this.edges.stream()
-    			.filter(edge -> edge.contains(node))
-    			.collect(Collectors.toList());
+    	Map<Node<T>, Edge<T>> neighbors = this.adjacency.get(node);
+    	if (neighbors == null)
+    		return Collections.emptyList();
+
+    	return new ArrayList<>(neighbors.values());
+    }
+
+    /**
+     * Gibt die Kanten eines Knotens ohne Kopie zurück. Die Reihenfolge entspricht der von {@link #getEdges(Node)}.
+     * @param node Der Knoten für die dazugehörigen Kanten
+     * @return Eine nicht veränderbare Ansicht der zum Knoten zugehörigen Kanten
+     */
+    Collection<Edge<T>> getAdjacentEdges(Node<T> node) {
+    	return Collections.unmodifiableCollection(this.adjacency.get(node).values());
+    }
+
+    /**
+     * Gibt einen Zähler zurück, der sich bei jedem neuen Knoten und jeder neuen Kante erhöht
+     * @return der aktuelle Stand des Änderungszählers
+     */
+    int getModificationCount() {
+    	return this.modificationCount;
+    }
+
+    /**
+     * Gibt die Anzahl der Kanten eines Knotens zurück, ohne eine neue Liste zu erzeugen
+     * @param node Der Knoten
+     * @return Die Anzahl der zum Knoten zugehörigen Kanten
+     */
+    public int getDegree(Node<T> node) {
+    	Map<Node<T>, Edge<T>> neighbors = this.adjacency.get(node);
+    	return neighbors == null ? 0 : neighbors.size();
     }
 
     /**
@@ -105,10 +162,11 @@ public class Graph<T> {
      * @return Die Kante zwischen beiden Knoten oder null
      */
     public Edge<T> getEdge(Node<T> nodeA, Node<T> nodeB) {
-    	return this.edges.stream()
-    			.filter(edge -> edge.contains(nodeA) && edge.getOtherNode(nodeA).equals(nodeB))
-    			.findFirst()
-    			.orElse(null);
+    	Map<Node<T>, Edge<T>> neighbors = this.adjacency.get(nodeA);
+    	if (neighbors == null)
+    		return null;
+
+    	return neighbors.get(nodeB);
     }
 
     /**
@@ -117,49 +175,25 @@ public class Graph<T> {
      * @return Ein Knoten mit dem angegebenen Wert oder null
      */
     public Node<T> getNode(T value) {
-    	return this.nodes.stream()
-    			.filter(node -> node.getValue().equals(value))
-    			.findFirst()
-    			.orElse(null);
+    	return this.valueIndex.get(value);
     }
 
     /**
      * Überprüft, ob alle Knoten in dem Graphen erreichbar sind.
+     * Die Zusammenhangskomponenten werden beim Hinzufügen von Kanten mitgeführt, die Abfrage benötigt daher konstante Zeit.
      * @return true, wenn alle Knoten erreichbar sind
      */
     public boolean allNodesConnected() {
-    	if (nodes.isEmpty())
-    		return true;
-    	
-    	Node<T> root = nodes.get(0);
-    	List<Node<T>> reachableNodes = traverseGraph(root, new ArrayList<>());
-    	
-    	if (reachableNodes.containsAll(nodes))
-    		return true;
-    	
-    	return false;
+    	return components.getComponentCount() <= 1;
     }
 
     /**
-     * Durchläuft ausgehend vom Startknoten rekursiv alle mit diesem verbundenen Knoten.
-     * Die Rekursion wird nur aufgerufen, wenn der neue Knoten noch nicht in der
-     * mitgegbenen Liste aller besuchten Knoten steht.
-     * @param node Der Startknoten der Ausbreitung
-     * @param visited Die Liste aller bisher besuchten Knoten
-     * @return Die Liste aller bisher besuchten Knoten, inklusive des momentan betrachteten
-     * sowie seiner Nachfolger
+     * Überprüft, ob zwischen beiden Knoten ein Weg existiert, unabhängig von der Passierbarkeit der Kanten
+     * @param nodeA Der erste Knoten
+     * @param nodeB Der zweite Knoten
+     * @return true, wenn beide Knoten in derselben Zusammenhangskomponente liegen
      */
-    private List<Node<T>> traverseGraph(Node<T> node, List<Node<T>> visited) {
-    	visited.add(node);
-    	
-    	List<Node<T>> nextNodes = getEdges(node).stream()
-    			.map(edge -> edge.getOtherNode(node))
-    			.collect(Collectors.toList());
-    	
-    	for (Node<T> nextNode : nextNodes)
-    		if (!visited.contains(nextNode))
-    			visited = traverseGraph(nextNode, visited);
-    	
-    	return visited;
+    public boolean isConnected(Node<T> nodeA, Node<T> nodeB) {
+    	return components.connected(nodeA.getIndex(), nodeB.getIndex());
     }
 }
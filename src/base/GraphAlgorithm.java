@@ -5,167 +5,280 @@ import java.util.*;
 /**
  * Abstrakte generische Klasse um Wege zwischen Knoten in einem Graph zu finden.
  * Eine implementierende Klasse ist beispielsweise {@link game.map.PathFinding}
+ *
+ * Intern arbeitet der Algorithmus auf einem {@link CompactGraph}: Werte, Vorgänger und der Bearbeitungszustand
+ * liegen in Arrays, die über die Id der Knoten adressiert werden.
  * @param <T> Die Datenstruktur des Graphen
  */
 public abstract class GraphAlgorithm<T> {
 
-    /**
-     * Innere Klasse um {@link Node} zu erweitern, aber nicht zu verändern
-     * Sie weist jedem Knoten einen Wert und einen Vorgängerknoten zu.
-     * @param <T>
-     */
-    private static class AlgorithmNode<T> {
+    private Graph<T> graph;
+    private CompactGraph<T> compactGraph;
+    private Node<T> sourceNode;
 
-        private Node<T> node;
-        private double value;
-        private AlgorithmNode<T> previous;
+    // Gibt an, ob bereits gesucht wurde bzw. ob dabei alle erreichbaren Knoten abgearbeitet wurden
+    private boolean searched;
+    private boolean complete;
 
-        AlgorithmNode(Node<T> parentNode, AlgorithmNode<T> previousNode, double value) {
-            this.node = parentNode;
-            this.previous = previousNode;
-            this.value = value;
-        }
-    }
+    // Dieser Heap enthält die Ids aller Knoten, die einen Wert haben, aber noch nicht abgearbeitet wurden
+    private IndexedMinHeap availableNodes;
 
-    private Graph<T> graph;
+    // Wert jedes Knotens, nur gültig falls touched[id] == epoch (sonst -1)
+    private double[] values;
 
-    // Diese Liste enthält alle Knoten, die noch nicht abgearbeitet wurden
-    private List<Node<T>> availableNodes;
+    // Position der Kante im CompactGraph, über die der Knoten erreicht wurde, nur gültig falls touched[id] == epoch
+    private int[] previousEdges;
 
-    // Diese Map enthält alle Zuordnungen
-    private Map<Node<T>, AlgorithmNode<T>> algorithmNodes;
+    // Die Suche, in der ein Knoten zuletzt einen Wert erhalten hat bzw. abgearbeitet wurde.
+    // Statt alle Arrays zurückzusetzen, wird bei jeder neuen Suche nur epoch erhöht.
+    private int[] touched;
+    private int[] settled;
+    private int epoch;
 
     /**
      * Erzeugt ein neues GraphAlgorithm-Objekt mit dem dazugehörigen Graphen und dem Startknoten.
+     * Die Werte der Kanten werden beim Start des Algorithmus einmalig über {@link #getValue(Edge)} bestimmt.
      * @param graph der zu betrachtende Graph
      * @param sourceNode der Startknoten
      */
     public GraphAlgorithm(Graph<T> graph, Node<T> sourceNode) {
         this.graph = graph;
-        this.availableNodes = new LinkedList<>(graph.getNodes());
-        this.algorithmNodes = new HashMap<>();
-
-        for(Node<T> node : graph.getNodes())
-            this.algorithmNodes.put(node, new AlgorithmNode<>(node, null, -1));
-
-        this.algorithmNodes.get(sourceNode).value = 0;
+        this.sourceNode = sourceNode;
     }
 
     /**
-     * Diese Methode gibt einen Knoten mit dem kleinsten Wert, der noch nicht abgearbeitet wurde, zurück und entfernt ihn aus der Liste {@link #availableNodes}.
-     * Sollte kein Knoten gefunden werden, wird null zurückgegeben.
-     * Verbindliche Anforderung: Verwenden Sie beim Durchlaufen der Liste Iteratoren
-     * @return Der nächste abzuarbeitende Knoten oder null
+     * Erzeugt ein neues GraphAlgorithm-Objekt auf einer bereits eingefrorenen Darstellung des Graphen.
+     * Als Werte der Kanten werden die Gewichte aus dem {@link CompactGraph} verwendet, {@link #getValue(Edge)} wird nicht aufgerufen.
+     * Dadurch entstehen pro Suche keine weiteren Objekte außer den Arrays dieses Algorithmus.
+     * @param compactGraph die kompakte Darstellung des zu betrachtenden Graphen
+     * @param sourceNode der Startknoten
      */
-    private AlgorithmNode<T> getSmallestNode() {
-        AlgorithmNode<T> smallestNode = null;
-
-        Iterator<Node<T>> nodeIterator = availableNodes.iterator();
+    public GraphAlgorithm(CompactGraph<T> compactGraph, Node<T> sourceNode) {
+        this.graph = compactGraph.getGraph();
+        this.compactGraph = compactGraph;
+        this.sourceNode = sourceNode;
+    }
 
-        while (nodeIterator.hasNext()) {
+    /**
+     * Legt beim ersten Aufruf die Arrays an und erzeugt bei Bedarf die kompakte Darstellung des Graphen
+     */
+    private void prepare() {
+        if (values != null)
+            return;
+
+        if (compactGraph == null)
+            compactGraph = CompactGraph.of(graph, this::getValue);
+
+        int nodeCount = compactGraph.getNodeCount();
+        availableNodes = new IndexedMinHeap(nodeCount);
+        values = new double[nodeCount];
+        previousEdges = new int[nodeCount];
+        touched = new int[nodeCount];
+        settled = new int[nodeCount];
+        epoch = 0;
+    }
 
-            AlgorithmNode<T> nextNode = algorithmNodes.get(nodeIterator.next());
+    /**
+     * Setzt alle Werte zurück, sodass nur noch der Startknoten einen Wert besitzt.
+     * Dazu wird nur der Zähler {@link #epoch} erhöht, der Aufwand hängt also nicht von der Größe des Graphen ab.
+     */
+    private void reset() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(touched, 0);
+            Arrays.fill(settled, 0);
+            epoch = 0;
+        }
+        epoch++;
 
-            if (smallestNode == null) {
-                smallestNode = nextNode;
-                continue;
-            }
-            
-            if (nextNode.value == -1) {
-            	continue;
-            }
+        availableNodes.clear();
+        int source = compactGraph.getId(sourceNode);
+        updateValue(source, 0, -1);
+        availableNodes.add(source, 0);
+        complete = false;
+    }
 
-            if (nextNode.value < smallestNode.value || smallestNode.value == -1) {
-                smallestNode = nextNode;
-            }
-        }
+    /**
+     * Gibt den Wert eines Knotens in der aktuellen Suche zurück
+     * @param id die Id des Knotens
+     * @return der Wert oder -1, falls der Knoten noch keinen Wert hat
+     */
+    private double valueOf(int id) {
+        return touched[id] == epoch ? values[id] : -1;
+    }
 
-        if (smallestNode != null) {
-            availableNodes.remove(smallestNode.node);
-        }
+    private void updateValue(int id, double value, int previousEdge) {
+        values[id] = value;
+        previousEdges[id] = previousEdge;
+        touched[id] = epoch;
+    }
 
-        return smallestNode;
+    /**
+     * Verwendet diesen Algorithmus für eine neue Suche mit einem anderen Startknoten und ggf. einer neueren Darstellung des Graphen.
+     * Die Arrays werden dabei wiederverwendet, solange sich die Anzahl der Knoten nicht ändert.
+     * @param compactGraph die kompakte Darstellung des zu betrachtenden Graphen
+     * @param sourceNode der neue Startknoten
+     */
+    protected void reset(CompactGraph<T> compactGraph, Node<T> sourceNode) {
+        if (this.compactGraph != null && compactGraph.getNodeCount() != this.compactGraph.getNodeCount())
+            this.values = null;
+
+        this.graph = compactGraph.getGraph();
+        this.compactGraph = compactGraph;
+        this.sourceNode = sourceNode;
+        this.searched = false;
+        this.complete = false;
     }
 
     /**
      * Diese Methode startet den Algorithmus. Dieser funktioniert wie folgt:
-     * 1. Suche den Knoten mit dem geringsten Wert (siehe {@link #getSmallestNode()})
+     * 1. Entnimm den Knoten mit dem geringsten Wert aus dem Heap {@link #availableNodes}
      * 2. Für jede angrenzende Kante:
      * 2a. Überprüfe ob die Kante passierbar ist ({@link #isPassable(Edge)})
      * 2b. Berechne den Wert des Knotens, in dem du den aktuellen Wert des Knotens und den der Kante addierst
      * 2c. Ist der alte Wert nicht gesetzt (-1) oder ist der neue Wert kleiner, setze den neuen Wert und den Vorgängerknoten
-     * 3. Wiederhole solange, bis alle Knoten abgearbeitet wurden
-
+     *     und füge den Knoten in den Heap ein bzw. verringere seinen Schlüssel
+     * 3. Wiederhole solange, bis der Heap leer ist
+     *
+     * Durch den Heap ergibt sich eine Laufzeit von O((V + E) log V).
      * Nützliche Methoden:
-     * @see #getSmallestNode()
      * @see #isPassable(Edge)
-     * @see Graph#getEdges(Node)
-     * @see Edge#getOtherNode(Node)
+     * @see CompactGraph#getFirstEdge(int)
      */
     public void run() {
+        if (complete)
+            return;
 
-        AlgorithmNode<T> visitedNode = getSmallestNode();
+        search(-1);
+    }
 
-        while (visitedNode != null) {
+    /**
+     * Diese Methode startet den Algorithmus zielgerichtet: Die Suche bricht ab, sobald der Zielknoten abgearbeitet wurde.
+     * Dabei wird der Schätzwert aus {@link #getHeuristic(Node, Node)} zum Wert jedes Knotens addiert (A*-Suche),
+     * sodass nur ein Bruchteil des Graphen betrachtet werden muss.
+     * Anschließend liefert {@link #getPath(Node)} den kürzesten Pfad zum Zielknoten. Pfade zu anderen Knoten sind
+     * nur gültig, falls diese ebenfalls bereits abgearbeitet wurden.
+     * Wurde der Zielknoten schon bei einer vorherigen Suche abgearbeitet, wird nicht erneut gesucht.
+     * @param target der Zielknoten
+     */
+    public void run(Node<T> target) {
+        if (complete || target == null)
+            return;
 
-        	if (!isPassable(visitedNode.node)) {
-        		visitedNode = getSmallestNode();
-        		continue;
-        	}
-        	
-        	if (visitedNode.value == -1) {
-        		visitedNode = getSmallestNode();
+        prepare();
+        int targetId = compactGraph.getId(target);
+        if (searched && settled[targetId] == epoch)
+            return;
+
+        search(targetId);
+    }
+
+    /**
+     * Führt die eigentliche Suche wie in {@link #run()} beschrieben aus.
+     * @param target die Id des Zielknotens, nach dessen Abarbeitung abgebrochen wird, oder -1 für eine vollständige Suche
+     */
+    private void search(int target) {
+        prepare();
+        reset();
+        searched = true;
+
+        Node<T> targetNode = target == -1 ? null : compactGraph.getNode(target);
+
+        while (!availableNodes.isEmpty()) {
+
+            int visited = availableNodes.poll();
+            settled[visited] = epoch;
+
+            if (visited == target) {
+                return;
+            }
+
+            Node<T> visitedNode = compactGraph.getNode(visited);
+
+        	if (!isPassable(visitedNode)) {
         		continue;
         	}
-        
-            for (Edge<T> edge : graph.getEdges(visitedNode.node)) {
 
-                if (!isPassable(edge)) {
+            for (int position = compactGraph.getFirstEdge(visited); position < compactGraph.getLastEdge(visited); position++) {
+
+                if (!isPassable(compactGraph.getEdge(position))) {
                     continue;
                 }
 
-                Node<T> neighborNode = edge.getOtherNode(visitedNode.node);
+                int neighbor = compactGraph.getTarget(position);
 
-                AlgorithmNode<T> neighbor = algorithmNodes.get(neighborNode);
+                double alternativePathValue = compactGraph.getWeight(position) + values[visited];
+                double neighborValue = valueOf(neighbor);
 
-                double alternativePathValue = getValue(edge) + visitedNode.value;
+                if (neighborValue == -1 || alternativePathValue < neighborValue) {
+                    updateValue(neighbor, alternativePathValue, position);
 
-                if (neighbor.value == -1 || alternativePathValue < neighbor.value) {
-                    neighbor.value = alternativePathValue;
-                    neighbor.previous = visitedNode;
+                    double key = alternativePathValue;
+                    if (targetNode != null) {
+                        key += getHeuristic(compactGraph.getNode(neighbor), targetNode);
+                    }
+
+                    availableNodes.addOrDecrease(neighbor, key);
                 }
             }
+        }
+
+        complete = true;
+    }
+
+    /**
+     * Prüft, ob der Knoten in der bisherigen Suche bereits abgearbeitet wurde.
+     * Nach einer vollständigen Suche ({@link #run()}) sind das genau die Knoten, die einen Wert erhalten haben.
+     * @param node Ein Knoten
+     * @return true, wenn der Knoten abgearbeitet wurde
+     */
+    public boolean isSettled(Node<T> node) {
+        return searched && settled[compactGraph.getId(node)] == epoch;
+    }
 
-            visitedNode = getSmallestNode();
+    /**
+     * Prüft, ob nach der bisherigen Suche ein Pfad zu dem angegebenen Zielknoten existiert, ohne eine Liste zu erzeugen.
+     * Es gelten dieselben Einschränkungen wie bei {@link #getPath(Node)}.
+     * @param destination Der Zielknoten des Pfads
+     * @return true, wenn {@link #getPath(Node)} einen Pfad zurückgeben würde
+     */
+    public boolean hasPath(Node<T> destination) {
+        if (!searched) {
+        	return false;
         }
 
+        int id = compactGraph.getId(destination);
+        return id != compactGraph.getId(sourceNode) && valueOf(id) != -1;
     }
 
     /**
      * Diese Methode gibt eine Liste von Kanten zurück, die einen Pfad zu dem angegebenen Zielknoten representiert.
-     * Dabei werden zuerst beginnend mit dem Zielknoten alle Kanten mithilfe des Vorgängerattributs {@link AlgorithmNode#previous} zu der Liste hinzugefügt.
+     * Dabei werden zuerst beginnend mit dem Zielknoten alle Kanten mithilfe der Vorgängerkanten {@link #previousEdges} zu der Liste hinzugefügt.
      * Zum Schluss muss die Liste nur noch umgedreht werden. Sollte kein Pfad existieren, geben Sie null zurück.
      * @param destination Der Zielknoten des Pfads
      * @return eine Liste von Kanten oder null
      */
     public List<Edge<T>> getPath(Node<T> destination) {
 
+        if (!searched) {
+        	return null;
+        }
+
         LinkedList<Edge<T>> inversePath = new LinkedList<>();
 
-        AlgorithmNode<T> currentNode = algorithmNodes.get(destination);
-        AlgorithmNode<T> previousNode = currentNode.previous;
+        int current = compactGraph.getId(destination);
+        int source = compactGraph.getId(sourceNode);
 
-        while (previousNode != null) {
-            inversePath.add(graph.getEdge(currentNode.node, previousNode.node));
+        while (current != source && touched[current] == epoch && previousEdges[current] != -1) {
+            Edge<T> edge = compactGraph.getEdge(previousEdges[current]);
+            inversePath.add(edge);
 
-            currentNode = previousNode;
-            previousNode = currentNode.previous;
+            current = compactGraph.getId(edge.getOtherNode(compactGraph.getNode(current)));
         }
 
         if (inversePath.isEmpty()) {
         	return null;
         }
-        
+
         Collections.reverse(inversePath);
 
         return inversePath;
@@ -179,14 +292,36 @@ public abstract class GraphAlgorithm<T> {
         return this.graph;
     }
 
+    /**
+     * Gibt die kompakte Darstellung des Graphen zurück, auf der gesucht wird.
+     * Vor dem ersten Start des Algorithmus kann dies null sein, falls der Algorithmus mit einem {@link Graph} erzeugt wurde.
+     * @return die kompakte Darstellung oder null
+     */
+    protected CompactGraph<T> getCompactGraph() {
+        return this.compactGraph;
+    }
+
     /**
      * Gibt den Wert einer Kante zurück.
      * Diese Methode ist abstrakt und wird in den implementierenden Klassen definiert um eigene Kriterien für Werte zu ermöglichen.
+     * Wird der Algorithmus auf einem {@link CompactGraph} erzeugt, werden stattdessen dessen Gewichte verwendet.
      * @param edge Eine Kante
      * @return Ein Wert, der der Kante zugewiesen wird
      */
     protected abstract double getValue(Edge<T> edge);
 
+    /**
+     * Gibt einen Schätzwert für den Wert des Pfads von einem Knoten zum Zielknoten zurück, siehe {@link #run(Node)}.
+     * Der Schätzwert darf den tatsächlichen Wert nie überschreiten und muss für jede Kante die Dreiecksungleichung erfüllen,
+     * sonst ist der gefundene Pfad nicht unbedingt der kürzeste. Standardmäßig wird 0 zurückgegeben (Dijkstra).
+     * @param node ein Knoten
+     * @param target der Zielknoten
+     * @return ein Schätzwert für den restlichen Pfad
+     */
+    protected double getHeuristic(Node<T> node, Node<T> target) {
+        return 0;
+    }
+
     /**
      * Gibt an, ob eine Kante passierbar ist.
      * @param edge Eine Kante
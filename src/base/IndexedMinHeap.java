@@ -0,0 +1,184 @@
+package base;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Ein binärer Min-Heap über ganzzahlige Indizes im Bereich 0 bis capacity-1 mit zugehörigen Schlüsseln.
+ * Da zu jedem Index seine Position im Heap gespeichert wird, kann der Schlüssel eines enthaltenen
+ * Index in O(log n) verringert werden (decrease-key), wie es beispielsweise der Dijkstra-Algorithmus benötigt.
+ */
+public class IndexedMinHeap {
+
+    // Heap-Position -> Index
+    private int[] heap;
+
+    // Index -> Heap-Position oder -1, falls der Index nicht enthalten ist
+    private int[] positions;
+
+    // Index -> Schlüssel
+    private double[] keys;
+
+    private int size;
+
+    /**
+     * Erzeugt einen neuen, leeren Heap
+     * @param capacity die Anzahl der möglichen Indizes
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        this.size = 0;
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Gibt die Anzahl der möglichen Indizes zurück
+     * @return die Kapazität des Heaps
+     */
+    public int capacity() {
+        return this.heap.length;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Prüft, ob der angegebene Index im Heap enthalten ist
+     * @param index der Index
+     * @return true, wenn der Index enthalten ist
+     */
+    public boolean contains(int index) {
+        return this.positions[index] != -1;
+    }
+
+    /**
+     * Gibt den Schlüssel eines enthaltenen Index zurück
+     * @param index der Index
+     * @return der Schlüssel des Index
+     */
+    public double getKey(int index) {
+        return this.keys[index];
+    }
+
+    /**
+     * Fügt einen Index mit dem angegebenen Schlüssel hinzu
+     * @param index der Index
+     * @param key der Schlüssel
+     * @throws IllegalArgumentException falls der Index bereits enthalten ist
+     */
+    public void add(int index, double key) {
+        if (contains(index))
+            throw new IllegalArgumentException("Index ist bereits enthalten: " + index);
+
+        keys[index] = key;
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Verringert den Schlüssel eines enthaltenen Index. Ist der neue Schlüssel nicht kleiner, passiert nichts.
+     * @param index der Index
+     * @param key der neue Schlüssel
+     */
+    public void decreaseKey(int index, double key) {
+        if (key >= keys[index])
+            return;
+
+        keys[index] = key;
+        siftUp(positions[index]);
+    }
+
+    /**
+     * Fügt einen Index hinzu oder verringert seinen Schlüssel, falls er bereits enthalten ist
+     * @param index der Index
+     * @param key der (neue) Schlüssel
+     */
+    public void addOrDecrease(int index, double key) {
+        if (contains(index))
+            decreaseKey(index, key);
+        else
+            add(index, key);
+    }
+
+    /**
+     * Entfernt den Index mit dem kleinsten Schlüssel und gibt ihn zurück
+     * @return der Index mit dem kleinsten Schlüssel
+     * @throws NoSuchElementException falls der Heap leer ist
+     */
+    public int poll() {
+        if (size == 0)
+            throw new NoSuchElementException();
+
+        int smallest = heap[0];
+        size--;
+        if (size > 0) {
+            move(heap[size], 0);
+            siftDown(0);
+        }
+
+        positions[smallest] = -1;
+        return smallest;
+    }
+
+    /**
+     * Entfernt alle Indizes aus dem Heap. Der Aufwand hängt nur von der Anzahl der enthaltenen Indizes ab.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            positions[heap[i]] = -1;
+
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        double key = keys[index];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[heap[parent]] <= key)
+                break;
+
+            move(heap[parent], position);
+            position = parent;
+        }
+
+        move(index, position);
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        double key = keys[index];
+
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size)
+                break;
+
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+                child++;
+
+            if (keys[heap[child]] >= key)
+                break;
+
+            move(heap[child], position);
+            position = child;
+        }
+
+        move(index, position);
+    }
+
+    private void move(int index, int position) {
+        heap[position] = index;
+        positions[index] = position;
+    }
+}
@@ -7,13 +7,16 @@ package base;
 public class Node<T> {
 
     private T value;
+    private int index;
 
     /**
      * Erzeugt einen neuen Knoten mit dem gegebenen Wert
      * @param value der Wert des Knotens
+     * @param index die Position des Knotens im Graphen
      */
-    Node(T value) {
+    Node(T value, int index) {
         this.value = value;
+        this.index = index;
     }
 
     /**
@@ -23,4 +26,12 @@ public class Node<T> {
     public T getValue() {
         return value;
     }
+
+    /**
+     * Gibt die Position des Knotens in der Knotenliste seines Graphen zurück
+     * @return der Index des Knotens
+     */
+    int getIndex() {
+        return index;
+    }
 }
@@ -1,8 +1,10 @@
 package base;
 
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleToIntFunction;
 
 /**
  * @author Philipp Imperatori, Nils Nedderhut, Louis Neumann
@@ -20,9 +22,21 @@ public class PerlinNoise {
     private int gheight; // scaled height
 
     private Random random;
-    private ArrayList<Vector<Double>> Vectors; //gradients
+    private double[] gradientsX; //gradients
+    private double[] gradientsY;
 
     public PerlinNoise(int width, int height, int scale) {
+        this(width, height, scale, new Random());
+    }
+
+    /**
+     * Erzeugt das Rauschen mit einem vorgegebenen Zufallsgenerator, z.B. um eine Karte reproduzierbar zu erzeugen
+     * @param width die Breite in Gitterpunkten
+     * @param height die Höhe in Gitterpunkten
+     * @param scale der Skalierungsfaktor
+     * @param random der Zufallsgenerator für die Gradienten
+     */
+    public PerlinNoise(int width, int height, int scale, Random random) {
 
         this.width = width * scale;
         this.height = height * scale;
@@ -30,8 +44,7 @@ public class PerlinNoise {
         this.gwidth = width;
         this.gheight = height;
 
-        this.random = new Random();
-        this.Vectors = new ArrayList<>();
+        this.random = random;
         createVectors((1 + gwidth) * (1 + gheight));
     }
 
@@ -48,14 +61,13 @@ public class PerlinNoise {
      * @param n: number of gradients to be created
      */
     private void createVectors(int n) {
-        this.Vectors = new ArrayList<>();
+        this.gradientsX = new double[n];
+        this.gradientsY = new double[n];
         for(int i=0;i<n;i++){
             double randomValue = random.nextDouble();
             randomValue = randomValue * 2 * Math.PI;
-            double x = Math.cos(randomValue);
-            double y = Math.sin(randomValue);
-            Vector<Double> grad = new Vector<>(x,y);
-            this.Vectors.add(grad);
+            this.gradientsX[i] = Math.cos(randomValue);
+            this.gradientsY[i] = Math.sin(randomValue);
         }
     }
 
@@ -80,12 +92,13 @@ public class PerlinNoise {
 
     /**
      * Calculates the scalar product between the direction vector and the gradient in the corner
-     * @param vector: direction vector
-     * @param gradient: gradient in the corner
+     * @param x: x-component of the direction vector
+     * @param y: y-component of the direction vector
+     * @param gradient: index of the gradient in the corner
      * @return scalar product
      */
-    private double scalarVekGrad(Vector<Double> vector, Vector<Double> gradient){
-        return (vector.getX()*gradient.getX() + vector.getY()*gradient.getY());
+    private double scalarVekGrad(double x, double y, int gradient){
+        return (x*this.gradientsX[gradient] + y*this.gradientsY[gradient]);
     }
 
     /**
@@ -131,23 +144,78 @@ public class PerlinNoise {
 
         // int cell_nr = xlo+(ylo*this.gwidth);
 
-        Vector<Double> gradLO = this.Vectors.get(xlo+(ylo*(this.gwidth+1)));
-        Vector<Double> gradRO = this.Vectors.get(xro+(yro*(this.gwidth+1)));
-        Vector<Double> gradLU = this.Vectors.get(xlu+((ylu)*(this.gwidth+1)));
-        Vector<Double> gradRU = this.Vectors.get(xru+((yru)*(this.gwidth+1)));
+        int gradLO = xlo+(ylo*(this.gwidth+1));
+        int gradRO = xro+(yro*(this.gwidth+1));
+        int gradLU = xlu+((ylu)*(this.gwidth+1));
+        int gradRU = xru+((yru)*(this.gwidth+1));
 
-        Vector<Double> rvLO = new Vector<>(scaledX - xlo,scaledY - ylo);
-        Vector<Double> rvRO = new Vector<>(scaledX - xro,scaledY - yro);
-        Vector<Double> rvLU = new Vector<>(scaledX - xlu,scaledY - ylu);
-        Vector<Double> rvRU = new Vector<>(scaledX - xru,scaledY - yru);
+        double rvLOX = scaledX - xlo, rvLOY = scaledY - ylo;
+        double rvROX = scaledX - xro, rvROY = scaledY - yro;
+        double rvLUX = scaledX - xlu, rvLUY = scaledY - ylu;
+        double rvRUX = scaledX - xru, rvRUY = scaledY - yru;
 
         //upper edges
-        double linIntOben = this.linearInterpolation(this.scalarVekGrad(rvLO,gradLO),this.scalarVekGrad(rvRO,gradRO),this.fade(rvLO.getX()));
+        double linIntOben = this.linearInterpolation(this.scalarVekGrad(rvLOX,rvLOY,gradLO),this.scalarVekGrad(rvROX,rvROY,gradRO),this.fade(rvLOX));
 
         //lower edges
-        double linIntUnten = this.linearInterpolation(this.scalarVekGrad(rvLU,gradLU),this.scalarVekGrad(rvRU,gradRU),this.fade(rvLO.getX()));
+        double linIntUnten = this.linearInterpolation(this.scalarVekGrad(rvLUX,rvLUY,gradLU),this.scalarVekGrad(rvRUX,rvRUY,gradRU),this.fade(rvLOX));
 
         //final interpolation
-        return this.mapToInterval(this.linearInterpolation(linIntOben,linIntUnten,this.fade(rvLO.getY())));
+        return this.mapToInterval(this.linearInterpolation(linIntOben,linIntUnten,this.fade(rvLOY)));
+    }
+
+    /**
+     * Computes the noise of every pixel in parallel. The picture is split into strips of rows,
+     * which are processed by the common {@link ForkJoinPool}.
+     * @param noise: receives the noise of pixel (x,y) at index x+y*width, must hold width*height values
+     * @param pixels: receives the color of pixel (x,y) at index x+y*width, e.g. the raster of a TYPE_INT_RGB image
+     * @param color: converts a noise value into an RGB color
+     */
+    public void fill(float[] noise, int[] pixels, DoubleToIntFunction color) {
+        if (noise.length < width * height || pixels.length < width * height)
+            throw new IllegalArgumentException("Arrays are smaller than the picture");
+
+        ForkJoinPool.commonPool().invoke(new FillTask(noise, pixels, color, 0, height));
+    }
+
+    /**
+     * Fills the rows from firstRow (inclusive) to lastRow (exclusive), splitting until a strip is at most one cell high
+     */
+    private class FillTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final float[] noise;
+        private final int[] pixels;
+        private final DoubleToIntFunction color;
+        private final int firstRow;
+        private final int lastRow;
+
+        private FillTask(float[] noise, int[] pixels, DoubleToIntFunction color, int firstRow, int lastRow) {
+            this.noise = noise;
+            this.pixels = pixels;
+            this.color = color;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastRow - firstRow > scale) {
+                int middle = (firstRow + lastRow) >>> 1;
+                invokeAll(new FillTask(noise, pixels, color, firstRow, middle),
+                        new FillTask(noise, pixels, color, middle, lastRow));
+                return;
+            }
+
+            for (int y = firstRow; y < lastRow; y++) {
+                int offset = y * width;
+                for (int x = 0; x < width; x++) {
+                    double value = getNoise(x, y);
+                    noise[offset + x] = (float) value;
+                    pixels[offset + x] = color.applyAsInt(value);
+                }
+            }
+        }
     }
 }
@@ -3,15 +3,33 @@ package game;
 import java.awt.Color;
 import java.util.Random;
 
+import game.map.Castle;
+
+/**
+ * Eine KI, deren Züge vom {@link TurnScheduler} ausgeführt werden.
+ *
+ * Jeder Zug hat ein Zeitbudget, siehe {@link #setTurnTime(long)}. KIs, die länger rechnen, fragen regelmäßig {@link #shouldStop()} ab
+ * und beenden ihren Zug dann mit dem bisher besten Ergebnis. Dasselbe gilt, wenn der Zug vorgespult wird,
+ * z.B. über "Überspringen" in der Spielansicht, oder das Spiel abgebrochen wird.
+ */
 public abstract class AI extends Player {
 
-    private AIThread aiThread;
+    private volatile boolean turnActive;
     private Random random;
-    protected boolean fastForward;
+    protected volatile boolean fastForward;
+    private volatile boolean stopRequested;
+    private volatile long turnTime;
+    private volatile long deadline;
+
+    // Wird benachrichtigt, sobald der Zug vorgespult werden soll, siehe sleep(int)
+    private final Object sleepLock;
 
     public AI(String name, Color color) {
         super(name, color);
         this.random = new Random();
+        this.sleepLock = new Object();
+        this.turnTime = GameConstants.AI_TURN_TIME;
+        this.deadline = Long.MAX_VALUE;
     }
 
     protected Random getRandom() {
@@ -20,53 +38,134 @@ public abstract class AI extends Player {
 
     protected abstract void actions(Game game) throws InterruptedException;
 
+    /**
+     * Legt fest, wie lange ein Zug einschließlich der Wartezeiten höchstens dauern soll.
+     * Die KI wird nicht abgebrochen, sondern beendet ihren Zug selbst, sobald {@link #shouldStop()} zutrifft.
+     * @param turnTime die Zeit in Millisekunden, 0 für keine Begrenzung
+     */
+    public void setTurnTime(long turnTime) {
+        if(turnTime < 0)
+            throw new IllegalArgumentException("Die Zeit darf nicht negativ sein");
+
+        this.turnTime = turnTime;
+    }
+
+    public long getTurnTime() {
+        return this.turnTime;
+    }
+
+    /**
+     * Gibt zurück, ob die KI ihren Zug so bald wie möglich beenden soll,
+     * weil die Zeit des Zuges abgelaufen ist oder der Zug vorgespult wurde
+     * @return true, wenn keine weiteren Berechnungen begonnen werden sollen
+     */
+    protected boolean shouldStop() {
+        return stopRequested || System.nanoTime() >= deadline;
+    }
+
+    /**
+     * Gibt die verbleibende Zeit des aktuellen Zuges zurück
+     * @return die Zeit in Millisekunden, 0 wenn der Zug beendet werden soll, Long.MAX_VALUE ohne Begrenzung
+     */
+    protected long getRemainingTime() {
+        if(stopRequested)
+            return 0;
+
+        long deadline = this.deadline;
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * Reiht den Zug der KI beim {@link TurnScheduler} des Spiels ein
+     * @param game das Spiel
+     */
     public void doNextTurn(Game game) {
-        if(aiThread != null)
+        if(turnActive)
             return;
 
-        fastForward = false;
-        aiThread = new AIThread(game);
-        aiThread.start();
+        turnActive = true;
+        fastForward = game.isHeadless();
+        game.getTurnScheduler().schedule(this);
     }
 
+    /**
+     * Spult den aktuellen Zug vor: Wartezeiten entfallen und laufende Berechnungen werden
+     * mit dem bisher besten Ergebnis beendet, siehe {@link #shouldStop()}
+     */
     public void fastForward() {
-        if(aiThread != null)
-            fastForward = true;
+        synchronized (sleepLock) {
+            if(turnActive) {
+                fastForward = true;
+                stopRequested = true;
+                sleepLock.notifyAll();
+            }
+        }
     }
 
+    /**
+     * Wartet die angegebene Zeit oder bis der Zug vorgespult wird. Im vorgespulten Zustand wird nicht gewartet.
+     * @param ms die Wartezeit in Millisekunden
+     * @throws InterruptedException falls der Thread unterbrochen wurde
+     */
     protected void sleep(int ms) throws InterruptedException {
+        if(fastForward)
+            return;
+
         long end = System.currentTimeMillis() + ms;
-        while(System.currentTimeMillis() < end && !fastForward) {
-            Thread.sleep(10);
+        synchronized (sleepLock) {
+            long remaining;
+            while(!fastForward && (remaining = end - System.currentTimeMillis()) > 0) {
+                sleepLock.wait(remaining);
+            }
         }
     }
 
-    private class AIThread extends Thread {
-
-        private Game game;
+    /**
+     * Greift eine Burg an und wartet, bis der Angriff beendet ist.
+     * Ist der Zug vorgespult, wird der Angriff ohne {@link AttackThread} sofort berechnet, siehe {@link Game#resolveAttack(Castle, Castle, int)}.
+     * @param game das Spiel
+     * @param source die angreifende Burg
+     * @param target die angegriffene Burg
+     * @param troopCount die Anzahl der angreifenden Truppen
+     * @return der Gewinner des Angriffs oder null, falls der Angriff nicht durchgeführt werden konnte
+     * @throws InterruptedException falls der Thread beim Warten unterbrochen wurde
+     */
+    protected Player attackCastle(Game game, Castle source, Castle target, int troopCount) throws InterruptedException {
+        if(fastForward)
+            return game.resolveAttack(source, target, troopCount);
+
+        AttackThread attack = game.startAttack(source, target, troopCount);
+        if(attack == null)
+            return null;
+
+        attack.join();
+        return attack.getWinner();
+    }
 
-        private AIThread(Game game) {
-            this.game = game;
+    /**
+     * Führt einen Zug aus. Wird vom {@link TurnScheduler} aufgerufen.
+     * @param game das Spiel
+     */
+    void playTurn(Game game) {
+        deadline = turnTime > 0 ? System.nanoTime() + turnTime * 1_000_000 : Long.MAX_VALUE;
+
+        try {
+            actions(game);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
         }
 
-        private void finishTurn() {
-            aiThread = null;
-            fastForward = false;
-
-            // Trigger next round, if not automatically
-            if(game.getRound() > 1 && game.getCurrentPlayer() == AI.this)
-                game.nextTurn();
-        }
+        finishTurn(game);
+    }
 
-        @Override
-        public void run() {
-            try {
-                actions(game);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+    private void finishTurn(Game game) {
+        turnActive = false;
+        fastForward = false;
+        stopRequested = false;
+        deadline = Long.MAX_VALUE;
 
-            finishTurn();
-        }
+        // Trigger next round, if not automatically
+        if(game.getRound() > 1 && game.getCurrentPlayer() == this)
+            game.nextTurn();
     }
 }
@@ -0,0 +1,12 @@
+package game;
+
+/**
+ * Die Aktionen, die ein Spieler mit seinen Truppen ausführen kann.
+ * Davon hängt ab, welche Wege zwischen Burgen passierbar sind, siehe {@link game.map.PathFinding}.
+ */
+public enum Action {
+    NONE,
+    MOVING,
+    ATTACKING,
+    TUNNELING
+}
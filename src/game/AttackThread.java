@@ -0,0 +1,81 @@
+package game;
+
+import game.map.Castle;
+
+/**
+ * Zeigt einen Angriff schrittweise an, indem zwischen den Würfelrunden einer {@link Battle} gewartet wird
+ */
+public class AttackThread extends Thread {
+
+    protected Castle attackerCastle, defenderCastle;
+    protected Player attacker, defender;
+    protected int troopAttackCount;
+    protected Game game;
+    protected volatile boolean fastForward;
+    protected Battle battle;
+
+    // Wird benachrichtigt, sobald der Angriff vorgespult werden soll, siehe sleep(int)
+    private final Object sleepLock = new Object();
+
+    public AttackThread(Game game, Castle attackerCastle, Castle defenderCastle, int troopAttackCount) {
+        this.attackerCastle = attackerCastle;
+        this.defenderCastle = defenderCastle;
+        this.attacker = attackerCastle.getOwner();
+        this.defender = defenderCastle.getOwner();
+        this.troopAttackCount = troopAttackCount;
+        this.game = game;
+        this.battle = new Battle(game, attackerCastle, defenderCastle, troopAttackCount);
+        this.fastForward = false;
+    }
+
+    public void fastForward() {
+        synchronized (sleepLock) {
+            fastForward = true;
+            sleepLock.notifyAll();
+        }
+    }
+
+    /**
+     * Wartet die angegebene Zeit oder bis der Angriff vorgespult wird
+     * @param ms die Wartezeit in Millisekunden
+     * @throws InterruptedException falls der Thread unterbrochen wurde
+     */
+    protected void sleep(int ms) throws InterruptedException {
+        long end = System.currentTimeMillis() + ms;
+        synchronized (sleepLock) {
+            long remaining;
+            while(!fastForward && (remaining = end - System.currentTimeMillis()) > 0) {
+                sleepLock.wait(remaining);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleep(1500);
+
+            while(battle.hasNextRound()) {
+                int attackerDice[] = game.roll(attacker, battle.getAttackerDiceCount(), fastForward);
+
+                sleep(1500);
+
+                int defenderDice[] = game.roll(defender, battle.getDefenderDiceCount(), fastForward);
+
+                battle.doRound(attackerDice, defenderDice);
+                if(!battle.hasNextRound())
+                    break;
+
+                sleep(1500);
+            }
+        } catch(InterruptedException ex) {
+            ex.printStackTrace();
+        }
+
+        game.stopAttack();
+    }
+
+    public Player getWinner() {
+        return battle.getWinner();
+    }
+}
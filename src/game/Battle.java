@@ -0,0 +1,111 @@
+package game;
+
+import game.map.Castle;
+
+/**
+ * Berechnet einen Angriff von einer Burg auf eine andere, ohne zu warten oder einen eigenen Thread zu starten.
+ * Die einzelnen Würfelrunden werden wie bisher über {@link Game#doAttack(Castle, Castle, int[], int[])} ausgewertet.
+ * Der {@link AttackThread} nutzt diese Klasse und wartet lediglich zwischen den Runden, damit der Angriff angezeigt werden kann.
+ * Für KI-Züge ohne Anzeige wird der Angriff mit {@link #resolve()} in einem Schritt durchgeführt.
+ */
+public class Battle {
+
+    private final Game game;
+    private final Castle attackerCastle, defenderCastle;
+    private final Player attacker, defender;
+    private final int troopAttackCount;
+    private final int attackUntil;
+    private Player winner;
+
+    /**
+     * Bereitet einen Angriff vor
+     * @param game das Spiel
+     * @param attackerCastle die angreifende Burg
+     * @param defenderCastle die angegriffene Burg
+     * @param troopAttackCount die Anzahl der angreifenden Truppen
+     */
+    public Battle(Game game, Castle attackerCastle, Castle defenderCastle, int troopAttackCount) {
+        this.game = game;
+        this.attackerCastle = attackerCastle;
+        this.defenderCastle = defenderCastle;
+        this.attacker = attackerCastle.getOwner();
+        this.defender = defenderCastle.getOwner();
+        this.troopAttackCount = troopAttackCount;
+        this.attackUntil = Math.max(1, attackerCastle.getTroopCount() - troopAttackCount);
+        this.winner = defender;
+    }
+
+    /**
+     * Prüft, ob eine weitere Würfelrunde ausgetragen wird
+     * @return true, wenn der Angreifer noch Truppen übrig hat und die Burg noch nicht erobert wurde
+     */
+    public boolean hasNextRound() {
+        return winner != attacker && attackerCastle.getTroopCount() > attackUntil;
+    }
+
+    /**
+     * Der Angreifer würfelt mit höchstens 3 Würfeln und nicht mit mehr Würfeln als Truppen, die angreifen können
+     * @return die Anzahl der Würfel des Angreifers
+     */
+    public int getAttackerDiceCount() {
+        return Math.min(troopAttackCount, Math.min(attackerCastle.getTroopCount() - 1, 3));
+    }
+
+    /**
+     * Der Verteidiger würfelt mit höchstens 2 Würfeln
+     * @return die Anzahl der Würfel des Verteidigers
+     */
+    public int getDefenderDiceCount() {
+        return Math.min(2, defenderCastle.getTroopCount());
+    }
+
+    /**
+     * Wertet eine Würfelrunde aus
+     * @param attackerDice die Würfel des Angreifers
+     * @param defenderDice die Würfel des Verteidigers
+     */
+    public void doRound(int[] attackerDice, int[] defenderDice) {
+        game.doAttack(attackerCastle, defenderCastle, attackerDice, defenderDice);
+        if(defenderCastle.getOwner() == attacker)
+            winner = attacker;
+    }
+
+    /**
+     * Trägt alle Würfelrunden direkt nacheinander aus
+     * @return der Gewinner des Angriffs
+     */
+    public Player resolve() {
+        while(hasNextRound()) {
+            int attackerDice[] = game.roll(attacker, getAttackerDiceCount(), true);
+            int defenderDice[] = game.roll(defender, getDefenderDiceCount(), true);
+            doRound(attackerDice, defenderDice);
+        }
+
+        return winner;
+    }
+
+    /**
+     * Konvertiert die angegriffene Burg ohne Würfeln (Joker "Konvertieren").
+     * Flaggenburgen lassen sich nicht konvertieren, in diesem Fall bleibt der Verteidiger Gewinner.
+     * @return der Gewinner der Konvertierung
+     */
+    public Player convert() {
+        if (!defenderCastle.isFlagCastle()) {
+            attacker.setInstantAttackWin(false);
+            defenderCastle.setOwner(attacker);
+
+            while (attackerCastle.getTroopCount() > attackUntil) {
+                attackerCastle.removeTroops(1);
+                defenderCastle.addTroops(1);
+            }
+
+            winner = attacker;
+        }
+
+        return winner;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,280 @@
+package game;
+
+/**
+ * Berechnet die exakten Gewinnwahrscheinlichkeiten und erwarteten Verluste eines Angriffs nach den Regeln von {@link Battle},
+ * statt den Angriff Würfel für Würfel zu simulieren.
+ *
+ * Ein Angriff ist eine Markow-Kette über die Truppen, die der Angreifer noch verlieren darf, und die Truppen des Verteidigers.
+ * Der Angreifer würfelt mit höchstens 3, der Verteidiger mit höchstens 2 Würfeln, bei Gleichstand gewinnt der Verteidiger.
+ * Die Werte aller Zustände werden einmalig in Tabellen berechnet, die bei Bedarf bis zu einer festen Größe vergrößert werden.
+ * Eine Abfrage kostet danach nur noch einen Tabellenzugriff, größere Angriffe werden einzeln berechnet.
+ */
+public class BattleOdds {
+
+    /**
+     * Die Tabellen für alle Zustände bis zu einer festen Truppenzahl. Einmal berechnet, werden sie nicht mehr verändert.
+     * Eine Tabelle kann sich auf einen Wert von spare und die letzten Zeilen von remaining beschränken,
+     * dann enthält sie am Ende nur noch die Werte für maxRemaining.
+     */
+    private static final class Table {
+
+        private final int maxRemaining;
+        private final int maxDefenders;
+        private final int minSpare;
+        private final int rows;
+
+        // [spare - minSpare][surplus][remaining % rows * (maxDefenders + 1) + defenders], siehe index(int, int)
+        private final double[][][] win;
+        private final double[][][] attackerLosses;
+        private final double[][][] defenderLosses;
+
+        private Table(int maxRemaining, int maxDefenders) {
+            this(maxRemaining, maxDefenders, 0, 2, maxRemaining + 1);
+        }
+
+        private Table(int maxRemaining, int maxDefenders, int minSpare, int maxSpare, int rows) {
+            this.maxRemaining = maxRemaining;
+            this.maxDefenders = maxDefenders;
+            this.minSpare = minSpare;
+            this.rows = rows;
+
+            int spares = maxSpare - minSpare + 1;
+            int size = rows * (maxDefenders + 1);
+            this.win = new double[spares][3][size];
+            this.attackerLosses = new double[spares][3][size];
+            this.defenderLosses = new double[spares][3][size];
+
+            // Ein Zustand hängt nur von Zuständen mit weniger Truppen und gleichem oder größerem surplus ab,
+            // dabei verliert der Angreifer höchstens 2 Truppen. Dafür reichen 3 Zeilen von remaining.
+            for (int remaining = 1; remaining <= maxRemaining; remaining++) {
+                for (int spare = minSpare; spare <= maxSpare; spare++) {
+                    for (int surplus = 2; surplus >= 0; surplus--) {
+                        for (int defenders = 1; defenders <= maxDefenders; defenders++) {
+                            compute(spare, surplus, remaining, defenders);
+                        }
+                    }
+                }
+            }
+        }
+
+        private int index(int remaining, int defenders) {
+            return remaining % rows * (maxDefenders + 1) + defenders;
+        }
+
+        private BattleOdds get(int spare, int surplus, int remaining, int defenders) {
+            int index = index(remaining, defenders);
+            return new BattleOdds(win[spare - minSpare][surplus][index],
+                attackerLosses[spare - minSpare][surplus][index],
+                defenderLosses[spare - minSpare][surplus][index]);
+        }
+
+        private void compute(int spare, int surplus, int remaining, int defenders) {
+            int attackerDice = Math.min(3, remaining + Math.min(surplus, spare));
+            int defenderDice = Math.min(2, defenders);
+            double[] outcomes = OUTCOMES[attackerDice][defenderDice];
+            int comparisons = outcomes.length - 1;
+            double[][] win = this.win[spare - minSpare];
+            double[][] attackerLosses = this.attackerLosses[spare - minSpare];
+            double[][] defenderLosses = this.defenderLosses[spare - minSpare];
+
+            double winProbability = 0, attackerLoss = 0, defenderLoss = 0;
+            for (int attackerLost = 0; attackerLost <= comparisons; attackerLost++) {
+                double probability = outcomes[attackerLost];
+                if (probability == 0)
+                    continue;
+
+                int defenderLost = comparisons - attackerLost;
+                int nextRemaining = remaining - attackerLost;
+                int nextDefenders = defenders - defenderLost;
+
+                attackerLoss += probability * attackerLost;
+                defenderLoss += probability * defenderLost;
+
+                if (nextDefenders == 0) {
+                    winProbability += probability;
+                } else if (nextRemaining > 0) {
+                    int next = index(nextRemaining, nextDefenders);
+                    int nextSurplus = Math.min(2, surplus + attackerLost);
+                    winProbability += probability * win[nextSurplus][next];
+                    attackerLoss += probability * attackerLosses[nextSurplus][next];
+                    defenderLoss += probability * defenderLosses[nextSurplus][next];
+                }
+            }
+
+            int current = index(remaining, defenders);
+            win[surplus][current] = winProbability;
+            attackerLosses[surplus][current] = attackerLoss;
+            defenderLosses[surplus][current] = defenderLoss;
+        }
+    }
+
+    /**
+     * Eine einzelne Abfrage außerhalb der Tabelle und ihr Ergebnis
+     */
+    private static final class Query {
+
+        private final int remaining;
+        private final int defenders;
+        private final int spare;
+        private final int surplus;
+        private final BattleOdds odds;
+
+        private Query(int remaining, int defenders, int spare, int surplus, BattleOdds odds) {
+            this.remaining = remaining;
+            this.defenders = defenders;
+            this.spare = spare;
+            this.surplus = surplus;
+            this.odds = odds;
+        }
+    }
+
+    // [Würfel Angreifer][Würfel Verteidiger][verlorene Truppen des Angreifers] -> Wahrscheinlichkeit einer Würfelrunde
+    private static final double[][][] OUTCOMES = new double[4][3][];
+
+    static {
+        for (int attackerDice = 1; attackerDice <= 3; attackerDice++) {
+            for (int defenderDice = 1; defenderDice <= 2; defenderDice++) {
+                OUTCOMES[attackerDice][defenderDice] = countOutcomes(attackerDice, defenderDice);
+            }
+        }
+    }
+
+    // Bis zu dieser Truppenzahl wird die gemeinsame Tabelle je Dimension vergrößert
+    private static final int MAX_TABLE_SIZE = 128;
+
+    private static volatile Table table = new Table(32, 32);
+    private static volatile Query lastQuery;
+
+    private final double winProbability;
+    private final double expectedAttackerLosses;
+    private final double expectedDefenderLosses;
+
+    private BattleOdds(double winProbability, double expectedAttackerLosses, double expectedDefenderLosses) {
+        this.winProbability = winProbability;
+        this.expectedAttackerLosses = expectedAttackerLosses;
+        this.expectedDefenderLosses = expectedDefenderLosses;
+    }
+
+    /**
+     * Berechnet die Aussichten eines Angriffs mit denselben Parametern wie {@link Game#startAttack(game.map.Castle, game.map.Castle, int)}
+     * @param attackerTroops die Truppen in der angreifenden Burg
+     * @param defenderTroops die Truppen in der angegriffenen Burg
+     * @param troopAttackCount die Anzahl der angreifenden Truppen
+     * @return die Aussichten des Angriffs
+     */
+    public static BattleOdds get(int attackerTroops, int defenderTroops, int troopAttackCount) {
+        if (attackerTroops < 1 || defenderTroops < 0 || troopAttackCount < 1)
+            throw new IllegalArgumentException();
+
+        if (defenderTroops == 0)
+            return new BattleOdds(1, 0, 0);
+
+        // Wie in Battle: angegriffen wird, solange mehr als attackUntil Truppen in der Burg sind
+        int attackUntil = Math.max(1, attackerTroops - troopAttackCount);
+        int remaining = attackerTroops - attackUntil;
+        if (remaining <= 0)
+            return new BattleOdds(0, 0, 0);
+
+        // Der Angreifer würfelt mit min(3, troopAttackCount, Truppen - 1) = min(3, remaining + min(surplus, spare)) Würfeln.
+        // Er kann also mehr Würfel werfen, als er noch Truppen verlieren darf. spare bleibt während des Angriffs gleich,
+        // surplus wächst mit jeder verlorenen Truppe. Ab 2 ändern beide die Würfelzahl nicht mehr.
+        int spare = Math.min(2, attackUntil - 1);
+        int surplus = Math.min(2, troopAttackCount - remaining);
+
+        if (remaining > MAX_TABLE_SIZE || defenderTroops > MAX_TABLE_SIZE)
+            return compute(remaining, defenderTroops, spare, surplus);
+
+        return getTable(remaining, defenderTroops).get(spare, surplus, remaining, defenderTroops);
+    }
+
+    /**
+     * Gibt die Wahrscheinlichkeit zurück, dass der Angriff die Burg erobert
+     * @return die Gewinnwahrscheinlichkeit des Angreifers
+     */
+    public double getWinProbability() {
+        return this.winProbability;
+    }
+
+    /**
+     * Gibt zurück, wie viele Truppen der Angreifer im Mittel beim Würfeln verliert.
+     * Die Truppe, die nach einer Eroberung in die Burg einzieht, ist nicht enthalten.
+     * @return die erwarteten Verluste des Angreifers
+     */
+    public double getExpectedAttackerLosses() {
+        return this.expectedAttackerLosses;
+    }
+
+    /**
+     * Gibt zurück, wie viele Truppen der Verteidiger im Mittel verliert
+     * @return die erwarteten Verluste des Verteidigers
+     */
+    public double getExpectedDefenderLosses() {
+        return this.expectedDefenderLosses;
+    }
+
+    private static Table getTable(int remaining, int defenders) {
+        Table current = table;
+        if (remaining <= current.maxRemaining && defenders <= current.maxDefenders)
+            return current;
+
+        synchronized (BattleOdds.class) {
+            current = table;
+            if (remaining > current.maxRemaining || defenders > current.maxDefenders) {
+                current = new Table(grow(current.maxRemaining, remaining), grow(current.maxDefenders, defenders));
+                table = current;
+            }
+
+            return current;
+        }
+    }
+
+    /**
+     * Vergrößert eine Dimension der Tabelle nur, wenn sie zu klein ist, dann aber auf das Doppelte, höchstens bis {@link #MAX_TABLE_SIZE}
+     */
+    private static int grow(int size, int required) {
+        if (required <= size)
+            return size;
+
+        return Math.min(MAX_TABLE_SIZE, Math.max(required, size * 2));
+    }
+
+    /**
+     * Berechnet eine Abfrage jenseits von {@link #MAX_TABLE_SIZE} einzeln, ohne die gemeinsame Tabelle zu vergrößern.
+     * Dabei wird nur ein Wert von spare und werden nur 3 Zeilen gespeichert.
+     * Die letzte Abfrage wird gemerkt, damit wiederholtes Zeichnen derselben Auswahl sie nicht neu berechnet.
+     */
+    private static BattleOdds compute(int remaining, int defenders, int spare, int surplus) {
+        Query query = lastQuery;
+        if (query != null && query.remaining == remaining && query.defenders == defenders && query.spare == spare && query.surplus == surplus)
+            return query.odds;
+
+        BattleOdds odds = new Table(remaining, defenders, spare, spare, 3).get(spare, surplus, remaining, defenders);
+        lastQuery = new Query(remaining, defenders, spare, surplus, odds);
+        return odds;
+    }
+
+    /**
+     * Zählt alle Würfelergebnisse einer Runde aus und bestimmt die Wahrscheinlichkeit,
+     * mit der der Angreifer 0, 1 oder 2 Truppen verliert
+     */
+    private static double[] countOutcomes(int attackerDice, int defenderDice) {
+        int comparisons = Math.min(attackerDice, defenderDice);
+        int total = (int) Math.pow(6, attackerDice + defenderDice);
+        double[] outcomes = new double[comparisons + 1];
+
+        int[] attacker = new int[attackerDice];
+        int[] defender = new int[defenderDice];
+        for (int roll = 0; roll < total; roll++) {
+            int value = roll;
+            for (int i = 0; i < attackerDice; i++, value /= 6)
+                attacker[i] = value % 6 + 1;
+            for (int i = 0; i < defenderDice; i++, value /= 6)
+                defender[i] = value % 6 + 1;
+
+            int attackerLost = DiceComparison.getAttackerLosses(DiceComparison.compare(attacker, defender), comparisons);
+            outcomes[attackerLost] += 1.0 / total;
+        }
+
+        return outcomes;
+    }
+}
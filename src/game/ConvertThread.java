@@ -1,6 +1,5 @@
-package gui;
+package game;
 
-import game.Game;
 import game.map.Castle;
 
 public class ConvertThread extends AttackThread {
@@ -12,26 +11,14 @@ public class ConvertThread extends AttackThread {
 	@Override
 	public void run() {
 		if (!defenderCastle.isFlagCastle()) {
-			
-			attacker.setInstantAttackWin(false);
-			defenderCastle.setOwner(attacker);
-
-			int moveUntil = Math.max(1, attackerCastle.getTroopCount() - troopAttackCount);
-
 			try {
 				super.sleep(1500);
 			} catch (InterruptedException ex) {
 				ex.printStackTrace();
 			}
-
-			while (attackerCastle.getTroopCount() > moveUntil) {
-				attackerCastle.removeTroops(1);
-				defenderCastle.addTroops(1);
-			}
-
-			winner = attacker;
 		}
 
+		battle.convert();
 		game.stopAttack();
 	}
 }
@@ -0,0 +1,115 @@
+package game;
+
+/**
+ * Vergleicht die Würfel von Angreifer und Verteidiger einer Würfelrunde, ohne Objekte zu erzeugen.
+ * Beide Seiten werden mit einem Sortiernetz für höchstens 3 Würfel in lokalen Variablen absteigend sortiert,
+ * danach wird der höchste Würfel des Angreifers mit dem höchsten des Verteidigers verglichen, der zweithöchste mit dem zweithöchsten usw.
+ *
+ * Das Ergebnis einer Runde ist eine Bitmaske: Bit i ist gesetzt, wenn der Angreifer den i-ten Vergleich gewinnt.
+ * Bei Gleichstand gewinnt der Verteidiger.
+ */
+public class DiceComparison {
+
+    public static final int MAX_DICE = 3;
+
+    private DiceComparison() {}
+
+    /**
+     * Vergleicht die Würfel einer Runde
+     * @param attackerDice die Würfel des Angreifers, höchstens 3
+     * @param defenderDice die Würfel des Verteidigers, höchstens 3
+     * @return die Bitmaske der gewonnenen Vergleiche des Angreifers
+     */
+    public static int compare(int[] attackerDice, int[] defenderDice) {
+        return compare(attackerDice, 0, attackerDice.length, defenderDice, 0, defenderDice.length);
+    }
+
+    /**
+     * Vergleicht die Würfel einer Runde, die an beliebiger Stelle in größeren Arrays stehen
+     * @param attackerRolls die Würfel des Angreifers
+     * @param attackerOffset die Position des ersten Würfels des Angreifers
+     * @param attackerCount die Anzahl der Würfel des Angreifers, höchstens 3
+     * @param defenderRolls die Würfel des Verteidigers
+     * @param defenderOffset die Position des ersten Würfels des Verteidigers
+     * @param defenderCount die Anzahl der Würfel des Verteidigers, höchstens 3
+     * @return die Bitmaske der gewonnenen Vergleiche des Angreifers
+     */
+    public static int compare(int[] attackerRolls, int attackerOffset, int attackerCount,
+                              int[] defenderRolls, int defenderOffset, int defenderCount) {
+        if(attackerCount > MAX_DICE || defenderCount > MAX_DICE)
+            throw new IllegalArgumentException("Es können höchstens " + MAX_DICE + " Würfel verglichen werden");
+
+        // Fehlende Würfel werden als 0 eingesetzt und landen dadurch hinten
+        int a0 = attackerCount > 0 ? attackerRolls[attackerOffset] : 0;
+        int a1 = attackerCount > 1 ? attackerRolls[attackerOffset + 1] : 0;
+        int a2 = attackerCount > 2 ? attackerRolls[attackerOffset + 2] : 0;
+        int d0 = defenderCount > 0 ? defenderRolls[defenderOffset] : 0;
+        int d1 = defenderCount > 1 ? defenderRolls[defenderOffset + 1] : 0;
+        int d2 = defenderCount > 2 ? defenderRolls[defenderOffset + 2] : 0;
+
+        int swap;
+        if(a0 < a1) { swap = a0; a0 = a1; a1 = swap; }
+        if(a1 < a2) { swap = a1; a1 = a2; a2 = swap; }
+        if(a0 < a1) { swap = a0; a0 = a1; a1 = swap; }
+
+        if(d0 < d1) { swap = d0; d0 = d1; d1 = swap; }
+        if(d1 < d2) { swap = d1; d1 = d2; d2 = swap; }
+        if(d0 < d1) { swap = d0; d0 = d1; d1 = swap; }
+
+        int comparisons = Math.min(attackerCount, defenderCount);
+        int result = 0;
+        if(comparisons > 0 && a0 > d0)
+            result |= 1;
+        if(comparisons > 1 && a1 > d1)
+            result |= 2;
+        if(comparisons > 2 && a2 > d2)
+            result |= 4;
+
+        return result;
+    }
+
+    /**
+     * Vergleicht viele Runden auf einmal. Die Würfel der Runden stehen hintereinander in den Arrays,
+     * Runde r belegt bei attackerRolls die Stellen r * attackerCount bis (r + 1) * attackerCount - 1.
+     * @param attackerRolls die Würfel des Angreifers aller Runden
+     * @param attackerCount die Anzahl der Würfel des Angreifers pro Runde
+     * @param defenderRolls die Würfel des Verteidigers aller Runden
+     * @param defenderCount die Anzahl der Würfel des Verteidigers pro Runde
+     * @param results nimmt die Bitmaske jeder Runde auf
+     * @param rounds die Anzahl der Runden
+     */
+    public static void compareAll(int[] attackerRolls, int attackerCount, int[] defenderRolls, int defenderCount, int[] results, int rounds) {
+        for(int round = 0; round < rounds; round++) {
+            results[round] = compare(attackerRolls, round * attackerCount, attackerCount, defenderRolls, round * defenderCount, defenderCount);
+        }
+    }
+
+    /**
+     * Prüft, ob der Angreifer einen Vergleich gewonnen hat
+     * @param result die Bitmaske einer Runde
+     * @param comparison der Vergleich, 0 für die höchsten Würfel
+     * @return true, wenn der Angreifer den Vergleich gewonnen hat
+     */
+    public static boolean attackerWins(int result, int comparison) {
+        return (result & (1 << comparison)) != 0;
+    }
+
+    /**
+     * Gibt zurück, wie viele Truppen der Verteidiger in einer Runde verliert
+     * @param result die Bitmaske einer Runde
+     * @return die Verluste des Verteidigers
+     */
+    public static int getDefenderLosses(int result) {
+        return Integer.bitCount(result);
+    }
+
+    /**
+     * Gibt zurück, wie viele Truppen der Angreifer in einer Runde verliert
+     * @param result die Bitmaske einer Runde
+     * @param comparisons die Anzahl der Vergleiche, also die kleinere Würfelzahl beider Seiten
+     * @return die Verluste des Angreifers
+     */
+    public static int getAttackerLosses(int result, int comparisons) {
+        return comparisons - Integer.bitCount(result);
+    }
+}
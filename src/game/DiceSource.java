@@ -0,0 +1,15 @@
+package game;
+
+/**
+ * Eine Quelle für Würfelergebnisse, beispielsweise ein Zufallsgenerator mit festem Seed für reproduzierbare Spiele
+ */
+public interface DiceSource {
+
+    /**
+     * Würfelt für den angegebenen Spieler
+     * @param player der würfelnde Spieler
+     * @param dices die Anzahl der Würfel
+     * @return die Augenzahlen von 1 bis 6, ein Eintrag pro Würfel
+     */
+    int[] roll(Player player, int dices);
+}
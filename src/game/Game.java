@@ -9,10 +9,7 @@ import game.map.Castle;
 import game.map.Kingdom;
 import game.map.GameMap;
 import game.map.MapSize;
-import gui.AttackThread;
-import gui.ConvertThread;
-import gui.Resources;
-import gui.views.GameView;
+import game.replay.GameRecorder;
 
 public class Game {
 
@@ -28,18 +25,29 @@ public class Game {
     private Player currentPlayer;
     private GameInterface gameInterface;
     private AttackThread attackThread;
+    private Joker[] jokers;
+    private TurnScheduler turnScheduler;
+    private long seed;
+    private GameRecorder recorder;
+    private long currentPlayerHash;
+    private int[] jokerInvocations;
+    private long jokerHash;
 
     public Game() {
         this.isOver = false;
         this.hasStarted = false;
         this.mapSize = MapSize.MEDIUM;
         this.players = new LinkedList<>();
+        this.jokers = GameConstants.createJokers();
+        this.turnScheduler = new TurnScheduler(this);
+        this.seed = new Random().nextLong();
     }
 
     public void addPlayer(Player p) {
         if(players.contains(p))
             throw new IllegalArgumentException("Spieler wurde bereits hinzugefügt");
 
+        p.setIndex(players.size());
         this.players.add(p);
     }
 
@@ -60,7 +68,35 @@ public class Game {
         this.mapSize = mapSize;
     }
 
-    private void generateMap() {
+    /**
+     * Setzt den Startwert für die Generierung der Karte und die Reihenfolge der Spieler.
+     * Mit gleichem Startwert, gleichen Spielern und gleicher Kartengröße entsteht dasselbe Spielfeld.
+     * @param seed der Startwert
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Zeichnet alle Spielzüge mit dem angegebenen Rekorder auf. Muss vor {@link #start(GameInterface)} gesetzt werden.
+     * @param recorder der Rekorder oder null, um nicht aufzuzeichnen
+     */
+    public void setRecorder(GameRecorder recorder) {
+        if(hasStarted)
+            throw new IllegalArgumentException("Spiel wurde bereits gestartet");
+
+        this.recorder = recorder;
+    }
+
+    public GameRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    private void generateMap(Random random) {
 
         int mapSizeMultiplier = this.mapSize.ordinal() + 1;
         int playerCount = players.size();
@@ -76,7 +112,7 @@ public class Game {
 
         int continents = Math.min(6, playerCount + this.mapSize.ordinal());
 
-        this.gameMap = GameMap.generateRandomMap(width, height, 40, numRegions, continents);
+        this.gameMap = GameMap.generateRandomMap(width, height, 40, numRegions, continents, random);
     }
 
     public void start(GameInterface gameInterface) {
@@ -90,7 +126,8 @@ public class Game {
         if(goal == null)
             throw new IllegalArgumentException("Kein Spielziel gesetzt");
 
-        this.generateMap();
+        Random random = new Random(seed);
+        this.generateMap(random);
         setupJokers();
 
         // Create random player order
@@ -98,7 +135,7 @@ public class Game {
         List<Player> tempList = new ArrayList<>(players);
         playerQueue = new ArrayDeque<>();
         while(!tempList.isEmpty()) {
-            Player player = tempList.remove((int) (Math.random() * tempList.size()));
+            Player player = tempList.remove(random.nextInt(tempList.size()));
             player.reset();
             playerQueue.add(player);
         }
@@ -108,8 +145,11 @@ public class Game {
         isOver = false;
         round = 0;
 
+        if(recorder != null)
+            recorder.onGameStarted(this);
+
         gameInterface.onGameStarted(this);
-        nextTurn();
+        advanceTurn();
     }
 
     public AttackThread startAttack(Castle source, Castle target, int troopCount) {
@@ -119,29 +159,71 @@ public class Game {
         if(source.getOwner().getTeam() == target.getOwner().getTeam() || troopCount < 1)
             return null;
 
+        // Der Angriff kann bereits beendet sein, bevor diese Methode zurückkehrt, daher wird nicht das Attribut zurückgegeben
+        AttackThread attack;
         if (source.getOwner().isInstantAttackWin()) {
-        	attackThread = new ConvertThread(this, source, target, troopCount);
+        	attack = new ConvertThread(this, source, target, troopCount);
         	gameInterface.onConversionStarted(source, target, troopCount);
         } else {
-        	attackThread = new AttackThread(this, source, target, troopCount);
+        	attack = new AttackThread(this, source, target, troopCount);
         	gameInterface.onAttackStarted(source, target, troopCount);
         }
 
-        attackThread.start();
+        if (isHeadless())
+            attack.fastForward();
+
+        if(recorder != null)
+            recorder.onAttack(source, target, troopCount);
+
+        attackThread = attack;
+        attack.start();
         gameInterface.onUpdate();
-        return attackThread;
+        return attack;
+    }
+
+    /**
+     * Führt einen Angriff sofort und vollständig im aufrufenden Thread aus, ohne einen {@link AttackThread} zu starten.
+     * Es gelten dieselben Regeln wie bei {@link #startAttack(Castle, Castle, int)}, die Würfelrunden werden jedoch
+     * ohne Wartezeiten nacheinander ausgetragen. Gedacht für KI-Züge, die nicht angezeigt werden müssen.
+     * @param source die angreifende Burg
+     * @param target die angegriffene Burg
+     * @param troopCount die Anzahl der angreifenden Truppen
+     * @return der Gewinner des Angriffs oder null, falls der Angriff nicht durchgeführt werden konnte
+     */
+    public Player resolveAttack(Castle source, Castle target, int troopCount) {
+        if(attackThread != null)
+            return null;
+
+        if(source.getOwner().getTeam() == target.getOwner().getTeam() || troopCount < 1)
+            return null;
+
+        if(recorder != null)
+            recorder.onAttack(source, target, troopCount);
+
+        Battle battle = new Battle(this, source, target, troopCount);
+        Player winner;
+        if (source.getOwner().isInstantAttackWin()) {
+            gameInterface.onConversionStarted(source, target, troopCount);
+            winner = battle.convert();
+        } else {
+            gameInterface.onAttackStarted(source, target, troopCount);
+            winner = battle.resolve();
+        }
+
+        gameInterface.onAttackStopped();
+        gameInterface.onUpdate();
+        return winner;
     }
 
     public void doAttack(Castle attackerCastle, Castle defenderCastle, int[] rollAttacker, int[] rollDefender) {
 
-        Integer[] rollAttackerSorted = Arrays.stream(rollAttacker).boxed().sorted(Comparator.reverseOrder()).toArray(Integer[]::new);
-        Integer[] rollDefenderSorted = Arrays.stream(rollDefender).boxed().sorted(Comparator.reverseOrder()).toArray(Integer[]::new);
+        int result = DiceComparison.compare(rollAttacker, rollDefender);
 
         Player attacker = attackerCastle.getOwner();
         Player defender = defenderCastle.getOwner();
 
         for(int i = 0; i < Math.min(rollAttacker.length, rollDefender.length); i++) {
-            if(rollAttackerSorted[i] > rollDefenderSorted[i]) {
+            if(DiceComparison.attackerWins(result, i)) {
                 defenderCastle.removeTroops(1);
                 if(defenderCastle.getTroopCount() == 0) {
                     attackerCastle.removeTroops(1);
@@ -163,6 +245,9 @@ public class Game {
     }
 
     public void moveTroops(Castle source, Castle destination, int troopCount) {
+        if(recorder != null)
+            recorder.onMoveTroops(source, destination, troopCount);
+
         if(troopCount >= source.getTroopCount() || source.getOwner().getTeam() != destination.getOwner().getTeam())
             return;
 
@@ -176,7 +261,11 @@ public class Game {
     }
 
     public int[] roll(Player player, int dices, boolean fastForward) {
-        return gameInterface.onRoll(player, dices, fastForward);
+        int[] roll = gameInterface.onRoll(player, dices, fastForward);
+        if(recorder != null)
+            recorder.onRoll(player, roll);
+
+        return roll;
     }
 
     public boolean allCastlesChosen() {
@@ -200,6 +289,9 @@ public class Game {
     }
 
     public void chooseCastle(Castle castle, Player player) {
+        if(recorder != null)
+            recorder.onChooseCastle(castle, player);
+
         if(isFlagCastleChoice(castle, player)) {
     		
     		try {
@@ -208,12 +300,12 @@ public class Game {
 				castle.addTroops(player.getRemainingTroops());
 				player.removeTroops(player.getRemainingTroops());
 				gameInterface.onCastleChosen(castle, player);
-				nextTurn();
+				advanceTurn();
 				
 			} catch (hasFlagCastleException | alreadyFlagCastleException ex) {
 				System.out.println(ex.getMessage());
 				ex.printStackTrace();
-				nextTurn();
+				advanceTurn();
 			}
     		
     	}
@@ -229,7 +321,7 @@ public class Game {
 
         if(player.getRemainingTroops() == 0 || allCastlesChosen()) {
             player.removeTroops(player.getRemainingTroops());
-            nextTurn();
+            advanceTurn();
         }
     }
 
@@ -264,6 +356,9 @@ public class Game {
     }
 
     public void addTroops(Player player, Castle castle, int count) {
+        if(recorder != null)
+            recorder.onAddTroops(player, castle, count);
+
         if(count < 1 || castle.getOwner() != player)
             return;
 
@@ -286,15 +381,69 @@ public class Game {
         		addScore(p, 150);
         }
 
-        Resources resources = Resources.getInstance();
-        for(Player player : players) {
-            resources.addScoreEntry(new ScoreEntry(player, goal));
-        }
+        gameInterface.onGoalReached(this);
+        finishGame(winner);
+    }
+
+    /**
+     * Beendet das Spiel. Jedes Spielende führt hierüber, unabhängig davon, ob das Spielziel erreicht wurde.
+     * @param winner der Gewinner oder null
+     */
+    private void finishGame(Player winner) {
+        isOver = true;
+        turnScheduler.stop();
+
+        if(recorder != null)
+            recorder.onGameOver();
 
         gameInterface.onGameOver(winner);
     }
 
+    /**
+     * Bricht das Spiel ab, ohne einen Gewinner zu ermitteln. Ein laufender Zug wird noch beendet,
+     * eine KI am Zug wird dazu vorgespult. Danach beginnt kein neuer Zug mehr.
+     */
+    public void abort() {
+        isOver = true;
+        turnScheduler.stop();
+
+        if(currentPlayer instanceof AI)
+            ((AI) currentPlayer).fastForward();
+    }
+
+    /**
+     * Gibt die Anzeige zurück, über die das Spiel mit den Spielern kommuniziert
+     * @return die Anzeige, null vor dem Start
+     */
+    public GameInterface getGameInterface() {
+        return this.gameInterface;
+    }
+
+    /**
+     * Gibt den Scheduler zurück, der die Züge der KIs dieses Spiels ausführt
+     * @return der Scheduler
+     */
+    public TurnScheduler getTurnScheduler() {
+        return this.turnScheduler;
+    }
+
+    /**
+     * Beendet den Zug des aktuellen Spielers und beginnt den Zug des nächsten Spielers
+     */
     public void nextTurn() {
+        if(recorder != null && !isOver)
+            recorder.onNextTurn();
+
+        advanceTurn();
+    }
+
+    /**
+     * Wechselt zum nächsten Spieler. Wird intern verwendet, damit nur die von außen beendeten Züge aufgezeichnet werden.
+     */
+    private void advanceTurn() {
+
+        if(isOver)
+            return;
 
         if(goal.isCompleted()) {
             endGame();
@@ -316,8 +465,7 @@ public class Game {
         } while(nextPlayer == null && !playerQueue.isEmpty());
 
         if(nextPlayer == null) {
-            isOver = true;
-            gameInterface.onGameOver(goal.getWinner());
+            finishGame(goal.getWinner());
             return;
         }
         
@@ -326,6 +474,7 @@ public class Game {
         }
 
         currentPlayer = nextPlayer;
+        currentPlayerHash = Zobrist.key(Zobrist.CURRENT_PLAYER, 0, players.indexOf(currentPlayer) + 1);
         playerQueue.add(currentPlayer); // muss bereits hier stehen, damit Bugs durch Multithreading eliminiert werden
 
         if(round == 0 || (round == 1 && allCastlesChosen() && allFlagsDistributed()) ||
@@ -338,7 +487,7 @@ public class Game {
         if (shouldSkipTurn()) {
         	logIfPossible("%PLAYER% wird übersprungen.", currentPlayer);
 
-        	nextTurn();
+        	advanceTurn();
         	return;
         }
 
@@ -374,9 +523,70 @@ public class Game {
      * @param destCastle das zweite Ende der Kante
      */
     public void addEdge(Castle startCastle, Castle destCastle) {
+    	if(recorder != null)
+    		recorder.onAddEdge(startCastle, destCastle);
+
     	this.gameMap.addEdge(startCastle, destCastle);
     }
 
+    /**
+     * Setzt einen Joker für den aktuellen Spieler ein
+     * @param joker der Joker
+     */
+    public void invokeJoker(Joker joker) {
+    	joker.invoke();
+
+    	if(recorder != null)
+    		recorder.onJoker(joker);
+    }
+
+    /**
+     * Zählt die Nutzungen eines Jokers für den Hash des Spiels, siehe {@link Joker#countInvocations(Player, int)}
+     */
+    void onJokerInvoked(Joker joker, Player player, int count) {
+        int playerIndex = players.indexOf(player);
+        int jokerIndex = Arrays.asList(jokers).indexOf(joker);
+        if(playerIndex < 0 || jokerIndex < 0)
+            return;
+
+        if(jokerInvocations == null)
+            jokerInvocations = new int[jokers.length * players.size()];
+
+        int index = jokerIndex * players.size() + playerIndex;
+        jokerHash ^= Zobrist.change(Zobrist.JOKER, index, jokerInvocations[index], jokerInvocations[index] + count);
+        jokerInvocations[index] += count;
+    }
+
+    /**
+     * Gibt einen Zobrist-Hash des Spielstands zurück: Besitzer, Truppen und Flaggen der Burgen,
+     * die verbleibenden Truppen der Spieler, der Spieler am Zug und die Nutzungen der Joker.
+     * Alle Teile werden bei jeder Änderung fortgeschrieben, der Aufruf kostet also nur wenige XOR-Verknüpfungen.
+     * Gleiche Spielstände desselben Spiels haben denselben Hash, z.B. für eine {@link game.search.TranspositionTable}.
+     * @return der Hash
+     */
+    public long getHash() {
+        long hash = currentPlayerHash ^ jokerHash;
+        if(gameMap != null)
+            hash ^= gameMap.getCastleStore().getHash();
+
+        for(Player player : players)
+            hash ^= player.getHash();
+
+        return hash;
+    }
+
+    /**
+     * Gibt einem Spieler eine Nutzung eines Jokers zurück, z.B. wenn das Graben eines Tunnels abgebrochen wurde
+     * @param joker der Joker
+     * @param player der Spieler
+     */
+    public void grantJokerInvocation(Joker joker, Player player) {
+        joker.grantInvocation(player);
+
+        if(recorder != null)
+            recorder.onGrantJoker(joker, player);
+    }
+
     public Player getCurrentPlayer() {
         return this.currentPlayer;
     }
@@ -425,7 +635,7 @@ public class Game {
      * Bereitet die Joker auf das Spiel vor
      */
     private void setupJokers() {
-    	for (Joker joker : GameConstants.JOKERS) {
+    	for (Joker joker : jokers) {
     		if (joker instanceof game.jokers.ConversionJoker) {
     			int mapSizeMultiplier = this.mapSize.ordinal() + 1;
     			int maxInvocations = GameConstants.CONVERSION_JOKER_INVOCATION_MULTIPLIER * mapSizeMultiplier;
@@ -435,13 +645,34 @@ public class Game {
     	}
     }
     
+    /**
+     * Gibt die Joker dieses Spiels zurück
+     * @return die Joker
+     */
+    public Joker[] getJokers() {
+    	return this.jokers;
+    }
+
+    /**
+     * Gibt den zu dem Namen passenden Joker dieses Spiels zurück
+     * @param name der Name des gesuchten Jokers
+     * @return der Joker mit dem übergebenen Namen oder null
+     */
+    public Joker getJokerByName(String name) {
+    	for (Joker joker : jokers) {
+    		if (joker.getName().equals(name))
+    			return joker;
+    	}
+    	return null;
+    }
+
     /**
      * Bewertet, ob der aktuelle Zug übersprungen werden sollte
      * @return true, wenn der aktuelle Zug übersprungen werden sollte
      */
     private boolean shouldSkipTurn() {
     	
-    	for (Joker joker : GameConstants.JOKERS) {
+    	for (Joker joker : jokers) {
     		if (joker.shouldSkipTurn()) {
     			return true;
     		}
@@ -459,14 +690,22 @@ public class Game {
     }
     
     /**
-     * Prüft ob das gameInterface loggen unterstützt und schreibt message in den log
+     * Schreibt message in den Log des gameInterface, sofern das Spiel bereits gestartet wurde
      * @param message Nachricht, die geloggt werden soll
      * @param players Spieler, um message zu formatieren
      */
     public void logIfPossible(String message, Player... players) {
-    	if (gameInterface instanceof GameView) {
-    		GameView gameView = (GameView) gameInterface;
-    		gameView.logLine(message, players);
+    	if (gameInterface != null) {
+    		gameInterface.onLog(message, players);
     	}
     }
+
+    /**
+     * Prüft, ob das Spiel ohne Anzeige läuft, siehe {@link HeadlessGameInterface}.
+     * In diesem Fall werden alle Wartezeiten übersprungen und keine Highscores gespeichert.
+     * @return true, wenn das Spiel ohne Anzeige läuft
+     */
+    public boolean isHeadless() {
+    	return gameInterface instanceof HeadlessGameInterface;
+    }
 }
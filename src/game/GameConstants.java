@@ -17,6 +17,9 @@ public class GameConstants {
     public static final int TROOPS_PER_ROUND_DIVISOR = 3;
     public static final int CONVERSION_JOKER_INVOCATION_MULTIPLIER = 1;
 
+    // Zeit in Millisekunden, nach der eine KI ihren Zug beenden soll, siehe AI#setTurnTime(long)
+    public static final long AI_TURN_TIME = 15000;
+
     public static final Color COLOR_WATER = Color.BLUE;
     public static final Color COLOR_SAND  = new Color(210, 170, 109);
     public static final Color COLOR_GRASS = new Color(50, 89, 40);
@@ -41,27 +44,35 @@ public class GameConstants {
         Human.class,
         BasicAI.class,
         CustomAI.class,
-        JokerAI.class
-    };
-    
-    public static final Joker JOKERS[] = {
-    	new TroopbonusJoker(),
-    	new SkipPlayerJoker(),
-    	new ConversionJoker(),
-    	new TunnelJoker()
+        JokerAI.class,
+        MonteCarloAI.class
     };
     
     /**
-     * Gibt den zu dem Namen passenden Joker zurück
-     * @param name der Name des gesuchten Jokers
-     * @return der Joker mit dem übergebenen Namen
+     * Erzeugt neue Instanzen aller Joker. Jedes Spiel erhält eigene Joker, siehe {@link Game#getJokers()}.
+     * @return die Joker für ein neues Spiel
+     */
+    public static Joker[] createJokers() {
+    	return new Joker[] {
+    		new TroopbonusJoker(),
+    		new SkipPlayerJoker(),
+    		new ConversionJoker(),
+    		new TunnelJoker()
+    	};
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des Spielziels an der angegebenen Stelle in {@link #GAME_GOALS}.
+     * Die Einträge in GAME_GOALS dienen nur der Auswahl, jedes Spiel sollte ein eigenes Spielziel erhalten.
+     * @param index die Stelle in GAME_GOALS
+     * @return ein neues Spielziel derselben Art
      */
-    public static Joker getJokerByName(String name) {
-    	for(Joker joker:JOKERS) {
-    		if(joker.getName() == name)
-    			return joker;
+    public static Goal createGoal(int index) {
+    	try {
+    		return GAME_GOALS[index].getClass().getDeclaredConstructor().newInstance();
+    	} catch (ReflectiveOperationException ex) {
+    		throw new IllegalArgumentException("Spielziel kann nicht erzeugt werden: " + GAME_GOALS[index].getName(), ex);
     	}
-    	return null;
     }
     
     public static Goal getGoalByName(String name) {
@@ -1,5 +1,7 @@
 package game;
 
+import java.util.List;
+
 import game.map.Castle;
 
 public interface GameInterface {
@@ -11,9 +13,31 @@ public interface GameInterface {
     void onNextTurn(Player currentPlayer, int troopsGot, boolean human);
     void onNewRound(int round);
     void onGameOver(Player winner);
+
+    /**
+     * Wird aufgerufen, wenn das Spielziel erreicht wurde und die Punkte feststehen, vor {@link #onGameOver(Player)}.
+     * Endet das Spiel, weil kein Spieler mehr übrig ist, wird diese Methode nicht aufgerufen.
+     * @param game das beendete Spiel
+     */
+    void onGoalReached(Game game);
     void onGameStarted(Game game);
     void onConquer(Castle castle, Player player);
     void onUpdate();
     void onAddScore(Player player, int score);
     int[] onRoll(Player player, int dices, boolean fastForward);
+    void onLog(String message, Player... players);
+
+    /**
+     * Wird aufgerufen, wenn ein Spieler den Tunnel-Joker eingesetzt hat und nun zwei Burgen auswählen soll
+     * @param player der Spieler, der den Tunnel gräbt
+     */
+    void onTunnelStarted(Player player);
+
+    /**
+     * Lässt einen Spieler einen Gegner auswählen, z.B. für den Joker "Spieler Überspringen"
+     * @param player der auswählende Spieler
+     * @param opponents die wählbaren Gegner, kann leer sein
+     * @return der gewählte Gegner oder null, falls keiner gewählt wurde
+     */
+    Player onChooseOpponent(Player player, List<Player> opponents);
 }
@@ -0,0 +1,151 @@
+package game;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import game.map.Castle;
+
+/**
+ * Ein {@link GameInterface} ohne Anzeige, mit dem Spiele ausschließlich zwischen KIs ohne Swing ablaufen können.
+ * Alle Ereignisse werden ignoriert, gewürfelt wird über eine austauschbare {@link DiceSource}.
+ * Ein Spiel mit dieser Oberfläche überspringt alle Wartezeiten und schreibt keine Highscores, siehe {@link Game#isHeadless()}.
+ * Das Spielende kann mit {@link #awaitGameOver()} abgewartet werden.
+ */
+public class HeadlessGameInterface implements GameInterface {
+
+    private final DiceSource diceSource;
+    private final CountDownLatch gameOver;
+    private volatile Player winner;
+
+    /**
+     * Erzeugt eine Oberfläche, die mit einem neuen Zufallsgenerator würfelt
+     */
+    public HeadlessGameInterface() {
+        this(new Random());
+    }
+
+    /**
+     * Erzeugt eine Oberfläche, die mit dem angegebenen Zufallsgenerator würfelt
+     * @param random der Zufallsgenerator
+     */
+    public HeadlessGameInterface(Random random) {
+        this((player, dices) -> {
+            int[] roll = new int[dices];
+            for(int i = 0; i < dices; i++)
+                roll[i] = random.nextInt(6) + 1;
+
+            return roll;
+        });
+    }
+
+    /**
+     * Erzeugt eine Oberfläche mit einer eigenen Würfelquelle
+     * @param diceSource die Würfelquelle
+     */
+    public HeadlessGameInterface(DiceSource diceSource) {
+        this.diceSource = diceSource;
+        this.gameOver = new CountDownLatch(1);
+    }
+
+    /**
+     * Wartet, bis das Spiel beendet ist
+     * @return der Gewinner oder null bei einem Unentschieden
+     * @throws InterruptedException falls der wartende Thread unterbrochen wurde
+     */
+    public Player awaitGameOver() throws InterruptedException {
+        gameOver.await();
+        return winner;
+    }
+
+    /**
+     * Wartet höchstens die angegebene Zeit, bis das Spiel beendet ist
+     * @param timeout die maximale Wartezeit
+     * @param unit die Einheit der Wartezeit
+     * @return true, wenn das Spiel innerhalb der Wartezeit beendet wurde
+     * @throws InterruptedException falls der wartende Thread unterbrochen wurde
+     */
+    public boolean awaitGameOver(long timeout, TimeUnit unit) throws InterruptedException {
+        return gameOver.await(timeout, unit);
+    }
+
+    public boolean isGameOver() {
+        return gameOver.getCount() == 0;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    @Override
+    public void onAttackStopped() {
+    }
+
+    @Override
+    public void onAttackStarted(Castle source, Castle target, int troopCount) {
+    }
+
+    @Override
+    public void onConversionStarted(Castle source, Castle target, int troopCount) {
+    }
+
+    @Override
+    public void onCastleChosen(Castle castle, Player player) {
+    }
+
+    @Override
+    public void onNextTurn(Player currentPlayer, int troopsGot, boolean human) {
+    }
+
+    @Override
+    public void onNewRound(int round) {
+    }
+
+    @Override
+    public void onGameOver(Player winner) {
+        this.winner = winner;
+        gameOver.countDown();
+    }
+
+    @Override
+    public void onGoalReached(Game game) {
+    }
+
+    @Override
+    public void onGameStarted(Game game) {
+    }
+
+    @Override
+    public void onConquer(Castle castle, Player player) {
+    }
+
+    @Override
+    public void onUpdate() {
+    }
+
+    @Override
+    public void onAddScore(Player player, int score) {
+    }
+
+    @Override
+    public int[] onRoll(Player player, int dices, boolean fastForward) {
+        return diceSource.roll(player, dices);
+    }
+
+    @Override
+    public void onLog(String message, Player... players) {
+    }
+
+    @Override
+    public void onTunnelStarted(Player player) {
+    }
+
+    /**
+     * Ohne Anzeige wird immer der erste Gegner gewählt
+     */
+    @Override
+    public Player onChooseOpponent(Player player, List<Player> opponents) {
+        return opponents.isEmpty() ? null : opponents.get(0);
+    }
+}
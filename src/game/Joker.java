@@ -2,16 +2,15 @@ package game;
 
 import java.util.HashMap;
 import game.GameConstants;
-import gui.components.MapPanel;
 
 public abstract class Joker {
 	
-	protected HashMap<Goal, Boolean> whitelistForGameMode;
+	// Für jede Art von Spielziel, ob der Joker darin erlaubt ist
+	protected HashMap<Class<? extends Goal>, Boolean> whitelistForGameMode;
 	
 	private Game game;
 	private final String name;
 	private String hint;
-	private MapPanel map;
 	
 	public Joker(String name, String hint) {
 		this.name = name;
@@ -19,7 +18,7 @@ public abstract class Joker {
 		whitelistForGameMode = new HashMap<>();
 		
 		for(Goal goal:GameConstants.GAME_GOALS) {
-			whitelistForGameMode.put(goal, true);
+			whitelistForGameMode.put(goal.getClass(), true);
 		}
 	}
 	
@@ -41,6 +40,23 @@ public abstract class Joker {
 	 */
 	public abstract void invoke();
 	
+	/**
+	 * Führt den Joker beim Abspielen eines aufgezeichneten Spiels aus, ohne den Spieler zu fragen oder die Anzeige zu verändern.
+	 * Siehe {@link game.replay.GameReplay}
+	 * @param target der bei der Aufzeichnung gewählte Spieler, siehe {@link #getLastTarget()}
+	 */
+	public void replay(Player target) {
+		invoke();
+	}
+	
+	/**
+	 * Gibt den Spieler zurück, den der aktuelle Spieler beim letzten Einsatz des Jokers ausgewählt hat
+	 * @return der ausgewählte Spieler oder null, falls der Joker keinen Spieler auswählt
+	 */
+	public Player getLastTarget() {
+		return null;
+	}
+	
 	/**
 	 * Wird nach größeren Ereignissen im Spiel ausgeführt (Nach Angriffen, etc.)
 	 */
@@ -82,13 +98,16 @@ public abstract class Joker {
 	}
 	
 	/**
-	 * Setzt ein MapPanel als Attribut, sodass darauf agiert werden kann
-	 * @param map das MapPanel auf dem der Joker verwendet wird
+	 * Muss aufgerufen werden, wenn ein Spieler eine Nutzung des Jokers verbraucht oder zurückerhält,
+	 * damit die Nutzungen in {@link Game#getHash()} eingehen
+	 * @param player der Spieler
+	 * @param count die Anzahl der verbrauchten Nutzungen, negativ für zurückerhaltene
 	 */
-	public void setMapPanel(MapPanel map) {
-		this.map = map;
+	protected final void countInvocations(Player player, int count) {
+		if (game != null)
+			game.onJokerInvoked(this, player, count);
 	}
-
+	
 	/**
 	 * Erhöht die Anzahl der verbliebenen Nutzungen des Jokers für den Spieler
 	 * @param currentPlayer der Spieler, der die Jokernutzung erhält
@@ -7,7 +7,6 @@ import java.awt.Color;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public abstract class Player {
 
@@ -18,6 +17,8 @@ public abstract class Player {
     private Boolean instantAttackWin;
     private int points;
     private int remainingTroops;
+    private int index;
+    private long hash;
 
     protected Player(String name, Color color) {
         this.name = name;
@@ -27,12 +28,36 @@ public abstract class Player {
         this.remainingTroops = 0;
         this.flagCastle = null;
         this.instantAttackWin = false;
+        this.index = 0;
+        this.hash = 0;
     }
 
     public int getRemainingTroops() {
         return this.remainingTroops;
     }
 
+    /**
+     * Legt die Stelle des Spielers im Spiel fest, unter der seine verbleibenden Truppen in den Hash eingehen
+     * @param index die Stelle in {@link Game#getPlayers()}
+     */
+    void setIndex(int index) {
+        this.index = index;
+        this.hash = Zobrist.key(Zobrist.REMAINING_TROOPS, index, remainingTroops);
+    }
+
+    /**
+     * Gibt den Zobrist-Hash der verbleibenden Truppen zurück, siehe {@link Game#getHash()}
+     * @return der Hash
+     */
+    public long getHash() {
+        return this.hash;
+    }
+
+    private void setRemainingTroops(int remainingTroops) {
+        this.hash ^= Zobrist.change(Zobrist.REMAINING_TROOPS, index, this.remainingTroops, remainingTroops);
+        this.remainingTroops = remainingTroops;
+    }
+
     public static Player createPlayer(Class<?> playerType, String name, Color color) {
         if(!Player.class.isAssignableFrom(playerType))
             throw new IllegalArgumentException("Not a player class");
@@ -78,22 +103,27 @@ public abstract class Player {
         if(troops < 0)
             return;
 
-        this.remainingTroops += troops;
+        setRemainingTroops(this.remainingTroops + troops);
     }
 
     public void removeTroops(int troops) {
         if(this.remainingTroops - troops < 0 || troops < 0)
             return;
 
-        this.remainingTroops -= troops;
+        setRemainingTroops(this.remainingTroops - troops);
     }
 
     public int getNumRegions(Game game) {
         return this.getCastles(game).size();
     }
 
+    /**
+     * Gibt die Burgen des Spielers zurück, siehe {@link game.map.GameMap#getCastles(Player)}
+     * @param game das Spiel
+     * @return die Burgen des Spielers, die Liste kann nicht verändert werden
+     */
     public List<Castle> getCastles(Game game) {
-        return game.getMap().getCastles().stream().filter(c -> c.getOwner() == this).collect(Collectors.toList());
+        return game.getMap().getCastles(this);
     }
 
     /**
@@ -126,7 +156,7 @@ public abstract class Player {
 	}
 
 	public void reset() {
-        this.remainingTroops = 0;
+        setRemainingTroops(0);
         this.points = 0;
     }
 
@@ -0,0 +1,306 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import game.goals.RoundGoal;
+import game.map.MapSize;
+import game.players.BasicAI;
+import game.players.CustomAI;
+import game.players.JokerAI;
+import game.players.MonteCarloAI;
+
+/**
+ * Lässt KIs ohne Anzeige gegeneinander antreten, um Änderungen an den KIs zu bewerten.
+ * Für jede Paarung der KI-Typen, jede Kartengröße und jedes Spielziel aus {@link GameConstants#GAME_GOALS}
+ * werden mehrere Spiele parallel auf einem Thread-Pool ausgeführt. Jedes Spiel erhält eigene Spieler,
+ * ein eigenes Spielziel und eigene Joker, siehe {@link GameConstants#createGoal(int)} und {@link GameConstants#createJokers()}.
+ *
+ * Aufruf: java game.Tournament [Spiele pro Paarung] [Threads] [Zeitlimit pro Spiel in Sekunden] [Seed]
+ */
+public class Tournament {
+
+    public static final Class<?> AI_TYPES[] = {
+        BasicAI.class,
+        CustomAI.class,
+        JokerAI.class,
+        MonteCarloAI.class
+    };
+
+    // Rundenzahl für das Spielziel "Schnelles Spiel", da ohne Anzeige nicht nachgefragt werden kann
+    private static final int ROUND_GOAL_ROUNDS = 10;
+
+    /**
+     * Eine Spielkonstellation aus KI-Typen, Kartengröße und Spielziel
+     */
+    public static class Matchup {
+
+        private final Class<?>[] playerTypes;
+        private final MapSize mapSize;
+        private final int goalIndex;
+
+        public Matchup(Class<?>[] playerTypes, MapSize mapSize, int goalIndex) {
+            this.playerTypes = playerTypes;
+            this.mapSize = mapSize;
+            this.goalIndex = goalIndex;
+        }
+
+        public Class<?>[] getPlayerTypes() {
+            return this.playerTypes;
+        }
+
+        public MapSize getMapSize() {
+            return this.mapSize;
+        }
+
+        public int getGoalIndex() {
+            return this.goalIndex;
+        }
+    }
+
+    /**
+     * Das Ergebnis eines einzelnen Spiels
+     */
+    public static class Result {
+
+        private final Matchup matchup;
+        private final Class<?> winnerType;
+        private final boolean finished;
+        private final int rounds;
+        private final long duration;
+
+        private Result(Matchup matchup, Class<?> winnerType, boolean finished, int rounds, long duration) {
+            this.matchup = matchup;
+            this.winnerType = winnerType;
+            this.finished = finished;
+            this.rounds = rounds;
+            this.duration = duration;
+        }
+
+        public Matchup getMatchup() {
+            return this.matchup;
+        }
+
+        /**
+         * Gibt den KI-Typ des Gewinners zurück
+         * @return der Typ des Gewinners oder null bei einem Unentschieden oder Zeitüberschreitung
+         */
+        public Class<?> getWinnerType() {
+            return this.winnerType;
+        }
+
+        /**
+         * Prüft, ob das Spiel innerhalb des Zeitlimits beendet wurde
+         * @return true, wenn das Spiel beendet wurde
+         */
+        public boolean isFinished() {
+            return this.finished;
+        }
+
+        public int getRounds() {
+            return this.rounds;
+        }
+
+        /**
+         * Gibt die Dauer des Spiels in Millisekunden zurück
+         * @return die Dauer in Millisekunden
+         */
+        public long getDuration() {
+            return this.duration;
+        }
+    }
+
+    private final int gamesPerMatchup;
+    private final int threads;
+    private final long timeout;
+    private final long seed;
+
+    /**
+     * Erzeugt ein neues Turnier
+     * @param gamesPerMatchup die Anzahl der Spiele pro Spielkonstellation
+     * @param threads die Anzahl der gleichzeitig laufenden Spiele
+     * @param timeout das Zeitlimit pro Spiel in Sekunden
+     * @param seed der Startwert für Karten und Würfel der einzelnen Spiele
+     */
+    public Tournament(int gamesPerMatchup, int threads, long timeout, long seed) {
+        if(gamesPerMatchup < 1 || threads < 1 || timeout < 1)
+            throw new IllegalArgumentException();
+
+        this.gamesPerMatchup = gamesPerMatchup;
+        this.threads = threads;
+        this.timeout = timeout;
+        this.seed = seed;
+    }
+
+    /**
+     * Erzeugt alle Paarungen der KI-Typen (einschließlich Spielen einer KI gegen sich selbst)
+     * für jede Kartengröße und jedes Spielziel
+     * @return die Spielkonstellationen
+     */
+    public List<Matchup> createMatchups() {
+        List<Matchup> matchups = new ArrayList<>();
+        for(int goalIndex = 0; goalIndex < GameConstants.GAME_GOALS.length; goalIndex++) {
+            for(MapSize mapSize : MapSize.values()) {
+                for(int i = 0; i < AI_TYPES.length; i++) {
+                    for(int j = i; j < AI_TYPES.length; j++) {
+                        matchups.add(new Matchup(new Class<?>[] { AI_TYPES[i], AI_TYPES[j] }, mapSize, goalIndex));
+                    }
+                }
+            }
+        }
+
+        return matchups;
+    }
+
+    /**
+     * Spielt alle Spiele der angegebenen Konstellationen und wartet, bis alle beendet sind
+     * @param matchups die Spielkonstellationen
+     * @return die Ergebnisse aller Spiele
+     * @throws InterruptedException falls der Thread beim Warten unterbrochen wurde
+     */
+    public List<Result> run(List<Matchup> matchups) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<>();
+
+        long gameSeed = seed;
+        for(Matchup matchup : matchups) {
+            for(int i = 0; i < gamesPerMatchup; i++) {
+                long currentSeed = gameSeed++;
+                futures.add(executor.submit(() -> play(matchup, currentSeed)));
+            }
+        }
+
+        List<Result> results = new ArrayList<>(futures.size());
+        try {
+            for(Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    ex.getCause().printStackTrace();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    /**
+     * Spielt ein einzelnes Spiel ohne Anzeige
+     * @param matchup die Spielkonstellation
+     * @param seed der Startwert für Karte, Spielerreihenfolge und Würfel
+     * @return das Ergebnis des Spiels
+     * @throws InterruptedException falls der Thread beim Warten unterbrochen wurde
+     */
+    public Result play(Matchup matchup, long seed) throws InterruptedException {
+        Game game = new Game();
+        Class<?>[] playerTypes = matchup.getPlayerTypes();
+        for(int i = 0; i < playerTypes.length; i++) {
+            Player player = Player.createPlayer(playerTypes[i], playerTypes[i].getSimpleName() + " " + (i + 1), GameConstants.PLAYER_COLORS[i]);
+            if(player == null)
+                throw new IllegalArgumentException("Spieler kann nicht erzeugt werden: " + playerTypes[i].getName());
+
+            // Die Spiele laufen bereits parallel, die Suche teilt sich die übrigen Prozessorkerne
+            if(player instanceof MonteCarloAI)
+                ((MonteCarloAI) player).getSearch().setThreads(Math.max(1, Runtime.getRuntime().availableProcessors() / threads));
+
+            player.setTeam(new Team());
+            game.addPlayer(player);
+        }
+
+        Goal goal = GameConstants.createGoal(matchup.getGoalIndex());
+        if(goal instanceof RoundGoal)
+            goal = new RoundGoal(ROUND_GOAL_ROUNDS);
+
+        game.setMapSize(matchup.getMapSize());
+        game.setGoal(goal);
+        game.setSeed(seed);
+
+        HeadlessGameInterface gameInterface = new HeadlessGameInterface(new Random(seed));
+        long start = System.currentTimeMillis();
+        game.start(gameInterface);
+
+        boolean finished = gameInterface.awaitGameOver(timeout, TimeUnit.SECONDS);
+        if(!finished)
+            game.abort();
+
+        long duration = System.currentTimeMillis() - start;
+        Player winner = finished ? gameInterface.getWinner() : null;
+
+        return new Result(matchup, winner == null ? null : winner.getClass(), finished, game.getRound(), duration);
+    }
+
+    /**
+     * Gibt eine Zusammenfassung der Ergebnisse aus: Siege je KI-Typ und Spielziel,
+     * Unentschieden, Zeitüberschreitungen und die durchschnittliche Rundenzahl
+     * @param results die Ergebnisse
+     */
+    public static void printSummary(List<Result> results) {
+        Map<String, int[]> winsPerGoal = new LinkedHashMap<>();
+        int draws = 0, unfinished = 0;
+        long rounds = 0, duration = 0;
+
+        for(Result result : results) {
+            String goalName = GameConstants.GAME_GOALS[result.getMatchup().getGoalIndex()].getName();
+            int[] wins = winsPerGoal.computeIfAbsent(goalName, name -> new int[AI_TYPES.length]);
+
+            rounds += result.getRounds();
+            duration += result.getDuration();
+
+            if(!result.isFinished()) {
+                unfinished++;
+            } else if(result.getWinnerType() == null) {
+                draws++;
+            } else {
+                for(int i = 0; i < AI_TYPES.length; i++) {
+                    if(AI_TYPES[i] == result.getWinnerType())
+                        wins[i]++;
+                }
+            }
+        }
+
+        StringBuilder header = new StringBuilder(String.format("%-30s", "Spielziel"));
+        for(Class<?> type : AI_TYPES)
+            header.append(String.format("%14s", type.getSimpleName()));
+        System.out.println(header);
+
+        for(Map.Entry<String, int[]> entry : winsPerGoal.entrySet()) {
+            StringBuilder line = new StringBuilder(String.format("%-30s", entry.getKey()));
+            for(int wins : entry.getValue())
+                line.append(String.format("%14d", wins));
+            System.out.println(line);
+        }
+
+        int count = Math.max(1, results.size());
+        System.out.println(String.format("Spiele: %d, Unentschieden: %d, Zeitüberschreitungen: %d", results.size(), draws, unfinished));
+        System.out.println(String.format("Durchschnittlich %.1f Runden und %d ms pro Spiel", (double) rounds / count, duration / count));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int gamesPerMatchup = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long timeout = args.length > 2 ? Long.parseLong(args[2]) : 120;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.currentTimeMillis();
+
+        Tournament tournament = new Tournament(gamesPerMatchup, threads, timeout, seed);
+        List<Matchup> matchups = tournament.createMatchups();
+        System.out.println(String.format("Starte %d Spiele auf %d Threads (Seed %d)", matchups.size() * gamesPerMatchup, threads, seed));
+
+        long start = System.currentTimeMillis();
+        List<Result> results = tournament.run(matchups);
+        printSummary(results);
+        System.out.println(String.format("Gesamtdauer: %d s", (System.currentTimeMillis() - start) / 1000));
+
+        // Abgebrochene Spiele beenden ihren letzten Zug noch in eigenen Threads
+        System.exit(0);
+    }
+}
@@ -0,0 +1,82 @@
+package game;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Führt die Züge aller KIs eines Spiels nacheinander auf einem einzigen, langlebigen Thread aus.
+ * Statt für jeden Zug einen neuen Thread zu starten, reiht {@link AI#doNextTurn(Game)} den Zug hier ein.
+ * Ist ein Zug beendet, wird der nächste Zug über {@link Game#nextTurn()} eingereiht und erst danach ausgeführt.
+ * Dadurch wächst der Aufrufstapel zwischen den Zügen nicht und es laufen nie zwei KI-Züge gleichzeitig.
+ */
+public class TurnScheduler {
+
+    // Nach dieser Zeit ohne KI-Zug (z.B. während ein Mensch am Zug ist) wird der Thread beendet und bei Bedarf neu gestartet
+    private static final long IDLE_TIMEOUT = 60000;
+
+    private final Game game;
+    private final Queue<AI> pendingTurns;
+    private Thread thread;
+    private boolean stopped;
+
+    /**
+     * Erzeugt einen Scheduler für das angegebene Spiel. Der Thread wird erst mit dem ersten Zug gestartet.
+     * @param game das Spiel
+     */
+    public TurnScheduler(Game game) {
+        this.game = game;
+        this.pendingTurns = new ArrayDeque<>();
+        this.stopped = false;
+    }
+
+    /**
+     * Reiht den Zug einer KI ein
+     * @param ai die KI, die am Zug ist
+     */
+    public synchronized void schedule(AI ai) {
+        if (stopped)
+            return;
+
+        pendingTurns.add(ai);
+        if (thread == null) {
+            thread = new Thread(this::run, "TurnScheduler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        notifyAll();
+    }
+
+    /**
+     * Beendet den Scheduler, nachdem der laufende Zug abgeschlossen ist. Eingereihte Züge werden verworfen.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        pendingTurns.clear();
+        notifyAll();
+    }
+
+    private synchronized AI nextTurn() throws InterruptedException {
+        long end = System.currentTimeMillis() + IDLE_TIMEOUT;
+        long remaining;
+        while (pendingTurns.isEmpty() && !stopped && (remaining = end - System.currentTimeMillis()) > 0)
+            wait(remaining);
+
+        AI ai = stopped ? null : pendingTurns.poll();
+        if (ai == null)
+            thread = null;
+
+        return ai;
+    }
+
+    private void run() {
+        try {
+            AI ai;
+            while ((ai = nextTurn()) != null) {
+                ai.playTurn(game);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package game;
+
+/**
+ * Zufällige 64-Bit-Schlüssel für Zobrist-Hashes von Spielständen.
+ *
+ * Der Hash eines Spielstands ist die XOR-Verknüpfung der Schlüssel aller seiner Eigenschaften, z.B. "Burg 3 hat 7 Truppen".
+ * Ändert sich eine Eigenschaft, wird der alte Schlüssel per XOR entfernt und der neue hinzugefügt,
+ * der Hash muss also nie vollständig neu berechnet werden.
+ *
+ * Die Schlüssel werden nicht in Tabellen gespeichert, sondern aus Art, Stelle und Wert gemischt (wie bei SplitMix64).
+ * Dadurch sind beliebig große Truppenzahlen möglich und die Schlüssel sind in jedem Spiel gleich.
+ */
+public final class Zobrist {
+
+    /**
+     * Der Besitzer einer Burg, Wert ist die Nummer des Besitzers
+     */
+    public static final int OWNER = 1;
+
+    /**
+     * Die Truppen auf einer Burg
+     */
+    public static final int TROOPS = 2;
+
+    /**
+     * Die Flagge in einer Burg, Wert ist die Nummer des Besitzers der Flagge
+     */
+    public static final int FLAG = 3;
+
+    /**
+     * Die noch nicht verteilten Truppen eines Spielers
+     */
+    public static final int REMAINING_TROOPS = 4;
+
+    /**
+     * Der Spieler am Zug, Stelle ist immer 0
+     */
+    public static final int CURRENT_PLAYER = 5;
+
+    /**
+     * Die Anzahl der Einsätze eines Jokers durch einen Spieler
+     */
+    public static final int JOKER = 6;
+
+    /**
+     * Die Phase eines Zuges in der Suche, siehe {@link game.search.SearchState}
+     */
+    public static final int PHASE = 7;
+
+    private Zobrist() {}
+
+    /**
+     * Gibt den Schlüssel für eine Eigenschaft zurück. Für den Wert 0 ist der Schlüssel 0,
+     * ein leerer Spielstand (keine Besitzer, keine Truppen) hat also den Hash 0.
+     * @param kind die Art der Eigenschaft, z.B. {@link #TROOPS}
+     * @param index die Stelle, z.B. die Stelle der Burg
+     * @param value der Wert
+     * @return der Schlüssel
+     */
+    public static long key(int kind, int index, int value) {
+        if(value == 0)
+            return 0;
+
+        long z = ((long) kind << 56) ^ ((long) index << 32) ^ (value & 0xFFFFFFFFL);
+        z = (z + 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gibt den Unterschied im Hash zurück, wenn sich der Wert einer Eigenschaft ändert
+     * @param kind die Art der Eigenschaft
+     * @param index die Stelle
+     * @param oldValue der bisherige Wert
+     * @param newValue der neue Wert
+     * @return der Wert, mit dem der Hash per XOR verknüpft werden muss
+     */
+    public static long change(int kind, int index, int oldValue, int newValue) {
+        return oldValue == newValue ? 0 : key(kind, index, oldValue) ^ key(kind, index, newValue);
+    }
+}
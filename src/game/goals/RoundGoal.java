@@ -5,60 +5,71 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
-import javax.swing.JOptionPane;
-
 import game.Game;
 import game.Goal;
 import game.Player;
 
 public class RoundGoal extends Goal {
 
+	// Die Rundenzahl, falls vor dem Spiel keine gewählt wurde
+	private static final int DEFAULT_ROUNDS = 10;
+	
 	private int maxRounds = 1;
 	
+	// Die Rundenzahl, auf die nach einem Spiel zurückgesetzt wird. Ist sie kleiner als 2, wird beim nächsten Spiel erneut gefragt.
+	private final int fixedRounds;
+	
 	private Game game;
 	
 	public RoundGoal() {
+		this(1);
+	}
+	
+	/**
+	 * Erzeugt ein Spielziel mit fester Rundenzahl, bei dem der Spieler nicht gefragt wird, z.B. für Spiele ohne Anzeige
+	 * @param maxRounds die Anzahl der Runden, ab 2 wird kein Dialog mehr angezeigt
+	 */
+	public RoundGoal(int maxRounds) {
 		super("Schnelles Spiel", "Derjenige Spieler gewinnt, der nach einer festgelegten Rundenzahl die meisten Punkte erhalten hat.\n\nIm Teammodus gewinnt das gesamte Team des Siegers.");
+		this.fixedRounds = maxRounds;
+		this.maxRounds = maxRounds;
 	}
 	
-	@Override
-	public void onGameInit() {
-		setupMaxRounds();
-		
-		super.onGameInit();
+	/**
+	 * Gibt die Rundenzahl zurück, nach der das Spiel endet
+	 * @return die Rundenzahl
+	 */
+	public int getMaxRounds() {
+		return maxRounds;
 	}
 	
 	/**
-	 * Lässt den Spieler die Rundenzahl wählen und fängt eventuelle Fehler ab
+	 * Gibt zurück, ob die Rundenzahl schon feststeht oder vor dem Spiel noch gewählt werden muss, siehe {@link #setMaxRounds(int)}
+	 * @return true, wenn die Rundenzahl feststeht
 	 */
-	private void setupMaxRounds() {
-		
-		while (maxRounds < 2) {
-			try {
-				chooseMaxRounds();
-			} catch(NumberFormatException e) {
-				JOptionPane.showMessageDialog(null, "Es werden nur Werte von mindestens 2 und höchstens 99 Runden akzeptiert.\nBitte gib einen anderen Wert ein.", "Falscher Wert", JOptionPane.WARNING_MESSAGE);
-			}
-		}
+	public boolean hasMaxRounds() {
+		return maxRounds >= 2;
 	}
 	
 	/**
-	 * Lässt den Spieler die Rundenzahl wählen
-	 * @throws NumberFormatException wenn die Eingabe keine Zahl ist
-	 * @throws NumberFormatException wenn die Eingabe kleiner als 2 ist
+	 * Legt die Rundenzahl für das nächste Spiel fest
+	 * @param maxRounds die Anzahl der Runden, mindestens 2 und höchstens 99
 	 */
-	private void chooseMaxRounds() {
-		int chosenRounds = Integer.parseInt(JOptionPane.showInputDialog("Wie viele Runden soll gespielt werden?", "10"));
-		
-		if (chosenRounds < 2) {
-			throw new NumberFormatException();
+	public void setMaxRounds(int maxRounds) {
+		if (maxRounds < 2 || maxRounds > 99) {
+			throw new IllegalArgumentException("Es werden nur Werte von mindestens 2 und höchstens 99 Runden akzeptiert.");
 		}
 		
-		if (chosenRounds > 99) {
-			throw new NumberFormatException();
+		this.maxRounds = maxRounds;
+	}
+	
+	@Override
+	public void onGameInit() {
+		if (!hasMaxRounds()) {
+			maxRounds = DEFAULT_ROUNDS;
 		}
 		
-		maxRounds = chosenRounds;
+		super.onGameInit();
 	}
 
 	@Override
@@ -84,7 +95,7 @@ public class RoundGoal extends Goal {
 
 	@Override
 	public Player getWinner() {
-		maxRounds = 1;
+		maxRounds = fixedRounds;
 		game = getGame();
 		
 		Player winner = null;
@@ -59,6 +59,7 @@ public class ConversionJoker extends Joker {
 		
 		int playerInvocationsLeft = invocationsLeft.get(currentPlayer) - 1;
 		invocationsLeft.put(currentPlayer, playerInvocationsLeft);
+		countInvocations(currentPlayer, 1);
 	}
 
 	@Override
@@ -6,8 +6,6 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
-import javax.swing.JOptionPane;
-
 import game.Game;
 import game.Goal;
 import game.Joker;
@@ -19,6 +17,7 @@ public class SkipPlayerJoker extends Joker {
 	private HashMap<Player, Integer> invocationsLeft = new HashMap<>();
 
 	private Collection<Player> skippedPlayers = new LinkedList<>();
+	private Player lastTarget;
 
 	public SkipPlayerJoker() {
 		this(1);
@@ -50,8 +49,22 @@ public class SkipPlayerJoker extends Joker {
 		Game game = getGame();
 		Player currentPlayer = game.getCurrentPlayer();
 
-		Player playerToSkip = selectOpponent(currentPlayer);
-		
+		lastTarget = selectOpponent(currentPlayer);
+		skip(currentPlayer, lastTarget);
+	}
+
+	@Override
+	public void replay(Player target) {
+		lastTarget = target;
+		skip(getGame().getCurrentPlayer(), target);
+	}
+
+	@Override
+	public Player getLastTarget() {
+		return lastTarget;
+	}
+
+	private void skip(Player currentPlayer, Player playerToSkip) {
 		if (playerToSkip == null) {
 			return;
 		}
@@ -60,6 +73,7 @@ public class SkipPlayerJoker extends Joker {
 
 		int playerInvocationsLeft = invocationsLeft.get(currentPlayer) - 1;
 		invocationsLeft.put(currentPlayer, playerInvocationsLeft);
+		countInvocations(currentPlayer, 1);
 	}
 
 	@Override
@@ -75,29 +89,12 @@ public class SkipPlayerJoker extends Joker {
 	}
 
 	/**
-	 * Öffnet ein Fenster um einen Gegner auszuwählen.
+	 * Lässt den Spieler über die Oberfläche einen Gegner auswählen, siehe {@link game.GameInterface#onChooseOpponent(Player, List)}
 	 * @param currentPlayer Der Spieler, der Gegner auswählen soll
 	 * @return Den ausgewählten Gegner
 	 */
 	private Player selectOpponent(Player currentPlayer) {
-		
-		List<Player> opponents = getOpponents(currentPlayer);
-		
-		if (opponents.isEmpty()) {
-			JOptionPane.showMessageDialog(null, "Aktuell kannst du keinen Spieler Aussetzen lassen.\nMan kann nur Gegner, die nicht bereits aussetzen müssen aussetzen lassen.");
-			return null;
-		}
-
-		Player selectedOpponent = (Player) JOptionPane.showInputDialog(
-				null,
-				"Welcher Spieler soll aussetzen?",
-				"Aussetzen",
-				JOptionPane.QUESTION_MESSAGE,
-				null,
-				opponents.toArray(new Player[opponents.size()]),
-				opponents.get(0));
-
-		return selectedOpponent;
+		return getGame().getGameInterface().onChooseOpponent(currentPlayer, getOpponents(currentPlayer));
 	}
 
 	/**
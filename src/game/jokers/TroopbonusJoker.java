@@ -51,6 +51,7 @@ public class TroopbonusJoker extends Joker {
 		
 		int playerInvocationsLeft = invocationsLeft.get(currentPlayer) - 1;
 		invocationsLeft.put(currentPlayer, playerInvocationsLeft);
+		countInvocations(currentPlayer, 1);
 	}
 	
 	@Override
@@ -1,6 +1,5 @@
 package game.jokers;
 
-import java.awt.Cursor;
 import java.util.HashMap;
 
 import game.CaptureTheFlagGoal;
@@ -11,9 +10,6 @@ import game.map.MapSize;
 import game.GameConstants;
 import game.Goal;
 
-import gui.components.MapPanel;
-import gui.components.MapPanel.Action;
-
 
 
 
@@ -21,7 +17,6 @@ public class TunnelJoker extends Joker {
 	
 	private HashMap<Player, Integer> tunnelsLeft;
 	private Game game;
-	MapPanel map;
 	Integer numberOfEdges;
 	
 	public TunnelJoker() {
@@ -30,7 +25,7 @@ public class TunnelJoker extends Joker {
 		this.game = getGame();
 		for(Goal goal:GameConstants.GAME_GOALS) {
 			if(goal instanceof CaptureTheFlagGoal)
-				this.whitelistForGameMode.put(goal, false);
+				this.whitelistForGameMode.put(goal.getClass(), false);
 		}
 	}
 	
@@ -38,7 +33,7 @@ public class TunnelJoker extends Joker {
 	public boolean isUsable() {
 		this.game = getGame();
 		
-		if(!(whitelistForGameMode.get(game.getGoal())))
+		if(!(whitelistForGameMode.getOrDefault(game.getGoal().getClass(), true)))
 				return false;
 		Player player = game.getCurrentPlayer();
 
@@ -61,24 +56,23 @@ public class TunnelJoker extends Joker {
 	}
 	
 	@Override
-	public void setMapPanel(MapPanel map) {
-		this.map = map;
+	public void invoke() {
+		game.getGameInterface().onTunnelStarted(game.getCurrentPlayer());
+		tunnelsLeft.put(game.getCurrentPlayer(), tunnelsLeft.get(game.getCurrentPlayer()) - 1); // verbrauche eine Nutzung
+		countInvocations(game.getCurrentPlayer(), 1);
 	}
 	
 	@Override
-	public void invoke() {
-		map.reset();	
-		map.setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
-		map.repaint();
-		map.setCurrentAction(Action.TUNNELING);
-		map.tryTunneling();
-		map.repaint();
-		tunnelsLeft.put(game.getCurrentPlayer(), tunnelsLeft.get(game.getCurrentPlayer()) - 1); // verbrauche eine Nutzung
+	public void replay(Player target) {
+		// Der Tunnel selbst wurde als eigene Kante aufgezeichnet, hier wird nur die Nutzung verbraucht
+		tunnelsLeft.put(game.getCurrentPlayer(), tunnelsLeft.get(game.getCurrentPlayer()) - 1);
+		countInvocations(game.getCurrentPlayer(), 1);
 	}
 	
 	@Override
 	public void grantInvocation(Player player) {
 		this.tunnelsLeft.put(player, tunnelsLeft.get(player) + 1);
+		countInvocations(player, -1);
 	}
 
 }
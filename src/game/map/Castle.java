@@ -1,9 +1,7 @@
 package game.map;
 
 import java.awt.Point;
-import java.util.List;
 
-import base.Edge;
 import game.Player;
 import game.gameExceptions.alreadyFlagCastleException;
 
@@ -12,34 +10,55 @@ import game.gameExceptions.alreadyFlagCastleException;
  * Jede Burg hat Koordinaten auf der Karte und einen Namen.
  * Falls die Burg einen Besitzer hat, hat sie auch eine Anzahl von zugewiesenen Truppen.
  * Die Burg kann weiterhin Teil eines Königreichs sein.
+ *
+ * Besitzer, Truppen und Flagge liegen nicht in der Burg selbst, sondern an ihrer Stelle im {@link CastleStore} der Karte.
  */
 public class Castle {
 
-    private int troopCount;
-    private Player owner;
+    private final CastleStore store;
+    private final int index;
     private Kingdom kingdom;
     private Point location;
     private String name;
-    private Boolean flagCastle;
-    private Player flagOwner;
+    private GameMap map;
 
     /**
-     * Eine neue Burg erstellen
+     * Eine neue Burg mit eigenem Speicher erstellen, die zu keiner Karte gehört
      * @param location die Koordinaten der Burg
      * @param name der Name der Burg
      */
     public Castle(Point location, String name) {
+        this(new CastleStore(1), location, name);
+    }
+
+    /**
+     * Eine neue Burg erstellen, deren Zustand im angegebenen Speicher liegt
+     * @param store der Speicher, meist der der Karte
+     * @param location die Koordinaten der Burg
+     * @param name der Name der Burg
+     */
+    Castle(CastleStore store, Point location, String name) {
+        this.store = store;
+        this.index = store.add(this);
         this.location = location;
-        this.troopCount = 0;
-        this.owner = null;
         this.kingdom = null;
         this.name = name;
-        this.flagCastle = false;
-        this.flagOwner = null;
+    }
+
+    /**
+     * Gibt die Stelle der Burg in ihrem {@link CastleStore} zurück
+     * @return die Stelle der Burg
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    public CastleStore getStore() {
+        return this.store;
     }
 
     public Player getOwner() {
-        return this.owner;
+        return store.getOwner(index);
     }
 
     public Kingdom getKingdom() {
@@ -47,15 +66,15 @@ public class Castle {
     }
 
     public int getTroopCount() {
-        return this.troopCount;
+        return store.getTroopCount(index);
     }
 
     /**
      * Prüft, ob die Burg eine Flagburg ist
      * @return true, falls die Burg als Flagburg ausgewählt wurde
      */
-    public Boolean isFlagCastle() {
-    	return this.flagCastle;
+    public boolean isFlagCastle() {
+    	return store.isFlagCastle(index);
     }
 
     /**
@@ -64,9 +83,8 @@ public class Castle {
      * @throws alreadyFlagCastleException falls die Burg schon eine Flagge hält
      */
     public void makeFlagCastle(Player player) throws alreadyFlagCastleException {
-    	if(!this.flagCastle) {
-    		this.flagCastle = true;
-    		this.flagOwner = player;
+    	if(!isFlagCastle()) {
+    		store.makeFlagCastle(index, player);
     	} else {
     		throw new alreadyFlagCastleException();
     	}
@@ -77,7 +95,7 @@ public class Castle {
      * @return Player der Spieler, dessen Flagge in der Burg aufbewahrt wird
      */
     public Player getFlagOwner() {
-    	return this.flagOwner;    	
+    	return store.getFlagOwner(index);
     }
 
     /**
@@ -89,19 +107,21 @@ public class Castle {
     public void moveTroops(Castle target, int troops) {
 
         // Troops can only be moved to own team regions
-        if(target.owner.getTeam() != this.owner.getTeam())
+        if(target.getOwner().getTeam() != this.getOwner().getTeam())
             return;
 
+        int troopCount = getTroopCount();
+
         // At least one unit must remain in the source region
-        if(this.troopCount - troops < 1)
+        if(troopCount - troops < 1)
             return;
 
         // FlagCastles need 3 troops remaining
-        if(this.isFlagCastle() && this.troopCount - troops < 3)
+        if(this.isFlagCastle() && troopCount - troops < 3)
         	return;
 
-        this.troopCount -= troops;
-        target.troopCount += troops;
+        store.setTroopCount(index, troopCount - troops);
+        target.store.setTroopCount(target.index, target.getTroopCount() + troops);
     }
 
     public Point getLocationOnMap() {
@@ -129,14 +149,40 @@ public class Castle {
     }
 
     public void setOwner(Player player) {
-        this.owner = player;
+        Player oldOwner = getOwner();
+        store.setOwner(index, player);
+        notifyOwnerChanged(oldOwner);
+    }
+
+    /**
+     * Ordnet die Burg der Spielkarte zu, die über Besitzerwechsel informiert wird
+     * @param map die Spielkarte
+     */
+    void setMap(GameMap map) {
+        this.map = map;
+    }
+
+    /**
+     * Informiert Königreich und Karte über einen Besitzerwechsel, auch wenn der Speicher direkt verändert wurde,
+     * siehe {@link CastleStore#restore(CastleStore.Snapshot)}
+     * @param oldOwner der vorherige Besitzer
+     */
+    void notifyOwnerChanged(Player oldOwner) {
+        Player owner = getOwner();
+        if(oldOwner == owner)
+            return;
+
+        if(this.kingdom != null)
+            this.kingdom.onOwnerChanged(oldOwner, owner);
+        if(this.map != null)
+            this.map.onOwnerChanged(this, oldOwner, owner);
     }
 
     public void addTroops(int i) {
         if(i <= 0)
             return;
 
-        this.troopCount += i;
+        store.setTroopCount(index, getTroopCount() + i);
     }
 
     public String getName() {
@@ -144,9 +190,13 @@ public class Castle {
     }
 
     public void removeTroops(int i) {
-        this.troopCount = Math.max(0, this.troopCount - i);
-        if(this.troopCount == 0)
-            this.owner = null;
+        int troopCount = Math.max(0, getTroopCount() - i);
+        store.setTroopCount(index, troopCount);
+        if(troopCount == 0) {
+            Player oldOwner = getOwner();
+            store.setOwner(index, null);
+            notifyOwnerChanged(oldOwner);
+        }
     }
 
     /**
@@ -162,34 +212,23 @@ public class Castle {
      * @param kingdom Ein Königreich oder null
      */
     public void setKingdom(Kingdom kingdom) {
+        if(this.kingdom == kingdom)
+            return;
+
+        if(this.kingdom != null)
+            this.kingdom.removeCastle(this);
+
         this.kingdom = kingdom;
         if(kingdom != null)
             kingdom.addCastle(this);
     }
     
     /**
-     * Prüft ob die Burg an einer Grenze liegt
+     * Prüft ob die Burg an einer Grenze liegt, siehe {@link GameMap#isBorderCastle(Castle)}
      * @param map Die Spielkarte
      * @return true, wenn die Burg an einer Grenze liegt
      */
 	public boolean isBorderCastle(GameMap map) {
-		
-		List<Edge<Castle>> allEdges = map.getEdges();
-		
-		for (Edge<Castle> edge : allEdges) {
-			
-			Castle castleA = edge.getNodeA().getValue();
-			Castle castleB = edge.getNodeB().getValue();
-					
-			if (castleA != this && castleB != this) {
-				continue;
-			}
-			
-			if (castleA.getOwner().getTeam() != castleB.getOwner().getTeam()) {
-				return true;
-			}
-		}
-		
-		return false;
+		return map.isBorderCastle(this);
 	}
 }
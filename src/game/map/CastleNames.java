@@ -0,0 +1,51 @@
+package game.map;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lädt die Namen, aus denen {@link GameMap} die Namen der Burgen bildet, aus der Datei "castles.txt" im Klassenpfad.
+ * Die Namen gehören zum Spiel und nicht zur Anzeige, da sie die Erzeugung der Karte beeinflussen:
+ * Auch ein Spiel ohne Anzeige, z.B. beim Abspielen einer Aufzeichnung, muss dieselben Namen verwenden.
+ */
+public final class CastleNames {
+
+    private static final String FILE = "castles.txt";
+
+    private static List<String> names;
+
+    private CastleNames() {}
+
+    /**
+     * Gibt die Namen zurück und lädt sie beim ersten Aufruf. Leere Zeilen und Zeilen, die mit # beginnen, werden übersprungen.
+     * @return die Namen, die Liste kann nicht verändert werden
+     * @throws IOException falls die Datei nicht gefunden oder gelesen werden konnte
+     */
+    public static synchronized List<String> getNames() throws IOException {
+        if(names == null) {
+            InputStream is = CastleNames.class.getClassLoader().getResourceAsStream(FILE);
+            if(is == null)
+                throw new IOException("Resource not found: " + FILE);
+
+            List<String> list = new ArrayList<>();
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                String line;
+                while((line = br.readLine()) != null) {
+                    line = line.trim();
+                    if(line.length() > 0 && !line.startsWith("#"))
+                        list.add(line);
+                }
+            }
+
+            names = Collections.unmodifiableList(list);
+        }
+
+        return names;
+    }
+}
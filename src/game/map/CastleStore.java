@@ -0,0 +1,272 @@
+package game.map;
+
+import java.util.Arrays;
+
+import game.Player;
+import game.Zobrist;
+
+/**
+ * Speichert den veränderlichen Zustand aller Burgen einer Karte in primitiven Arrays, eine Stelle pro Burg.
+ * Die {@link Castle}-Objekte halten selbst keinen Zustand mehr, sondern nur ihre Stelle in diesem Speicher.
+ *
+ * Besitzer werden als Nummer gespeichert: 0 steht für keinen Besitzer, jeder Spieler erhält beim ersten Auftreten
+ * die nächste freie Nummer. Die Nummern bleiben für die Lebensdauer des Speichers gültig.
+ *
+ * Der gesamte Zustand kann mit {@link #snapshot(Snapshot)} in wenigen Array-Kopien gesichert
+ * und mit {@link #restore(Snapshot)} wiederhergestellt werden, z.B. um Spielzüge durchzuprobieren.
+ * Zusätzlich wird bei jeder Änderung ein {@link Zobrist}-Hash über Besitzer, Truppen und Flaggen aller Burgen fortgeschrieben.
+ * Der Speicher ist nicht synchronisiert, wie zuvor die Felder der Burgen.
+ */
+public class CastleStore {
+
+    /**
+     * Bit in {@link #getFlags(int)}, das für Flaggenburgen gesetzt ist
+     */
+    public static final int FLAG_CASTLE = 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private Castle[] castles;
+    private byte[] owners;
+    private int[] troops;
+    private byte[] flags;
+    private byte[] flagOwners;
+    private long hash;
+
+    // Nummer - 1 -> Spieler
+    private Player[] players;
+    private int playerCount;
+
+    public CastleStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Erzeugt einen leeren Speicher
+     * @param capacity die erwartete Anzahl der Burgen, der Speicher wächst bei Bedarf
+     */
+    public CastleStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.size = 0;
+        this.castles = new Castle[capacity];
+        this.owners = new byte[capacity];
+        this.troops = new int[capacity];
+        this.flags = new byte[capacity];
+        this.flagOwners = new byte[capacity];
+        this.players = new Player[4];
+        this.playerCount = 0;
+    }
+
+    /**
+     * Reserviert eine Stelle für eine neue Burg ohne Besitzer und Truppen
+     * @param castle die Burg, die über die Stelle auf ihren Zustand zugreift
+     * @return die Stelle der Burg
+     */
+    int add(Castle castle) {
+        if(size == castles.length) {
+            int capacity = size * 2;
+            castles = Arrays.copyOf(castles, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            troops = Arrays.copyOf(troops, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            flagOwners = Arrays.copyOf(flagOwners, capacity);
+        }
+
+        castles[size] = castle;
+        return size++;
+    }
+
+    /**
+     * Gibt die Anzahl der Burgen zurück
+     * @return die Anzahl der Burgen
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gibt die Burg an der angegebenen Stelle zurück
+     * @param index die Stelle, siehe {@link Castle#getIndex()}
+     * @return die Burg
+     */
+    public Castle getCastle(int index) {
+        return castles[index];
+    }
+
+    public Player getOwner(int index) {
+        return getPlayer(owners[index]);
+    }
+
+    /**
+     * Gibt die Nummer des Besitzers einer Burg zurück
+     * @param index die Stelle der Burg
+     * @return die Nummer des Besitzers oder 0, wenn die Burg keinen hat
+     */
+    public int getOwnerId(int index) {
+        return owners[index];
+    }
+
+    public int getTroopCount(int index) {
+        return troops[index];
+    }
+
+    /**
+     * Gibt die Eigenschaften einer Burg als Bits zurück, siehe {@link #FLAG_CASTLE}
+     * @param index die Stelle der Burg
+     * @return die Bits der Burg
+     */
+    public int getFlags(int index) {
+        return flags[index];
+    }
+
+    public boolean isFlagCastle(int index) {
+        return (flags[index] & FLAG_CASTLE) != 0;
+    }
+
+    public Player getFlagOwner(int index) {
+        return getPlayer(flagOwners[index]);
+    }
+
+    /**
+     * Gibt die Nummer eines Spielers zurück. Spieler, die noch keine Nummer haben, erhalten die nächste freie.
+     * @param player der Spieler oder null
+     * @return die Nummer des Spielers, 0 für null
+     */
+    public int getPlayerId(Player player) {
+        if(player == null)
+            return 0;
+
+        for(int i = 0; i < playerCount; i++) {
+            if(players[i] == player)
+                return i + 1;
+        }
+
+        if(playerCount == Byte.MAX_VALUE)
+            throw new IllegalArgumentException("Es können höchstens " + Byte.MAX_VALUE + " Spieler gespeichert werden");
+
+        if(playerCount == players.length)
+            players = Arrays.copyOf(players, playerCount * 2);
+
+        players[playerCount++] = player;
+        return playerCount;
+    }
+
+    /**
+     * Gibt den Spieler mit der angegebenen Nummer zurück
+     * @param id die Nummer, siehe {@link #getPlayerId(Player)}
+     * @return der Spieler oder null für die Nummer 0
+     */
+    public Player getPlayer(int id) {
+        return id == 0 ? null : players[id - 1];
+    }
+
+    /**
+     * Gibt den Zobrist-Hash über Besitzer, Truppen und Flaggen aller Burgen zurück.
+     * Gleiche Zustände desselben Speichers haben denselben Hash.
+     * @return der Hash, 0 solange keine Burg einen Besitzer, Truppen oder eine Flagge hat
+     */
+    public long getHash() {
+        return this.hash;
+    }
+
+    void setOwner(int index, Player player) {
+        byte owner = (byte) getPlayerId(player);
+        hash ^= Zobrist.change(Zobrist.OWNER, index, owners[index], owner);
+        owners[index] = owner;
+    }
+
+    void setTroopCount(int index, int troopCount) {
+        hash ^= Zobrist.change(Zobrist.TROOPS, index, troops[index], troopCount);
+        troops[index] = troopCount;
+    }
+
+    void makeFlagCastle(int index, Player player) {
+        byte flagOwner = (byte) getPlayerId(player);
+        hash ^= Zobrist.change(Zobrist.FLAG, index, flagOwners[index], flagOwner);
+        flags[index] |= FLAG_CASTLE;
+        flagOwners[index] = flagOwner;
+    }
+
+    /**
+     * Sichert den Zustand aller Burgen
+     * @param snapshot eine vorhandene Sicherung, die wiederverwendet werden soll, oder null
+     * @return die Sicherung
+     */
+    public Snapshot snapshot(Snapshot snapshot) {
+        if(snapshot == null || snapshot.owners.length < size)
+            snapshot = new Snapshot(size);
+
+        snapshot.size = size;
+        snapshot.hash = hash;
+        System.arraycopy(owners, 0, snapshot.owners, 0, size);
+        System.arraycopy(troops, 0, snapshot.troops, 0, size);
+        System.arraycopy(flags, 0, snapshot.flags, 0, size);
+        System.arraycopy(flagOwners, 0, snapshot.flagOwners, 0, size);
+        return snapshot;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * Stellt einen gesicherten Zustand wieder her. Burgen, deren Besitzer sich dadurch ändert,
+     * melden den Wechsel wie gewohnt an ihr Königreich und die Karte.
+     * Der Zustand der Spieler (z.B. Punkte und verbleibende Truppen) wird nicht gesichert.
+     * @param snapshot die Sicherung dieses Speichers
+     */
+    public void restore(Snapshot snapshot) {
+        if(snapshot.size != size)
+            throw new IllegalArgumentException("Die Sicherung gehört nicht zu diesem Speicher");
+
+        System.arraycopy(snapshot.troops, 0, troops, 0, size);
+        System.arraycopy(snapshot.flags, 0, flags, 0, size);
+        System.arraycopy(snapshot.flagOwners, 0, flagOwners, 0, size);
+        hash = snapshot.hash;
+
+        for(int i = 0; i < size; i++) {
+            byte oldOwner = owners[i];
+            if(oldOwner != snapshot.owners[i]) {
+                owners[i] = snapshot.owners[i];
+                castles[i].notifyOwnerChanged(getPlayer(oldOwner));
+            }
+        }
+    }
+
+    /**
+     * Ein gesicherter Zustand aller Burgen, siehe {@link CastleStore#snapshot(Snapshot)}
+     */
+    public static final class Snapshot {
+
+        private int size;
+        private long hash;
+        private final byte[] owners;
+        private final int[] troops;
+        private final byte[] flags;
+        private final byte[] flagOwners;
+
+        private Snapshot(int capacity) {
+            this.owners = new byte[capacity];
+            this.troops = new int[capacity];
+            this.flags = new byte[capacity];
+            this.flagOwners = new byte[capacity];
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public long getHash() {
+            return this.hash;
+        }
+
+        public int getOwnerId(int index) {
+            return owners[index];
+        }
+
+        public int getTroopCount(int index) {
+            return troops[index];
+        }
+    }
+}
@@ -27,10 +27,21 @@ public class Clustering {
      * @param mapSize Die Größe der Map
      */
     public Clustering(List<Castle> castles, int kingdomCount, Dimension mapSize) {
+        this(castles, kingdomCount, mapSize, new Random());
+    }
+
+    /**
+     * Ein neues Clustering-Objekt mit einem vorgegebenen Zufallsgenerator erzeugen.
+     * @param castles Die Liste von Burgen, die aufgeteilt werden sollen
+     * @param kingdomCount Die Anzahl von Königreichen die generiert werden sollen
+     * @param mapSize Die Größe der Map
+     * @param random Der Zufallsgenerator für die Startzentren
+     */
+    public Clustering(List<Castle> castles, int kingdomCount, Dimension mapSize, Random random) {
         if (kingdomCount < 2)
             throw new IllegalArgumentException("Ungültige Anzahl an Königreichen");
 
-        this.random = new Random();
+        this.random = random;
         this.kingdomCount = kingdomCount;
         this.allCastles = Collections.unmodifiableList(castles);
         this.mapSize = mapSize;
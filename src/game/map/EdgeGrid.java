@@ -0,0 +1,129 @@
+package game.map;
+
+import java.awt.Point;
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import base.Edge;
+
+/**
+ * Ein gleichmäßiges Gitter über der Karte, in dem Kanten als Strecken einsortiert werden.
+ * Jede Kante wird in alle Zellen eingetragen, die ihr umschließendes Rechteck überdeckt.
+ * Eine neue Strecke muss daher nur mit den Kanten aus den Zellen ihres eigenen Rechtecks verglichen werden,
+ * statt mit allen bisherigen Kanten, siehe {@link #intersects(Point, Point)}.
+ */
+public class EdgeGrid {
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Zelle -> Ids der eingetragenen Kanten und deren Anzahl
+    private final int[][] cells;
+    private final int[] cellSizes;
+
+    private final List<Edge<Castle>> edges;
+
+    // Id -> Nummer der letzten Abfrage, in der die Kante geprüft wurde
+    private int[] visited;
+    private int query;
+
+    /**
+     * Erzeugt ein leeres Gitter
+     * @param width die Breite der Karte in Pixeln
+     * @param height die Höhe der Karte in Pixeln
+     * @param cellSize die Kantenlänge einer Zelle in Pixeln
+     */
+    public EdgeGrid(int width, int height, int cellSize) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cells = new int[columns * rows][];
+        this.cellSizes = new int[columns * rows];
+        this.edges = new ArrayList<>();
+        this.visited = new int[16];
+        this.query = 0;
+    }
+
+    /**
+     * Trägt eine Kante in alle Zellen ein, die ihr umschließendes Rechteck überdeckt
+     * @param edge die Kante
+     */
+    public void add(Edge<Castle> edge) {
+        int id = edges.size();
+        edges.add(edge);
+        if (id == visited.length)
+            visited = Arrays.copyOf(visited, id * 2);
+
+        Point a = edge.getNodeA().getValue().getLocationOnMap();
+        Point b = edge.getNodeB().getValue().getLocationOnMap();
+
+        int minColumn = column(Math.min(a.x, b.x)), maxColumn = column(Math.max(a.x, b.x));
+        int minRow = row(Math.min(a.y, b.y)), maxRow = row(Math.max(a.y, b.y));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * columns + column;
+                if (cells[cell] == null) {
+                    cells[cell] = new int[4];
+                } else if (cellSizes[cell] == cells[cell].length) {
+                    cells[cell] = Arrays.copyOf(cells[cell], cellSizes[cell] * 2);
+                }
+
+                cells[cell][cellSizes[cell]++] = id;
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob die Strecke von a nach b eine eingetragene Kante schneidet.
+     * Wie bisher werden Kanten übersprungen, die einen Endpunkt mit der Strecke teilen.
+     * @param a der Startpunkt der Strecke
+     * @param b der Endpunkt der Strecke
+     * @return true, wenn sich die Strecke mit einer Kante schneidet
+     */
+    public boolean intersects(Point a, Point b) {
+        query++;
+
+        int minColumn = column(Math.min(a.x, b.x)), maxColumn = column(Math.max(a.x, b.x));
+        int minRow = row(Math.min(a.y, b.y)), maxRow = row(Math.max(a.y, b.y));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = 0; i < cellSizes[cell]; i++) {
+                    int id = cells[cell][i];
+                    if (visited[id] == query)
+                        continue;
+
+                    visited[id] = query;
+
+                    Edge<Castle> edge = edges.get(id);
+                    Point c = edge.getNodeA().getValue().getLocationOnMap();
+                    Point d = edge.getNodeB().getValue().getLocationOnMap();
+
+                    if (a == c || a == d || b == c || b == d)
+                        continue;
+
+                    if (Line2D.linesIntersect(a.getX(), a.getY(), b.getX(), b.getY(), c.getX(), c.getY(), d.getX(), d.getY()))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, x / cellSize));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, y / cellSize));
+    }
+}
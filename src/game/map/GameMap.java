@@ -2,14 +2,22 @@ package game.map;
 
 import base.*;
 import game.GameConstants;
-import gui.Resources;
+import game.Player;
+import game.Team;
 
 import java.awt.*;
-import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -22,10 +30,21 @@ public class GameMap {
 
     private BufferedImage backgroundImage;
     private Graph<Castle> castleGraph;
+    private CastleStore castleStore;
+    private CompactGraph<Castle> compactGraph;
+    private PathCache pathCache;
     private List<Kingdom> kingdoms;
 
+    // Besitzer -> dessen Burgen, wird bei jedem Besitzerwechsel aktualisiert, siehe getCastles(Player)
+    private Map<Player, List<Castle>> castlesByOwner;
+    private Map<Player, List<Castle>> castlesByOwnerViews;
+
+    // Team -> dessen Burgen, die an eine Burg eines anderen Teams grenzen, siehe getBorderCastles(Team)
+    private Map<Team, Set<Castle>> borderCastles;
+
     // Map Generation
-    private double[][] noiseValues;
+    private Random random;
+    private float[] noiseValues;
     private int width, height, scale;
 
     /**
@@ -37,46 +56,63 @@ public class GameMap {
      */
     private GameMap(int width, int height, int scale) {
         this.castleGraph = new Graph<>();
+        this.castleStore = new CastleStore();
+        this.pathCache = new PathCache(this);
+        this.castlesByOwner = new ConcurrentHashMap<>();
+        this.castlesByOwnerViews = new ConcurrentHashMap<>();
+        this.borderCastles = new ConcurrentHashMap<>();
         this.width = width;
         this.height = height;
         this.scale = scale;
     }
 
+    private static final int RGB_WATER = GameConstants.COLOR_WATER.getRGB() & 0xFFFFFF;
+    private static final int RGB_SAND  = GameConstants.COLOR_SAND.getRGB() & 0xFFFFFF;
+    private static final int RGB_GRASS = GameConstants.COLOR_GRASS.getRGB() & 0xFFFFFF;
+    private static final int RGB_STONE = GameConstants.COLOR_STONE.getRGB() & 0xFFFFFF;
+    private static final int RGB_SNOW  = GameConstants.COLOR_SNOW.getRGB() & 0xFFFFFF;
+
     /**
      * Wandelt einen Noise-Wert in eine Farbe um. Die Methode kann nach belieben angepasst werden
      * @param value der Perlin-Noise-Wert
-     * @return die resultierende Farbe
+     * @return die resultierende Farbe als RGB-Wert (0xRRGGBB)
      */
-    private Color doubleToColor(double value) {
+    private static int doubleToRGB(double value) {
         if (value <= 0.40)
-            return GameConstants.COLOR_WATER;
+            return RGB_WATER;
         else if (value <= 0.5)
-            return GameConstants.COLOR_SAND;
+            return RGB_SAND;
         else if (value <= 0.7)
-            return GameConstants.COLOR_GRASS;
+            return RGB_GRASS;
         else if (value <= 0.8)
-            return GameConstants.COLOR_STONE;
+            return RGB_STONE;
         else
-            return GameConstants.COLOR_SNOW;
+            return RGB_SNOW;
     }
 
     /**
      * Hier wird das Hintergrund-Bild mittels Perlin-Noise erzeugt.
-     * Siehe auch: {@link PerlinNoise}
+     * Die Noise-Werte und Farben werden parallel direkt in das Pixel-Array des Bildes geschrieben.
+     * Siehe auch: {@link PerlinNoise#fill(float[], int[], java.util.function.DoubleToIntFunction)}
      */
     private void generateBackground() {
-        PerlinNoise perlinNoise = new PerlinNoise(width, height, scale);
+        PerlinNoise perlinNoise = new PerlinNoise(width, height, scale, random);
         Dimension realSize = perlinNoise.getRealSize();
 
-        noiseValues = new double[realSize.width][realSize.height];
+        noiseValues = new float[realSize.width * realSize.height];
         backgroundImage = new BufferedImage(realSize.width, realSize.height, BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < realSize.width; x++) {
-            for (int y = 0; y < realSize.height; y++) {
-                double noiseValue = perlinNoise.getNoise(x, y);
-                noiseValues[x][y] = noiseValue;
-                backgroundImage.setRGB(x, y, doubleToColor(noiseValue).getRGB());
-            }
-        }
+        int[] pixels = ((DataBufferInt) backgroundImage.getRaster().getDataBuffer()).getData();
+        perlinNoise.fill(noiseValues, pixels, GameMap::doubleToRGB);
+    }
+
+    /**
+     * Gibt den Noise-Wert an der angegebenen Pixel-Position zurück
+     * @param x die x-Koordinate
+     * @param y die y-Koordinate
+     * @return der Noise-Wert
+     */
+    private float getNoise(int x, int y) {
+        return noiseValues[x + y * backgroundImage.getWidth()];
     }
 
     /**
@@ -111,7 +147,7 @@ public class GameMap {
         List<String> possibleNames = generateCastleNames();
         int castlesGenerated = 0;
         while (possibleFields.size() > 0 && castlesGenerated < castleCount) {
-            Point randomField = possibleFields.remove((int) (Math.random() * possibleFields.size()));
+            Point randomField = possibleFields.remove(random.nextInt(possibleFields.size()));
             int x0 = (int) ((randomField.x + 0.5) * tileW);
             int y0 = (int) ((randomField.y + 0.5) * tileH);
 
@@ -120,14 +156,14 @@ public class GameMap {
                 for (int y = (int) (0.5 * tileH); y >= 0; y--) {
                     int x_mid = (int) (x0 + x + 0.5 * tileW);
                     int y_mid = (int) (y0 + y + 0.5 * tileH);
-                    if (noiseValues[x_mid][y_mid] >= 0.6) {
+                    if (getNoise(x_mid, y_mid) >= 0.6) {
                         String name = possibleNames.isEmpty() ? "Burg " + (castlesGenerated + 1) :
-                            possibleNames.get((int) (Math.random() * possibleNames.size()));
-                        Castle newCastle = new Castle(new Point(x0 + x, y0 + y), name);
+                            possibleNames.get(random.nextInt(possibleNames.size()));
+                        Point location = new Point(x0 + x, y0 + y);
                         boolean doesIntersect = false;
 
                         for (Castle r : castleGraph.getAllValues()) {
-                            if (r.distance(newCastle) < Math.max(tileW, tileH)) {
+                            if (r.distance(location) < Math.max(tileW, tileH)) {
                                 doesIntersect = true;
                                 break;
                             }
@@ -135,7 +171,9 @@ public class GameMap {
 
                         if (!doesIntersect) {
                             possibleNames.remove(name);
+                            Castle newCastle = new Castle(castleStore, location, name);
                             castleGraph.addNode(newCastle);
+                            newCastle.setMap(this);
                             castlesGenerated++;
                             positionFound = true;
                             break;
@@ -159,21 +197,15 @@ public class GameMap {
     	// Anzahl der nächstgelegenen Burgen, zu denen eine Verbindung aufgebaut werden soll
     	int maxLevel = 3;
     	
-		ArrayList<Node<Castle>> nodes = new ArrayList<>(castleGraph.getNodes());
+		List<Node<Castle>> nodes = castleGraph.getNodes();
 		int amountOfNodes = nodes.size();
     	
-		// Eine HashMap, die für jede Burg die jeweils nächstgelegenen in einer sortierten Liste enthält
-		HashMap<Node<Castle>, ArrayList<Node<Castle>>> closestNodes = new HashMap<>();
-    	
-		for (Node<Castle> nodeA : castleGraph.getNodes()) {
-			nodes.sort((n1, n2) -> {
-					double p = n1.getValue().distance(nodeA.getValue()) - n2.getValue().distance(nodeA.getValue());
-					return p > 0 ? 1 : -1;
-				}
-			);
-    		closestNodes.put(nodeA, new ArrayList<>(nodes));
-    	}
-    	
+		// Liefert für jede Burg die jeweils nächstgelegenen, aber nur so weit wie benötigt
+		NearestCastles closestNodes = new NearestCastles(nodes, getWidth(), getHeight(), 2 * scale);
+
+		// Alle bisherigen Kanten, einsortiert nach ihrer Lage auf der Karte
+		EdgeGrid edgeGrid = new EdgeGrid(getWidth(), getHeight(), 2 * scale);
+		
     	/*
     	 * Erzeuge neue Verbindungen, indem jede Burg mit den n nächstgelegenen verbunden wird.
     	 * Ist danach noch nicht jede Burg im selben Graphen, so wird n weiter erhöht.
@@ -186,15 +218,16 @@ public class GameMap {
     			break;
     		
     		for (Node<Castle> nodeA : castleGraph.getNodes()) {
-    			Node<Castle> nodeB = closestNodes.get(nodeA).get(level);
+    			Node<Castle> nodeB = closestNodes.get(nodeA, level);
     			
-    			if (hasIntersection(nodeA, nodeB))
+    			if (hasIntersection(edgeGrid, nodeA, nodeB))
     				continue;
     			
     			if (level <= maxLevel && angleBelow(15.0, nodeA, nodeB))
     				continue;
     			
-    			castleGraph.addEdge(nodeA, nodeB);
+    			if (castleGraph.getEdge(nodeA, nodeB) == null)
+    				edgeGrid.add(castleGraph.addEdge(nodeA, nodeB));
     		}
     	}
     }
@@ -202,33 +235,14 @@ public class GameMap {
 	/**
 	 * Hier wird die neue Kante mit den bisher im Graphen vorhandenen verglichen.
 	 * Schneidet sie sich mit einer, so wird true zurückgeliefert.
+	 * Verglichen werden nur die Kanten aus den Gitterzellen, die die neue Kante überdeckt.
+	 * @param edgeGrid das Gitter mit allen bisherigen Kanten
 	 * @param nodeA der Startknoten der neuen Kante
 	 * @param nodeB der Endknoten der neuen Kante
 	 * @return true, wenn die Kante eine bereits vorhandene schneidet
 	 */
-	private boolean hasIntersection(Node<Castle> nodeA, Node<Castle> nodeB) {
-		for (Edge<Castle> edge : castleGraph.getEdges()) {
-			
-			Point nodeAPos = nodeA.getValue().getLocationOnMap();
-			Point nodeBPos = nodeB.getValue().getLocationOnMap();
-			Point nodeCPos = edge.getNodeA().getValue().getLocationOnMap();
-			Point nodeDPos = edge.getNodeB().getValue().getLocationOnMap();
-			
-			if (nodeAPos == nodeCPos || nodeAPos == nodeDPos || nodeBPos == nodeCPos || nodeBPos == nodeDPos)
-				continue;
-			
-			if (Line2D.linesIntersect(
-					nodeAPos.getX(),
-					nodeAPos.getY(),
-					nodeBPos.getX(),
-					nodeBPos.getY(),
-					nodeCPos.getX(),
-					nodeCPos.getY(),
-					nodeDPos.getX(),
-					nodeDPos.getY()))
-				return true;
-		}
-		return false;
+	private boolean hasIntersection(EdgeGrid edgeGrid, Node<Castle> nodeA, Node<Castle> nodeB) {
+		return edgeGrid.intersects(nodeA.getValue().getLocationOnMap(), nodeB.getValue().getLocationOnMap());
 	}
 
 	/**
@@ -285,7 +299,7 @@ public class GameMap {
      */
     private void generateKingdoms(int kingdomCount) {
         if(kingdomCount > 0 && kingdomCount < castleGraph.getAllValues().size()) {
-            Clustering clustering = new Clustering(castleGraph.getAllValues(), kingdomCount, this.getSize());
+            Clustering clustering = new Clustering(castleGraph.getAllValues(), kingdomCount, this.getSize(), random);
             kingdoms = clustering.getPointsClusters();
         } else {
             kingdoms = new ArrayList<>();
@@ -307,6 +321,21 @@ public class GameMap {
      * @return eine neue GameMap-Instanz
      */
     public static GameMap generateRandomMap(int width, int height, int scale, int castleCount, int kingdomCount) {
+        return generateRandomMap(width, height, scale, castleCount, kingdomCount, new Random());
+    }
+
+    /**
+     * Eine neue Spielfeldkarte mit einem vorgegebenen Zufallsgenerator generieren.
+     * Mit gleichem Startwert des Zufallsgenerators entsteht dieselbe Karte, siehe {@link #generateRandomMap(int, int, int, int, int)}
+     * @param width die Breite des Spielfelds
+     * @param height die Höhe des Spielfelds
+     * @param scale die Skalierung
+     * @param castleCount die maximale Anzahl an Burgen
+     * @param kingdomCount die Anzahl der Königreiche
+     * @param random der Zufallsgenerator für alle Schritte der Generierung
+     * @return eine neue GameMap-Instanz
+     */
+    public static GameMap generateRandomMap(int width, int height, int scale, int castleCount, int kingdomCount, Random random) {
 
         width = Math.max(width, 15);
         height = Math.max(height, 10);
@@ -316,6 +345,7 @@ public class GameMap {
 
         System.out.println(String.format("Generating new map, castles=%d, width=%d, height=%d, kingdoms=%d", castleCount, width, height, kingdomCount));
         GameMap gameMap = new GameMap(width, height, scale);
+        gameMap.random = random;
         gameMap.generateBackground();
         gameMap.generateCastles(castleCount);
         gameMap.generateEdges();
@@ -331,16 +361,22 @@ public class GameMap {
 
     /**
      * Generiert eine Liste von Zufallsnamen für Burgen. Dabei wird ein Prefix (Schloss, Burg oder Festung) an einen
-     * vorhandenen Namen aus den Resourcen angefügt. Siehe auch: {@link Resources#getcastleNames()}
+     * vorhandenen Namen aus den Resourcen angefügt. Siehe auch: {@link CastleNames#getNames()}
      * @return eine Liste mit Zufallsnamen
      */
     private List<String> generateCastleNames() {
         String[] prefixes = {"Schloss", "Burg", "Festung"};
-        List<String> names = Resources.getInstance().getCastleNames();
+        List<String> names;
+        try {
+            names = CastleNames.getNames();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
         List<String> nameList = new ArrayList<>(names.size());
 
         for (String name : names) {
-            String prefix = prefixes[(int) (Math.random() * prefixes.length)];
+            String prefix = prefixes[random.nextInt(prefixes.length)];
             nameList.add(prefix + " " + name);
         }
 
@@ -367,6 +403,14 @@ public class GameMap {
         return castleGraph.getAllValues();
     }
 
+    /**
+     * Gibt den Speicher mit dem Zustand aller Burgen zurück. Die Stellen entsprechen der Reihenfolge von {@link #getCastles()}.
+     * @return der Speicher der Burgen
+     */
+    public CastleStore getCastleStore() {
+        return this.castleStore;
+    }
+
     public Graph<Castle> getGraph() {
         return this.castleGraph;
     }
@@ -375,6 +419,132 @@ public class GameMap {
         return this.castleGraph.getEdges();
     }
 
+    /**
+     * Gibt eine kompakte Darstellung des Burg-Graphen zurück, in der jede Kante mit der Distanz ihrer Burgen gewichtet ist.
+     * Nach der Generierung ändert sich der Graph nur noch durch neue Kanten (siehe {@link #addEdge(Castle, Castle)}),
+     * die Darstellung wird daher nur dann neu erzeugt.
+     * @return die aktuelle kompakte Darstellung des Graphen
+     */
+    public synchronized CompactGraph<Castle> getCompactGraph() {
+        if (compactGraph == null || !compactGraph.isCurrent()) {
+            compactGraph = CompactGraph.of(castleGraph, edge -> edge.getNodeA().getValue().distance(edge.getNodeB().getValue()));
+        }
+
+        return this.compactGraph;
+    }
+
+    /**
+     * Gibt den Zwischenspeicher für Wegsuchen auf dieser Karte zurück.
+     * Einträge werden bei Besitzerwechseln und neuen Kanten selbstständig verworfen.
+     * @return der Zwischenspeicher
+     */
+    public PathCache getPathCache() {
+        return this.pathCache;
+    }
+
+    /**
+     * Wird von einer Burg aufgerufen, nachdem sie den Besitzer gewechselt hat
+     * @param castle die Burg
+     * @param oldOwner der vorherige Besitzer oder null
+     * @param newOwner der neue Besitzer oder null
+     */
+    void onOwnerChanged(Castle castle, Player oldOwner, Player newOwner) {
+        if(oldOwner != null)
+            getOwnedCastles(oldOwner).remove(castle);
+        if(newOwner != null)
+            addOwnedCastle(getOwnedCastles(newOwner), castle);
+
+        // Ein Besitzerwechsel kann nur die Burg selbst und ihre Nachbarn zu Grenzburgen machen oder nicht mehr
+        Node<Castle> node = castleGraph.getNode(castle);
+        updateBorder(castle);
+        for(Edge<Castle> edge : castleGraph.getEdges(node))
+            updateBorder(edge.getOtherNode(node).getValue());
+
+        pathCache.onOwnerChanged(castle);
+    }
+
+    /**
+     * Gibt die Burgen eines Teams zurück, die an mindestens eine Burg eines anderen Teams grenzen.
+     * Die Menge wird bei Besitzerwechseln und neuen Kanten aktualisiert und kann nicht verändert werden.
+     * @param team das Team
+     * @return die Grenzburgen des Teams
+     */
+    public Set<Castle> getBorderCastles(Team team) {
+        return Collections.unmodifiableSet(getBorderCastleSet(team));
+    }
+
+    /**
+     * Prüft, ob eine Burg an eine Burg eines anderen Teams grenzt
+     * @param castle die Burg
+     * @return true, wenn die Burg eine Grenzburg ist
+     */
+    public boolean isBorderCastle(Castle castle) {
+        Player owner = castle.getOwner();
+        return owner != null && getBorderCastleSet(owner.getTeam()).contains(castle);
+    }
+
+    private Set<Castle> getBorderCastleSet(Team team) {
+        return borderCastles.computeIfAbsent(team, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void updateBorder(Castle castle) {
+        Player owner = castle.getOwner();
+        for(Map.Entry<Team, Set<Castle>> entry : borderCastles.entrySet()) {
+            if(owner == null || entry.getKey() != owner.getTeam())
+                entry.getValue().remove(castle);
+        }
+
+        if(owner == null)
+            return;
+
+        Node<Castle> node = castleGraph.getNode(castle);
+        boolean border = false;
+        for(Edge<Castle> edge : castleGraph.getEdges(node)) {
+            Player neighborOwner = edge.getOtherNode(node).getValue().getOwner();
+            if(neighborOwner != null && neighborOwner.getTeam() != owner.getTeam()) {
+                border = true;
+                break;
+            }
+        }
+
+        Set<Castle> teamBorder = getBorderCastleSet(owner.getTeam());
+        if(border)
+            teamBorder.add(castle);
+        else
+            teamBorder.remove(castle);
+    }
+
+    /**
+     * Gibt alle Burgen eines Spielers zurück, ohne alle Burgen der Karte zu durchlaufen.
+     * Die Liste kann nicht verändert werden, spiegelt immer den aktuellen Stand wider und ist wie {@link #getCastles()} sortiert.
+     * Beim Durchlaufen sieht man den Stand zu Beginn des Durchlaufs, auch wenn währenddessen Burgen erobert werden.
+     * @param player der Spieler
+     * @return die Burgen des Spielers
+     */
+    public List<Castle> getCastles(Player player) {
+        return castlesByOwnerViews.computeIfAbsent(player, owner -> Collections.unmodifiableList(getOwnedCastles(owner)));
+    }
+
+    private List<Castle> getOwnedCastles(Player player) {
+        return castlesByOwner.computeIfAbsent(player, owner -> new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Fügt eine Burg so ein, dass die Liste wie {@link #getCastles()} nach {@link Castle#getIndex()} sortiert bleibt
+     */
+    private static void addOwnedCastle(List<Castle> castles, Castle castle) {
+        int low = 0, high = castles.size();
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(castles.get(mid).getIndex() < castle.getIndex())
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        castles.add(low, castle);
+    }
+
     public List<Kingdom> getKingdoms() {
         return this.kingdoms;
     }
@@ -389,5 +559,8 @@ public class GameMap {
     	Node<Castle> nodeA = castleGraph.getNode(A);
     	Node<Castle> nodeB = castleGraph.getNode(B);
     	this.castleGraph.addEdge(nodeA, nodeB);
+    	this.pathCache.onEdgeAdded(A, B);
+    	this.updateBorder(A);
+    	this.updateBorder(B);
     }
 }
@@ -5,6 +5,8 @@ import game.Player;
 import java.awt.Point;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Diese Klasse representiert ein Königreich. Jedes Königreich hat eine Liste von Burgen sowie einen Index {@link #type} im Bereich von 0-5
@@ -14,6 +16,10 @@ public class Kingdom {
 
     private List<Castle> castles;
     private int type;
+
+    // Spieler -> Anzahl seiner Burgen in diesem Königreich, wird bei jedem Besitzerwechsel aktualisiert
+    private Map<Player, Integer> castleCounts;
+    private volatile Player owner;
     
     private Point center;
 
@@ -23,6 +29,7 @@ public class Kingdom {
      */
     public Kingdom(int type) {
         this.castles = new LinkedList<>();
+        this.castleCounts = new ConcurrentHashMap<>();
         this.type = type;
     }
 
@@ -32,6 +39,7 @@ public class Kingdom {
      */
     public void addCastle(Castle castle) {
         this.castles.add(castle);
+        this.onOwnerChanged(null, castle.getOwner());
     }
 
     /**
@@ -47,7 +55,8 @@ public class Kingdom {
      * @param castle die zu entfernende Burg
      */
     public void removeCastle(Castle castle) {
-        this.castles.remove(castle);
+        if(this.castles.remove(castle))
+            this.onOwnerChanged(castle.getOwner(), null);
     }
 
     /**
@@ -56,16 +65,42 @@ public class Kingdom {
      * @return der Besitzer oder null
      */
     public Player getOwner() {
-        if(castles.isEmpty())
-            return null;
+        return this.owner;
+    }
+
+    /**
+     * Gibt zurück, wie viele Burgen des Königreichs dem Spieler gehören
+     * @param player der Spieler
+     * @return die Anzahl der Burgen des Spielers in diesem Königreich
+     */
+    public int getCastleCount(Player player) {
+        return player == null ? 0 : castleCounts.getOrDefault(player, 0);
+    }
 
-        Player owner = castles.get(0).getOwner();
-        for(Castle castle : castles) {
-            if(castle.getOwner() != owner)
-                return null;
-        }
+    /**
+     * Gibt zurück, wie viele Burgen dem Spieler noch fehlen, um das ganze Königreich zu besitzen
+     * @param player der Spieler
+     * @return die Anzahl der Burgen, die nicht dem Spieler gehören
+     */
+    public int getMissingCastles(Player player) {
+        return castles.size() - getCastleCount(player);
+    }
+
+    /**
+     * Wird aufgerufen, wenn eine Burg des Königreichs den Besitzer wechselt.
+     * Aktualisiert die Anzahl der Burgen je Spieler und den Besitzer des Königreichs.
+     * @param oldOwner der vorherige Besitzer oder null
+     * @param newOwner der neue Besitzer oder null
+     */
+    void onOwnerChanged(Player oldOwner, Player newOwner) {
+        if(oldOwner != null)
+            castleCounts.computeIfPresent(oldOwner, (player, count) -> count > 1 ? count - 1 : null);
+        if(newOwner != null)
+            castleCounts.merge(newOwner, 1, Integer::sum);
 
-        return owner;
+        // Gehören alle Burgen einem Spieler, dann auch die erste
+        Player candidate = castles.isEmpty() ? null : castles.get(0).getOwner();
+        this.owner = candidate != null && getCastleCount(candidate) == castles.size() ? candidate : null;
     }
 
     /**
@@ -0,0 +1,189 @@
+package game.map;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import base.Node;
+
+/**
+ * Liefert zu jeder Burg die übrigen Burgen aufsteigend nach ihrer Entfernung.
+ * Dazu werden die Burgen in ein gleichmäßiges Gitter einsortiert, das ausgehend von der Zelle der Burg
+ * ringweise abgesucht wird. Es werden nur so viele Ringe betrachtet, wie für die angefragten Nachbarn nötig sind,
+ * statt für jede Burg alle anderen Burgen zu sortieren.
+ */
+public class NearestCastles {
+
+    /**
+     * Der Suchzustand einer Burg: die bereits bestimmten Nachbarn in sortierter Reihenfolge,
+     * die gefundenen, aber noch nicht einsortierten Kandidaten und der zuletzt abgesuchte Ring
+     */
+    private final class Query {
+
+        private final int origin;
+        private final List<Node<Castle>> neighbors;
+        private final PriorityQueue<Candidate> candidates;
+        private int ring;
+
+        private Query(int origin) {
+            this.origin = origin;
+            this.neighbors = new ArrayList<>();
+            this.candidates = new PriorityQueue<>();
+            this.ring = -1;
+        }
+
+        private Node<Castle> get(int level) {
+            while (neighbors.size() <= level) {
+                Candidate next = nextCandidate();
+                if (next == null)
+                    return null;
+
+                neighbors.add(nodes.get(next.index));
+            }
+
+            return neighbors.get(level);
+        }
+
+        /**
+         * Ein Kandidat ist sicher der nächste, wenn keine Burg außerhalb der abgesuchten Ringe näher liegen kann.
+         * Eine solche Burg ist mindestens ring * cellSize von der Burg entfernt.
+         */
+        private Candidate nextCandidate() {
+            while (ring < maxRing && (candidates.isEmpty() || candidates.peek().distance > (double) ring * cellSize)) {
+                ring++;
+                collectRing();
+            }
+
+            return candidates.poll();
+        }
+
+        private void collectRing() {
+            int column = column(xs[origin]);
+            int row = row(ys[origin]);
+
+            for (int y = row - ring; y <= row + ring; y++) {
+                if (y < 0 || y >= rows)
+                    continue;
+
+                boolean edgeRow = y == row - ring || y == row + ring;
+                int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+
+                for (int x = column - ring; x <= column + ring; x += step) {
+                    if (x < 0 || x >= columns)
+                        continue;
+
+                    int cell = y * columns + x;
+                    for (int i = 0; i < cellSizes[cell]; i++) {
+                        int index = cells[cell][i];
+                        candidates.add(new Candidate(index, Math.hypot(xs[index] - xs[origin], ys[index] - ys[origin])));
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final int index;
+        private final double distance;
+
+        private Candidate(int index, double distance) {
+            this.index = index;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    private final List<Node<Castle>> nodes;
+    private final int[] xs;
+    private final int[] ys;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int maxRing;
+
+    // Zelle -> Indizes der enthaltenen Burgen und deren Anzahl
+    private final int[][] cells;
+    private final int[] cellSizes;
+
+    // Knoten -> Index in nodes
+    private final Map<Node<Castle>, Integer> indices;
+    private final Query[] queries;
+
+    /**
+     * Sortiert die Burgen in ein Gitter ein
+     * @param nodes die Knoten aller Burgen
+     * @param width die Breite der Karte in Pixeln
+     * @param height die Höhe der Karte in Pixeln
+     * @param cellSize die Kantenlänge einer Zelle in Pixeln
+     */
+    public NearestCastles(List<Node<Castle>> nodes, int width, int height, int cellSize) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.nodes = new ArrayList<>(nodes);
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.maxRing = Math.max(columns, rows);
+        this.cells = new int[columns * rows][];
+        this.cellSizes = new int[columns * rows];
+        this.indices = new HashMap<>();
+        this.queries = new Query[this.nodes.size()];
+
+        this.xs = new int[this.nodes.size()];
+        this.ys = new int[this.nodes.size()];
+
+        for (int index = 0; index < this.nodes.size(); index++) {
+            indices.put(this.nodes.get(index), index);
+
+            Point location = this.nodes.get(index).getValue().getLocationOnMap();
+            xs[index] = location.x;
+            ys[index] = location.y;
+
+            int cell = row(location.y) * columns + column(location.x);
+            if (cells[cell] == null) {
+                cells[cell] = new int[4];
+            } else if (cellSizes[cell] == cells[cell].length) {
+                cells[cell] = Arrays.copyOf(cells[cell], cellSizes[cell] * 2);
+            }
+
+            cells[cell][cellSizes[cell]++] = index;
+        }
+    }
+
+    /**
+     * Gibt die Burg zurück, die an der angegebenen Stelle in der nach Entfernung sortierten Liste steht.
+     * An Stelle 0 steht die Burg selbst.
+     * @param node der Knoten der Burg
+     * @param level die Stelle in der sortierten Liste
+     * @return der Knoten der gesuchten Burg oder null, falls es weniger Burgen gibt
+     */
+    public Node<Castle> get(Node<Castle> node, int level) {
+        Integer origin = indices.get(node);
+        if (origin == null)
+            return null;
+
+        if (queries[origin] == null)
+            queries[origin] = new Query(origin);
+
+        return queries[origin].get(level);
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, x / cellSize));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, y / cellSize));
+    }
+}
@@ -0,0 +1,181 @@
+package game.map;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+import base.Edge;
+import base.Graph;
+import base.Node;
+import game.Action;
+import game.Player;
+import game.Team;
+
+/**
+ * Zwischenspeicher für vollständig berechnete {@link PathFinding}-Bäume einer Spielkarte.
+ * Ein Eintrag gehört zu einer Startburg, einer Aktion und einem Team, da die Passierbarkeit nur vom Team des Spielers abhängt.
+ *
+ * Wechselt eine Burg den Besitzer oder kommt eine Kante hinzu, werden nur die Einträge verworfen, deren Suche
+ * die betroffene Burg oder einen ihrer Nachbarn abgearbeitet hat. Alle anderen Bäume bleiben unverändert gültig.
+ * Verworfene Einträge werden für spätere Suchen wiederverwendet, siehe {@link PathFinding#reset(Castle, Action, Player)}.
+ */
+public class PathCache {
+
+    /**
+     * Schlüssel eines Eintrags aus Startburg, Aktion und Team
+     */
+    private static final class Key {
+
+        private final Castle source;
+        private final Action action;
+        private final Team team;
+
+        private Key(Castle source, Action action, Team team) {
+            this.source = source;
+            this.action = action;
+            this.team = team;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key))
+                return false;
+
+            Key key = (Key) other;
+            return source == key.source && action == key.action && team == key.team;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(source), action, System.identityHashCode(team));
+        }
+    }
+
+    private final GameMap gameMap;
+    private final Map<Key, PathFinding> entries;
+    private final Deque<PathFinding> unusedEntries;
+
+    /**
+     * Erzeugt einen leeren Zwischenspeicher
+     * @param gameMap die Spielkarte, auf der gesucht wird
+     */
+    PathCache(GameMap gameMap) {
+        this.gameMap = gameMap;
+        this.entries = new HashMap<>();
+        this.unusedEntries = new ArrayDeque<>();
+    }
+
+    /**
+     * Gibt eine vollständig berechnete Wegsuche für die angegebene Startburg, Aktion und das Team des Spielers zurück.
+     * Existiert noch kein gültiger Eintrag, wird die Suche ausgeführt und gespeichert.
+     * Das zurückgegebene Objekt darf nicht mit {@link PathFinding#reset(Castle, Action, Player)} verändert werden.
+     * Da verworfene Einträge wiederverwendet werden, ist es nur gültig, bis eine Burg den Besitzer wechselt oder eine Kante hinzukommt.
+     * Kann das gleichzeitig passieren, sollte stattdessen {@link #isReachable(Castle, Castle, Action, Player)} verwendet werden.
+     * @param source die Startburg
+     * @param action die Aktion
+     * @param player der Spieler, dessen Team betrachtet wird
+     * @return die Wegsuche, deren Pfade mit {@link PathFinding#getPath(Castle)} abgefragt werden können
+     */
+    public synchronized PathFinding get(Castle source, Action action, Player player) {
+        Key key = new Key(source, action, player.getTeam());
+        PathFinding pathFinding = entries.get(key);
+
+        if (pathFinding == null) {
+            pathFinding = unusedEntries.poll();
+            if (pathFinding == null) {
+                pathFinding = new PathFinding(gameMap, source, action, player);
+            } else {
+                pathFinding.reset(source, action, player);
+            }
+
+            pathFinding.run();
+            entries.put(key, pathFinding);
+        }
+
+        return pathFinding;
+    }
+
+    /**
+     * Prüft, ob die Zielburg von der Startburg aus unter den Regeln der Aktion erreichbar ist.
+     * Suche und Abfrage erfolgen unter derselben Sperre, der Eintrag kann dazwischen also nicht wiederverwendet werden.
+     * @param source die Startburg
+     * @param target die Zielburg
+     * @param action die Aktion
+     * @param player der Spieler, dessen Team betrachtet wird
+     * @return true, wenn ein Pfad existiert
+     */
+    public synchronized boolean isReachable(Castle source, Castle target, Action action, Player player) {
+        PathFinding pathFinding = get(source, action, player);
+        return pathFinding.hasPath(gameMap.getGraph().getNode(target));
+    }
+
+    /**
+     * Verwirft alle Einträge, deren Suche die Burg oder einen ihrer Nachbarn abgearbeitet hat.
+     * Wird von {@link GameMap} aufgerufen, sobald die Burg den Besitzer wechselt.
+     * @param castle die veränderte Burg
+     */
+    synchronized void onOwnerChanged(Castle castle) {
+        if (entries.isEmpty())
+            return;
+
+        Graph<Castle> graph = gameMap.getGraph();
+        Node<Castle> node = graph.getNode(castle);
+
+        Iterator<PathFinding> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            PathFinding pathFinding = iterator.next();
+            if (dependsOn(pathFinding, graph, node)) {
+                iterator.remove();
+                unusedEntries.add(pathFinding);
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Einträge, deren Suche eine der beiden Burgen abgearbeitet hat.
+     * Wird von {@link GameMap} aufgerufen, sobald eine neue Kante hinzugefügt wurde.
+     * @param castleA die erste Burg der neuen Kante
+     * @param castleB die zweite Burg der neuen Kante
+     */
+    synchronized void onEdgeAdded(Castle castleA, Castle castleB) {
+        Graph<Castle> graph = gameMap.getGraph();
+        Node<Castle> nodeA = graph.getNode(castleA);
+        Node<Castle> nodeB = graph.getNode(castleB);
+
+        Iterator<PathFinding> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            PathFinding pathFinding = iterator.next();
+            if (pathFinding.isSettled(nodeA) || pathFinding.isSettled(nodeB)) {
+                iterator.remove();
+                unusedEntries.add(pathFinding);
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Einträge
+     */
+    public synchronized void clear() {
+        unusedEntries.addAll(entries.values());
+        entries.clear();
+    }
+
+    /**
+     * Eine Suche hängt von einer Burg ab, wenn sie die Burg selbst oder einen Nachbarn abgearbeitet hat,
+     * da nur dann die Passierbarkeit der Burg oder ihrer Kanten geprüft wurde.
+     */
+    private boolean dependsOn(PathFinding pathFinding, Graph<Castle> graph, Node<Castle> node) {
+        if (pathFinding.isSettled(node))
+            return true;
+
+        for (Edge<Castle> edge : graph.getEdges(node)) {
+            if (pathFinding.isSettled(edge.getOtherNode(node)))
+                return true;
+        }
+
+        return false;
+    }
+}
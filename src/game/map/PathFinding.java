@@ -1,26 +1,74 @@
 package game.map;
 
+import base.CompactGraph;
 import base.GraphAlgorithm;
 import base.Node;
 import base.Edge;
 import base.Graph;
+import game.Action;
 import game.Player;
 import game.map.Castle;
-import gui.components.MapPanel;
 
 import java.util.List;
 
 public class PathFinding extends GraphAlgorithm<Castle> {
 
-    private MapPanel.Action action;
+    private Action action;
     private Player currentPlayer;
+    private GameMap gameMap;
 
-    public PathFinding(Graph<Castle> graph, Castle sourceCastle, MapPanel.Action action, Player currentPlayer) {
+    public PathFinding(Graph<Castle> graph, Castle sourceCastle, Action action, Player currentPlayer) {
         super(graph, graph.getNode(sourceCastle));
         this.action = action;
         this.currentPlayer = currentPlayer;
     }
 
+    /**
+     * Erzeugt eine Wegsuche auf der kompakten Darstellung des Burg-Graphen, siehe {@link GameMap#getCompactGraph()}.
+     * Die Distanzen der Kanten werden dabei nicht bei jeder Suche neu berechnet.
+     * @param gameMap die Spielkarte
+     * @param sourceCastle die Startburg
+     * @param action die Aktion, für die ein Weg gesucht wird
+     * @param currentPlayer der Spieler, für den ein Weg gesucht wird
+     */
+    public PathFinding(GameMap gameMap, Castle sourceCastle, Action action, Player currentPlayer) {
+        this(gameMap.getCompactGraph(), sourceCastle, action, currentPlayer);
+        this.gameMap = gameMap;
+    }
+
+    private PathFinding(CompactGraph<Castle> compactGraph, Castle sourceCastle, Action action, Player currentPlayer) {
+        super(compactGraph, compactGraph.getGraph().getNode(sourceCastle));
+        this.action = action;
+        this.currentPlayer = currentPlayer;
+    }
+
+    /**
+     * Bereitet eine neue Suche vor, ohne ein neues PathFinding-Objekt zu erzeugen.
+     * Die Arrays der vorherigen Suche werden wiederverwendet, siehe {@link GraphAlgorithm#reset(CompactGraph, Node)}.
+     * Wurde dieses Objekt mit einer {@link GameMap} erzeugt, wird deren aktuelle kompakte Darstellung verwendet.
+     * @param sourceCastle die neue Startburg
+     * @param action die Aktion, für die ein Weg gesucht wird
+     * @param currentPlayer der Spieler, für den ein Weg gesucht wird
+     */
+    public void reset(Castle sourceCastle, Action action, Player currentPlayer) {
+        CompactGraph<Castle> compactGraph = gameMap != null ? gameMap.getCompactGraph() : getCompactGraph();
+        if (compactGraph == null)
+            compactGraph = CompactGraph.of(getGraph(), this::getValue);
+
+        this.action = action;
+        this.currentPlayer = currentPlayer;
+        this.reset(compactGraph, compactGraph.getGraph().getNode(sourceCastle));
+    }
+
+    /**
+     * Gibt an, ob dieses Objekt auf der angegebenen Spielkarte sucht
+     * @param gameMap die Spielkarte
+     * @return true, wenn mit {@link #reset(Castle, Action, Player)} auf dieser Karte weitergesucht werden kann
+     */
+    public boolean isOnMap(GameMap gameMap) {
+        return this.gameMap == gameMap;
+    }
+
     @Override
     protected double getValue(Edge<Castle> edge) {
         Castle castleA = edge.getNodeA().getValue();
@@ -28,11 +76,20 @@ public class PathFinding extends GraphAlgorithm<Castle> {
         return castleA.distance(castleB);
     }
 
+    /**
+     * Die euklidische Distanz zur Zielburg ist nie größer als der Weg über die Kanten,
+     * da jede Kante mit der Distanz ihrer Burgen bewertet wird.
+     */
+    @Override
+    protected double getHeuristic(Node<Castle> node, Node<Castle> target) {
+        return node.getValue().distance(target.getValue());
+    }
+
     @Override
     protected boolean isPassable(Edge<Castle> edge) {
 
         // You can pass everything when tunneling
-    	if(action == MapPanel.Action.TUNNELING) {
+    	if(action == Action.TUNNELING) {
             return true;
         }
 
@@ -43,9 +100,9 @@ public class PathFinding extends GraphAlgorithm<Castle> {
         if(castleA.getOwner().getTeam() != currentPlayer.getTeam() && castleB.getOwner().getTeam() != currentPlayer.getTeam())
             return false;
 
-        if(action == MapPanel.Action.ATTACKING) {
+        if(action == Action.ATTACKING) {
             return castleA.getOwner() != null && castleB.getOwner() != null;
-        } else if(action == MapPanel.Action.MOVING) {
+        } else if(action == Action.MOVING) {
 
             // One of the regions may be empty
             if(castleA.getOwner() == null || castleB.getOwner() == null)
@@ -62,7 +119,7 @@ public class PathFinding extends GraphAlgorithm<Castle> {
     @Override
     protected boolean isPassable(Node<Castle> node) {
     	// You can pass everything when tunneling
-        if(action == MapPanel.Action.TUNNELING) {
+        if(action == Action.TUNNELING) {
             return true;
         }
         return node.getValue().getOwner().getTeam() == currentPlayer.getTeam();
@@ -71,4 +128,27 @@ public class PathFinding extends GraphAlgorithm<Castle> {
     public List<Edge<Castle>> getPath(Castle targetCastle) {
         return this.getPath(getGraph().getNode(targetCastle));
     }
+
+    /**
+     * Sucht zielgerichtet den kürzesten Pfad zur angegebenen Burg, siehe {@link #run(Node)}.
+     * Dabei werden nur so viele Burgen betrachtet wie nötig.
+     * @param targetCastle die Zielburg
+     * @return eine Liste von Kanten oder null, falls kein Pfad existiert
+     */
+    public List<Edge<Castle>> findPath(Castle targetCastle) {
+        Node<Castle> targetNode = getGraph().getNode(targetCastle);
+        this.run(targetNode);
+        return this.getPath(targetNode);
+    }
+
+    /**
+     * Prüft wie {@link #findPath(Castle)}, ob die angegebene Burg erreichbar ist, erzeugt dabei aber keine Liste
+     * @param targetCastle die Zielburg
+     * @return true, wenn ein Pfad existiert
+     */
+    public boolean isReachable(Castle targetCastle) {
+        Node<Castle> targetNode = getGraph().getNode(targetCastle);
+        this.run(targetNode);
+        return this.hasPath(targetNode);
+    }
 }
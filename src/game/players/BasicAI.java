@@ -11,7 +11,6 @@ import base.Node;
 import game.AI;
 import game.Game;
 import game.map.Castle;
-import gui.AttackThread;
 
 public class BasicAI extends AI {
 
@@ -111,12 +110,7 @@ public class BasicAI extends AI {
                         }
 
                         if (otherCastle.getOwner().getTeam() != this.getTeam() && attackingTroops >= otherCastle.getTroopCount()) {
-                    		AttackThread attackThread = game.startAttack(castle, otherCastle, attackingTroops);
-                            if(fastForward)
-                                attackThread.fastForward();
-
-                            attackThread.join();
-                            attackWon = attackThread.getWinner() == this;
+                            attackWon = attackCastle(game, castle, otherCastle, attackingTroops) == this;
                             break;
                         }
                     }
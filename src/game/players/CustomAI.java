@@ -10,14 +10,13 @@ import java.util.List;
 import base.Graph;
 import base.Node;
 import game.AI;
+import game.Action;
 import game.Game;
 import game.Player;
 import game.map.Castle;
 import game.map.GameMap;
 import game.map.Kingdom;
-import game.map.PathFinding;
-import gui.AttackThread;
-import gui.components.MapPanel.Action;
+import game.map.PathCache;
 
 public class CustomAI extends AI {
 	
@@ -140,18 +139,9 @@ public class CustomAI extends AI {
 		for (Castle attackingCastle : attackingCastles) {
 			
 			for (Kingdom nextBestKingdom : targetKingdoms) {
-				AttackThread attack = attackKingdom(attackingCastle, nextBestKingdom);
-				
-				if (attack == null) {
-					continue;
-				}
-				
-				if (fastForward) {
-					attack.fastForward();
+				if (attackKingdom(attackingCastle, nextBestKingdom)) {
+					break;
 				}
-
-                attack.join();
-                break;
 			}
 		}
 	}
@@ -160,14 +150,12 @@ public class CustomAI extends AI {
 	 * Versucht, die schwächste Burg aus dem Königreich opponent anzugreifen.
 	 * @param source die Burg, von der aus angegriffen werden soll
 	 * @param opponent das Königreich, das angegriffen werden soll
-	 * @return einen AttackThread zu dem ausgeführten Angriff oder null, falls das Königreich nicht angegriffen werden konnte
+	 * @return true, wenn angegriffen wurde, oder false, falls das Königreich nicht angegriffen werden konnte
+	 * @throws InterruptedException
 	 */
-	private AttackThread attackKingdom(Castle source, Kingdom opponent) {
+	private boolean attackKingdom(Castle source, Kingdom opponent) throws InterruptedException {
 		GameMap gameMap = game.getMap();
-		Graph<Castle> graph = gameMap.getGraph();
-		
-		PathFinding pathFinding = new PathFinding(graph, source, Action.ATTACKING, this);
-		pathFinding.run();
+		PathCache pathCache = gameMap.getPathCache();
 		
 		LinkedList<Castle> reachableOpponents = new LinkedList<>();
 		
@@ -176,13 +164,13 @@ public class CustomAI extends AI {
 				continue;
 			}
 			
-			if (pathFinding.getPath(possibleOpponentCastle) != null) {
+			if (pathCache.isReachable(source, possibleOpponentCastle, Action.ATTACKING, this)) {
 				reachableOpponents.add(possibleOpponentCastle);
 			}
 		}
 		
 		if (reachableOpponents.isEmpty()) {
-			return null;
+			return false;
 		}
 		
 		int attackingTroops = source.getTroopCount();
@@ -191,7 +179,7 @@ public class CustomAI extends AI {
 			attackingTroops -= 3;
 		}
 		
-		return game.startAttack(source, getWeakestCastle(reachableOpponents), attackingTroops);
+		return attackCastle(game, source, getWeakestCastle(reachableOpponents), attackingTroops) != null;
 	}
 	
 	/**
@@ -275,25 +263,7 @@ public class CustomAI extends AI {
 			
 			@Override
 			public int compare(Kingdom kingdom1, Kingdom kingdom2) {
-				List<Castle> kingdom1Castles = kingdom1.getCastles();
-				List<Castle> kingdom2Castles = kingdom2.getCastles();
-				
-				LinkedList<Castle> kingdom1MissingCastles = new LinkedList<>();
-				LinkedList<Castle> kingdom2MissingCastles = new LinkedList<>();
-				
-				for (Castle kingdom1Castle : kingdom1Castles) {
-					if (kingdom1Castle.getOwner() != thisAI) {
-						kingdom1MissingCastles.add(kingdom1Castle);
-					}
-				}
-				
-				for (Castle kingdom2Castle : kingdom2Castles) {
-					if (kingdom2Castle.getOwner() != thisAI) {
-						kingdom2MissingCastles.add(kingdom2Castle);
-					}
-				}
-				
-				return Integer.compare(kingdom1MissingCastles.size(), kingdom2MissingCastles.size());
+				return Integer.compare(kingdom1.getMissingCastles(thisAI), kingdom2.getMissingCastles(thisAI));
 			}
 		});
 		
@@ -369,15 +339,17 @@ public class CustomAI extends AI {
 	 * @return alle Burgen zur gegnerischen Grenze
 	 */
 	private Collection<Castle> getBorderCastles() {
-		List<Castle> ownedCastles = this.getCastles(game);
-		LinkedList<Castle> borderCastles = new LinkedList<>();
+		List<Castle> borderCastles = new ArrayList<>();
 		
-		for (Castle castle : ownedCastles) {
-			if (castle.isBorderCastle(game.getMap())) {
+		// Die Grenzburgen des Teams enthalten auch die der Teamkollegen
+		for (Castle castle : game.getMap().getBorderCastles(getTeam())) {
+			if (castle.getOwner() == this) {
 				borderCastles.add(castle);
 			}
 		}
 		
+		// Die Menge hat keine feste Reihenfolge, bei gleich schwachen Burgen wird wie bisher die erste der Karte gewählt
+		borderCastles.sort(Comparator.comparingInt(Castle::getIndex));
 		return borderCastles;
 	}
 	
@@ -414,7 +386,7 @@ public class CustomAI extends AI {
 			
 			Node<Castle> castleNode = graph.getNode(castle);
 			Node<Castle> strongestNode = graph.getNode(strongestCastle);
-			if (graph.getEdges(castleNode).size() < graph.getEdges(strongestNode).size()) {
+			if (graph.getDegree(castleNode) < graph.getDegree(strongestNode)) {
 				strongestCastle = castle;
 			}
 		}
@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.LinkedList;
 
 import game.Game;
-import game.GameConstants;
 import game.Joker;
 import game.jokers.TroopbonusJoker;
 
@@ -28,7 +27,7 @@ public class JokerAI extends CustomAI {
 	 * @param game Das aktuelle Spiel
 	 */
 	private void useJokers(Game game) {
-		Collection<Joker> usableJokers = getUsableJokers();
+		Collection<Joker> usableJokers = getUsableJokers(game);
 		
 		for (Joker joker : usableJokers) {
 			possiblyUseTroopbonus(joker, game);
@@ -51,18 +50,19 @@ public class JokerAI extends CustomAI {
 			return;
 		}
 		
-		joker.invoke();
+		game.invokeJoker(joker);
 		game.logIfPossible(joker.getLogMessage(), this);
 	}
 	
 	/**
 	 * Bildet eine Liste aus allen aktuell verfügbaren Jokern
+	 * @param game Das aktuelle Spiel
 	 * @return alle aktuell verfügbaren Joker
 	 */
-	private Collection<Joker> getUsableJokers() {
+	private Collection<Joker> getUsableJokers(Game game) {
 		LinkedList<Joker> usableJokers = new LinkedList<>();
 		
-		for (Joker joker : GameConstants.JOKERS) {
+		for (Joker joker : game.getJokers()) {
 			if (joker.isUsable()) {
 				usableJokers.add(joker);
 			}
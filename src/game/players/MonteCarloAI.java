@@ -0,0 +1,167 @@
+package game.players;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import base.Edge;
+import base.Graph;
+import base.Node;
+import game.AI;
+import game.Game;
+import game.map.Castle;
+import game.map.Kingdom;
+import game.search.MonteCarloTreeSearch;
+import game.search.SearchState;
+import game.search.TranspositionTable;
+
+/**
+ * Eine KI, die jede Entscheidung ihres Zuges mit einer {@link MonteCarloTreeSearch} trifft.
+ * Vor jeder Entscheidung wird der aktuelle Stand des Spiels eingelesen, damit die echten Ergebnisse der Angriffe einfließen.
+ * Die Spielstärke wächst mit der Anzahl der Iterationen, siehe {@link #getSearch()}.
+ * Die Bewertungen erreichter Zustände werden über alle Entscheidungen des Spiels in einer {@link TranspositionTable} gesammelt.
+ *
+ * Jede Suche erhält einen Teil der verbleibenden Zeit des Zuges, damit auch die späteren Entscheidungen noch Zeit haben.
+ * Ist die Zeit des Zuges abgelaufen oder wird der Zug vorgespult, endet jede Suche mit dem bis dahin besten Zug.
+ * Es werden dann keine weiteren Angriffe begonnen, nur noch die Truppen gesetzt und verschoben.
+ *
+ * In der ersten Runde werden die Burgen ohne Suche gewählt, bevorzugt in kleinen Königreichen und neben eigenen Burgen.
+ */
+public class MonteCarloAI extends AI {
+
+    private static final int TRANSPOSITION_TABLE_SIZE = 1 << 16;
+
+    // Jede Entscheidung darf höchstens diesen Teil der verbleibenden Zeit des Zuges verbrauchen
+    private static final int DECISION_SHARE = 4;
+
+    private final MonteCarloTreeSearch search;
+    private final SplittableRandom random;
+
+    public MonteCarloAI(String name, Color color) {
+        super(name, color);
+        this.search = new MonteCarloTreeSearch();
+        this.search.setTranspositionTable(new TranspositionTable(TRANSPOSITION_TABLE_SIZE));
+        this.random = new SplittableRandom(getRandom().nextLong());
+    }
+
+    /**
+     * Gibt die Suche zurück, über die Iterationen und Zeit pro Entscheidung eingestellt werden können
+     * @return die Suche
+     */
+    public MonteCarloTreeSearch getSearch() {
+        return this.search;
+    }
+
+    @Override
+    protected void actions(Game game) throws InterruptedException {
+        if(game.getRound() == 1) {
+            chooseCastles(game);
+            return;
+        }
+
+        List<Castle> castles = game.getMap().getCastles();
+        int phase = getRemainingTroops() > 0 ? SearchState.PHASE_PLACE : SearchState.PHASE_ATTACK;
+
+        // Jede Entscheidung verbraucht Truppen oder beendet eine Phase, die Grenze schützt nur vor Fehlern
+        for(int decisions = 0; decisions < castles.size() * 4 && !game.isOver(); decisions++) {
+            if(phase == SearchState.PHASE_ATTACK && shouldStop())
+                phase = SearchState.PHASE_MOVE;
+
+            SearchState state = SearchState.of(game);
+            state.setPhase(phase);
+            long remaining = getRemainingTime();
+            long deadline = remaining == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + remaining / DECISION_SHARE * 1_000_000;
+            int move = search.search(state, random, () -> shouldStop() || System.nanoTime() >= deadline);
+
+            Castle source = castles.get(SearchState.getSource(move));
+            Castle target = castles.get(SearchState.getTarget(move));
+            switch(SearchState.getType(move)) {
+                case SearchState.PLACE:
+                    sleep(500);
+                    game.addTroops(this, source, getRemainingTroops());
+                    phase = SearchState.PHASE_ATTACK;
+                    break;
+
+                case SearchState.ATTACK:
+                    if(attackCastle(game, source, target, state.getAvailableTroops(source.getIndex())) == null)
+                        phase = SearchState.PHASE_MOVE;
+                    break;
+
+                case SearchState.END_ATTACKS:
+                    phase = SearchState.PHASE_MOVE;
+                    break;
+
+                case SearchState.MOVE:
+                    sleep(500);
+                    moveReserves(game, target);
+                    return;
+
+                default:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Verschiebt alle Truppen aus Burgen, die an keinen Gegner grenzen, in die angegebene Burg, wie {@link SearchState#MOVE}
+     */
+    private void moveReserves(Game game, Castle target) {
+        for(Castle castle : getCastles(game)) {
+            if(castle != target && !castle.isFlagCastle() && castle.getTroopCount() > 1 && !castle.isBorderCastle(game.getMap()))
+                game.moveTroops(castle, target, castle.getTroopCount() - 1);
+        }
+    }
+
+    /**
+     * Wählt freie Burgen, solange Truppen übrig sind. Bevorzugt werden Burgen in Königreichen, in denen am wenigsten fehlt,
+     * danach Burgen mit vielen eigenen Nachbarn. Bei Capture the Flag wird die Flagge in die Burg mit den wenigsten Verbindungen gesetzt.
+     */
+    private void chooseCastles(Game game) throws InterruptedException {
+        Graph<Castle> graph = game.getMap().getGraph();
+
+        while(getRemainingTroops() > 0 && !game.allCastlesChosen()) {
+            sleep(1000);
+
+            List<Castle> freeCastles = new ArrayList<>();
+            for(Castle castle : game.getMap().getCastles()) {
+                if(castle.getOwner() == null)
+                    freeCastles.add(castle);
+            }
+
+            freeCastles.sort(Comparator.comparingInt((Castle castle) -> getMissingCastles(castle.getKingdom()))
+                .thenComparing(Comparator.comparingInt((Castle castle) -> countOwnNeighbours(graph, castle)).reversed()));
+            game.chooseCastle(freeCastles.get(0), this);
+        }
+
+        // Für den Capture the Flag-Modus
+        if(getRemainingTroops() > 0 && game.allCastlesChosen() && getFlagCastle() == null) {
+            sleep(1000);
+
+            Castle flagCastle = null;
+            for(Castle castle : getCastles(game)) {
+                if(flagCastle == null || graph.getDegree(graph.getNode(castle)) < graph.getDegree(graph.getNode(flagCastle)))
+                    flagCastle = castle;
+            }
+
+            if(flagCastle != null)
+                game.chooseCastle(flagCastle, this);
+        }
+    }
+
+    private int getMissingCastles(Kingdom kingdom) {
+        return kingdom == null ? Integer.MAX_VALUE : kingdom.getMissingCastles(this);
+    }
+
+    private int countOwnNeighbours(Graph<Castle> graph, Castle castle) {
+        Node<Castle> node = graph.getNode(castle);
+        int count = 0;
+        for(Edge<Castle> edge : graph.getEdges(node)) {
+            if(edge.getOtherNode(node).getValue().getOwner() == this)
+                count++;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,321 @@
+package game.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game.Game;
+import game.GameConstants;
+import game.Joker;
+import game.Player;
+import game.goals.RoundGoal;
+import game.map.Castle;
+
+/**
+ * Zeichnet ein Spiel als kompaktes, binäres Ereignisprotokoll auf, das nur angehängt wird.
+ *
+ * Am Anfang stehen der Startwert der Karte, die Kartengröße, das Spielziel und die Spieler. Da die Karte und die Reihenfolge
+ * der Spieler allein aus dem Startwert erzeugt werden, müssen sie nicht gespeichert werden, siehe {@link Game#setSeed(long)}.
+ * Danach folgt jede von außen ausgelöste Änderung am Spiel ({@link Game#chooseCastle}, {@link Game#addTroops}, {@link Game#moveTroops},
+ * Angriffe, {@link Game#addEdge}, eingesetzte und zurückerhaltene Joker und beendete Züge) sowie jeder Wurf der Würfel.
+ * Burgen, Spieler und Joker werden über ihre Position in den Listen des Spiels referenziert.
+ *
+ * Mit {@link GameReplay} kann das Spiel ohne Anzeige wiederhergestellt werden.
+ */
+public class GameRecorder {
+
+    /**
+     * Der Dateiname, unter dem das Menü ein aufgezeichnetes Spiel speichert
+     */
+    public static final String LAST_GAME_FILE = "lastgame.replay";
+
+    static final int MAGIC = 0x42475256;
+    static final int VERSION = 1;
+
+    static final byte CHOOSE_CASTLE = 1;
+    static final byte ADD_TROOPS = 2;
+    static final byte MOVE_TROOPS = 3;
+    static final byte ATTACK = 4;
+    static final byte ROLL = 5;
+    static final byte ADD_EDGE = 6;
+    static final byte JOKER = 7;
+    static final byte NEXT_TURN = 8;
+    static final byte GRANT_JOKER = 9;
+
+    private final ByteArrayOutputStream buffer;
+    private final DataOutputStream out;
+    private Game game;
+    private Map<Castle, Integer> castleIndices;
+    private int eventCount;
+    private final File file;
+
+    /**
+     * Erzeugt einen Rekorder, der das Protokoll nur im Speicher hält, siehe {@link #toByteArray()}
+     */
+    public GameRecorder() {
+        this(null);
+    }
+
+    /**
+     * Erzeugt einen Rekorder, der das Protokoll am Ende des Spiels in einer Datei speichert
+     * @param file die Datei, die dabei überschrieben wird, oder null, um nicht zu speichern
+     */
+    public GameRecorder(File file) {
+        this.buffer = new ByteArrayOutputStream();
+        this.out = new DataOutputStream(buffer);
+        this.eventCount = 0;
+        this.file = file;
+    }
+
+    /**
+     * Schreibt den Kopf des Protokolls. Wird von {@link Game#start(game.GameInterface)} aufgerufen, nachdem die Karte erzeugt wurde.
+     * @param game das Spiel
+     */
+    public synchronized void onGameStarted(Game game) {
+        if(this.game != null)
+            throw new IllegalArgumentException("Der Rekorder zeichnet bereits ein Spiel auf");
+
+        this.game = game;
+        this.castleIndices = new IdentityHashMap<>();
+        List<Castle> castles = game.getMap().getCastles();
+        for(int i = 0; i < castles.size(); i++)
+            castleIndices.put(castles.get(i), i);
+
+        write(() -> {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(game.getSeed());
+            out.writeByte(game.getMapSize().ordinal());
+            out.writeByte(getGoalIndex(game));
+            out.writeInt(game.getGoal() instanceof RoundGoal ? ((RoundGoal) game.getGoal()).getMaxRounds() : 0);
+
+            List<Player> players = game.getPlayers();
+            out.writeByte(players.size());
+            for(Player player : players) {
+                out.writeUTF(player.getClass().getName());
+                out.writeUTF(player.getName());
+                out.writeInt(player.getColor().getRGB());
+                out.writeByte(getTeamIndex(players, player));
+            }
+        });
+    }
+
+    public synchronized void onChooseCastle(Castle castle, Player player) {
+        write(() -> {
+            out.writeByte(CHOOSE_CASTLE);
+            out.writeShort(castleIndex(castle));
+            out.writeByte(playerIndex(player));
+        });
+        eventCount++;
+    }
+
+    public synchronized void onAddTroops(Player player, Castle castle, int count) {
+        write(() -> {
+            out.writeByte(ADD_TROOPS);
+            out.writeByte(playerIndex(player));
+            out.writeShort(castleIndex(castle));
+            out.writeInt(count);
+        });
+        eventCount++;
+    }
+
+    public synchronized void onMoveTroops(Castle source, Castle destination, int troopCount) {
+        write(() -> {
+            out.writeByte(MOVE_TROOPS);
+            out.writeShort(castleIndex(source));
+            out.writeShort(castleIndex(destination));
+            out.writeInt(troopCount);
+        });
+        eventCount++;
+    }
+
+    /**
+     * Zeichnet einen Angriff oder eine Konvertierung auf. Die Würfe des Angriffs folgen als eigene Ereignisse.
+     * @param source die angreifende Burg
+     * @param target die angegriffene Burg
+     * @param troopCount die Anzahl der angreifenden Truppen
+     */
+    public synchronized void onAttack(Castle source, Castle target, int troopCount) {
+        write(() -> {
+            out.writeByte(ATTACK);
+            out.writeShort(castleIndex(source));
+            out.writeShort(castleIndex(target));
+            out.writeInt(troopCount);
+        });
+        eventCount++;
+    }
+
+    public synchronized void onRoll(Player player, int[] roll) {
+        write(() -> {
+            out.writeByte(ROLL);
+            out.writeByte(playerIndex(player));
+            out.writeByte(roll.length);
+            for(int value : roll)
+                out.writeByte(value);
+        });
+        eventCount++;
+    }
+
+    public synchronized void onAddEdge(Castle castleA, Castle castleB) {
+        write(() -> {
+            out.writeByte(ADD_EDGE);
+            out.writeShort(castleIndex(castleA));
+            out.writeShort(castleIndex(castleB));
+        });
+        eventCount++;
+    }
+
+    /**
+     * Zeichnet den Einsatz eines Jokers durch den aktuellen Spieler auf, einschließlich des ausgewählten Gegners
+     * @param joker der eingesetzte Joker
+     */
+    public synchronized void onJoker(Joker joker) {
+        Player target = joker.getLastTarget();
+        write(() -> {
+            out.writeByte(JOKER);
+            out.writeByte(jokerIndex(joker));
+            out.writeByte(target == null ? -1 : playerIndex(target));
+        });
+        eventCount++;
+    }
+
+    /**
+     * Zeichnet auf, dass ein Spieler eine Nutzung eines Jokers zurückerhalten hat, z.B. bei einem abgebrochenen Tunnel
+     * @param joker der Joker
+     * @param player der Spieler
+     */
+    public synchronized void onGrantJoker(Joker joker, Player player) {
+        write(() -> {
+            out.writeByte(GRANT_JOKER);
+            out.writeByte(jokerIndex(joker));
+            out.writeByte(playerIndex(player));
+        });
+        eventCount++;
+    }
+
+    public synchronized void onNextTurn() {
+        write(() -> out.writeByte(NEXT_TURN));
+        eventCount++;
+    }
+
+    /**
+     * Wird von {@link Game} aufgerufen, sobald das Spiel endet, egal ob durch das Spielziel oder weil kein Spieler mehr übrig ist.
+     * Wurde bei der Erzeugung eine Datei angegeben, wird das Protokoll darin gespeichert.
+     */
+    public void onGameOver() {
+        if(file == null)
+            return;
+
+        try {
+            save(file);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der bisher aufgezeichneten Ereignisse zurück
+     * @return die Anzahl der Ereignisse
+     */
+    public synchronized int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gibt eine Kopie des bisherigen Protokolls zurück
+     * @return das Protokoll
+     */
+    public synchronized byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Schreibt das bisherige Protokoll in einen Stream
+     * @param stream der Ziel-Stream
+     * @throws IOException falls nicht geschrieben werden konnte
+     */
+    public synchronized void writeTo(OutputStream stream) throws IOException {
+        buffer.writeTo(stream);
+    }
+
+    /**
+     * Speichert das bisherige Protokoll in einer Datei
+     * @param file die Datei
+     * @throws IOException falls nicht geschrieben werden konnte
+     */
+    public void save(File file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            writeTo(stream);
+        }
+    }
+
+    /**
+     * Ein Schreibvorgang in das Protokoll
+     */
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * Führt einen Schreibvorgang aus. Da in einen Puffer im Speicher geschrieben wird, tritt hier keine IOException auf.
+     */
+    private void write(Write write) {
+        try {
+            write.run();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int castleIndex(Castle castle) {
+        Integer index = castleIndices.get(castle);
+        if(index == null)
+            throw new IllegalArgumentException("Die Burg gehört nicht zu diesem Spiel: " + castle.getName());
+
+        return index;
+    }
+
+    private int jokerIndex(Joker joker) {
+        Joker[] jokers = game.getJokers();
+        for(int i = 0; i < jokers.length; i++) {
+            if(jokers[i] == joker)
+                return i;
+        }
+
+        throw new IllegalArgumentException("Der Joker gehört nicht zu diesem Spiel");
+    }
+
+    private int playerIndex(Player player) {
+        int index = game.getPlayers().indexOf(player);
+        if(index < 0)
+            throw new IllegalArgumentException("Der Spieler gehört nicht zu diesem Spiel: " + player.getName());
+
+        return index;
+    }
+
+    private static int getGoalIndex(Game game) {
+        for(int i = 0; i < GameConstants.GAME_GOALS.length; i++) {
+            if(GameConstants.GAME_GOALS[i].getClass() == game.getGoal().getClass())
+                return i;
+        }
+
+        throw new IllegalArgumentException("Unbekanntes Spielziel: " + game.getGoal().getName());
+    }
+
+    // Spieler desselben Teams erhalten denselben Index, nämlich den des ersten Teammitglieds
+    private static int getTeamIndex(List<Player> players, Player player) {
+        for(int i = 0; i < players.size(); i++) {
+            if(players.get(i).getTeam() == player.getTeam())
+                return i;
+        }
+
+        return players.indexOf(player);
+    }
+}
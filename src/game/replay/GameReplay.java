@@ -0,0 +1,264 @@
+package game.replay;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import game.Game;
+import game.GameConstants;
+import game.Goal;
+import game.HeadlessGameInterface;
+import game.Joker;
+import game.Player;
+import game.Team;
+import game.goals.RoundGoal;
+import game.map.Castle;
+import game.map.MapSize;
+import game.players.Human;
+
+/**
+ * Stellt ein mit {@link GameRecorder} aufgezeichnetes Spiel ohne Anzeige wieder her.
+ *
+ * Die Karte wird aus dem aufgezeichneten Startwert neu erzeugt, die Spieler werden durch {@link Human}-Spieler ersetzt,
+ * damit keine KI eigene Entscheidungen trifft. Anschließend werden die aufgezeichneten Ereignisse über dieselben Methoden
+ * von {@link Game} ausgeführt, gewürfelt wird mit den aufgezeichneten Würfen. Angriffe werden ohne Wartezeiten berechnet,
+ * siehe {@link Game#resolveAttack(Castle, Castle, int)}.
+ *
+ * Aufruf: java game.replay.GameReplay [Datei] [Zug]
+ */
+public class GameReplay {
+
+    private final DataInputStream in;
+    private final Game game;
+    private final String[] recordedPlayerTypes;
+    private List<Castle> castles;
+    private int turn;
+
+    /**
+     * Liest den Kopf eines Protokolls und startet das Spiel. Es wird noch kein Ereignis ausgeführt.
+     * @param log das Protokoll
+     * @throws IOException falls das Protokoll nicht gelesen werden kann
+     */
+    public GameReplay(byte[] log) throws IOException {
+        this.in = new DataInputStream(new ByteArrayInputStream(log));
+        this.turn = 0;
+
+        if(in.readInt() != GameRecorder.MAGIC || in.readUnsignedByte() != GameRecorder.VERSION)
+            throw new IllegalArgumentException("Keine gültige Aufzeichnung");
+
+        long seed = in.readLong();
+        MapSize mapSize = MapSize.values()[in.readUnsignedByte()];
+        int goalIndex = in.readUnsignedByte();
+        int maxRounds = in.readInt();
+
+        Goal goal = GameConstants.createGoal(goalIndex);
+        if(goal instanceof RoundGoal)
+            goal = new RoundGoal(maxRounds);
+
+        int playerCount = in.readUnsignedByte();
+        this.recordedPlayerTypes = new String[playerCount];
+        Team[] teams = new Team[playerCount];
+
+        this.game = new Game();
+        for(int i = 0; i < playerCount; i++) {
+            recordedPlayerTypes[i] = in.readUTF();
+            String name = in.readUTF();
+            Color color = new Color(in.readInt(), true);
+            int teamIndex = in.readUnsignedByte();
+
+            if(teams[teamIndex] == null)
+                teams[teamIndex] = new Team();
+
+            Player player = new Human(name, color);
+            player.setTeam(teams[teamIndex]);
+            game.addPlayer(player);
+        }
+
+        game.setSeed(seed);
+        game.setMapSize(mapSize);
+        game.setGoal(goal);
+        game.start(new HeadlessGameInterface(this::readRoll));
+        this.castles = game.getMap().getCastles();
+    }
+
+    /**
+     * Lädt ein Protokoll aus einer Datei, siehe {@link #GameReplay(byte[])}
+     * @param path der Pfad der Datei
+     * @return die Wiederholung
+     * @throws IOException falls die Datei nicht gelesen werden kann
+     */
+    public static GameReplay load(String path) throws IOException {
+        return new GameReplay(Files.readAllBytes(Paths.get(path)));
+    }
+
+    public Game getGame() {
+        return this.game;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher wiederholten, von Spielern beendeten Züge zurück
+     * @return die Anzahl der Züge
+     */
+    public int getTurn() {
+        return this.turn;
+    }
+
+    /**
+     * Gibt die Klassennamen der Spieler bei der Aufzeichnung zurück, in der Reihenfolge von {@link Game#getPlayers()}
+     * @return die Klassennamen der aufgezeichneten Spieler
+     */
+    public String[] getRecordedPlayerTypes() {
+        return this.recordedPlayerTypes;
+    }
+
+    /**
+     * Prüft, ob noch Ereignisse vorhanden sind
+     * @return true, wenn das Protokoll noch nicht vollständig wiederholt wurde
+     */
+    public boolean hasNext() {
+        try {
+            return in.available() > 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Führt das nächste Ereignis aus
+     * @throws IOException falls das Protokoll nicht gelesen werden kann
+     */
+    public void step() throws IOException {
+        int type = in.readByte();
+        switch(type) {
+            case GameRecorder.CHOOSE_CASTLE: {
+                Castle castle = readCastle();
+                game.chooseCastle(castle, readPlayer());
+                break;
+            }
+            case GameRecorder.ADD_TROOPS: {
+                Player player = readPlayer();
+                Castle castle = readCastle();
+                game.addTroops(player, castle, in.readInt());
+                break;
+            }
+            case GameRecorder.MOVE_TROOPS: {
+                Castle source = readCastle();
+                Castle destination = readCastle();
+                game.moveTroops(source, destination, in.readInt());
+                break;
+            }
+            case GameRecorder.ATTACK: {
+                Castle source = readCastle();
+                Castle target = readCastle();
+                game.resolveAttack(source, target, in.readInt());
+                break;
+            }
+            case GameRecorder.ADD_EDGE: {
+                Castle castleA = readCastle();
+                game.addEdge(castleA, readCastle());
+                break;
+            }
+            case GameRecorder.JOKER: {
+                Joker joker = game.getJokers()[in.readUnsignedByte()];
+                int target = in.readByte();
+                // isUsable legt auch die verbleibenden Einsätze des Spielers an und muss wie im Spiel zutreffen
+                if(!joker.isUsable())
+                    throw new IllegalStateException("Die Aufzeichnung passt nicht zum wiederholten Spiel: " + joker.getName() + " ist nicht einsetzbar");
+
+                joker.replay(target < 0 ? null : game.getPlayers().get(target));
+                break;
+            }
+            case GameRecorder.GRANT_JOKER: {
+                Joker joker = game.getJokers()[in.readUnsignedByte()];
+                game.grantJokerInvocation(joker, readPlayer());
+                break;
+            }
+            case GameRecorder.NEXT_TURN:
+                turn++;
+                game.nextTurn();
+                break;
+            default:
+                throw new IllegalStateException("Unerwartetes Ereignis in der Aufzeichnung: " + type);
+        }
+    }
+
+    /**
+     * Wiederholt alle Ereignisse, bis die angegebene Anzahl von Zügen beendet wurde oder das Protokoll zu Ende ist
+     * @param turn die Anzahl der Züge
+     * @return das Spiel im wiederhergestellten Zustand
+     * @throws IOException falls das Protokoll nicht gelesen werden kann
+     */
+    public Game replayTurns(int turn) throws IOException {
+        while(this.turn < turn && hasNext())
+            step();
+
+        return game;
+    }
+
+    /**
+     * Wiederholt alle Ereignisse des Protokolls
+     * @return das Spiel im Endzustand
+     * @throws IOException falls das Protokoll nicht gelesen werden kann
+     */
+    public Game replayAll() throws IOException {
+        while(hasNext())
+            step();
+
+        return game;
+    }
+
+    /**
+     * Liefert den nächsten aufgezeichneten Wurf. Wird während eines Angriffs als {@link game.DiceSource} aufgerufen.
+     */
+    private int[] readRoll(Player player, int dices) {
+        try {
+            if(in.readByte() != GameRecorder.ROLL || readPlayer() != player)
+                throw new IllegalStateException("Die Aufzeichnung passt nicht zum wiederholten Spiel");
+
+            int[] roll = new int[in.readUnsignedByte()];
+            for(int i = 0; i < roll.length; i++)
+                roll[i] = in.readUnsignedByte();
+
+            if(roll.length != dices)
+                throw new IllegalStateException("Die Aufzeichnung passt nicht zum wiederholten Spiel");
+
+            return roll;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Castle readCastle() throws IOException {
+        return castles.get(in.readUnsignedShort());
+    }
+
+    private Player readPlayer() throws IOException {
+        return game.getPlayers().get(in.readUnsignedByte());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.out.println("Aufruf: java game.replay.GameReplay [Datei] [Zug]");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        GameReplay replay = load(args[0]);
+        Game game = args.length > 1 ? replay.replayTurns(Integer.parseInt(args[1])) : replay.replayAll();
+
+        System.out.println(String.format("Zug %d, Runde %d, am Zug: %s (%d ms)", replay.getTurn(), game.getRound(),
+            game.getCurrentPlayer() == null ? "-" : game.getCurrentPlayer().getName(), System.currentTimeMillis() - start));
+
+        List<Player> players = game.getPlayers();
+        for(int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            System.out.println(String.format("%-20s %-30s Burgen: %3d, Truppen: %5d, Punkte: %6d", player.getName(), replay.getRecordedPlayerTypes()[i],
+                player.getNumRegions(game), player.getTotalTroopCount(game), player.getPoints()));
+        }
+    }
+}
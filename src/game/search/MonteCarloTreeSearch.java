@@ -0,0 +1,382 @@
+package game.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import game.Zobrist;
+
+/**
+ * Monte-Carlo-Baumsuche über die Entscheidungen eines Zuges: wohin die neuen Truppen gesetzt werden, welche Burgen
+ * angegriffen werden und wohin die Truppen am Ende verschoben werden, siehe {@link SearchState}.
+ *
+ * Jede Iteration kopiert den Ausgangszustand, wählt im Baum mit UCT einen Zug nach dem anderen, fügt einen neuen Knoten hinzu
+ * und spielt danach den Zug sowie einige weitere Züge aller Spieler zufällig zu Ende. Die Bewertung des erreichten Zustands
+ * aus Sicht des suchenden Spielers wird entlang des Pfades aufsummiert. Der Baum enthält nur den Zug des suchenden Spielers.
+ * Da Angriffe vom Zufall abhängen, wird der Zustand nicht im Baum gespeichert, sondern bei jeder Iteration neu ausgewürfelt.
+ *
+ * Die Suche endet nach einer festen Anzahl von Iterationen oder nach einer festen Zeit, je nachdem, was zuerst eintritt.
+ * Zusätzlich kann eine Abbruchbedingung übergeben werden, z.B. das Zeitbudget des Zuges einer KI.
+ * Die Suche liefert jederzeit den bis dahin am häufigsten besuchten Zug, mindestens nach einigen wenigen Iterationen.
+ *
+ * Mit mehreren Threads wird die Suche parallelisiert, siehe {@link Parallelism}. Der aufrufende Thread sucht selbst mit,
+ * die übrigen Threads stammen aus einem gemeinsamen Pool aller Suchen. Die Iterationen werden auf alle Threads verteilt,
+ * bei einer Zeitbegrenzung schaffen mehr Threads also entsprechend mehr Iterationen.
+ *
+ * Mit einer {@link TranspositionTable} werden die Bewertungen nach dem eigenen Zug unter dem Hash des erreichten Zustands gesammelt.
+ * Wurde ein Zustand über verschiedene Zugfolgen oder Würfelergebnisse schon oft genug erreicht,
+ * wird statt des zufälligen Weiterspielens der Mittelwert seiner bisherigen Bewertungen verwendet.
+ */
+public class MonteCarloTreeSearch {
+
+    /**
+     * Die Art, wie mehrere Threads gemeinsam suchen
+     */
+    public enum Parallelism {
+
+        /**
+         * Jeder Thread sucht in einem eigenen Baum mit eigenem Zufallsgenerator. Am Ende werden die Besuche
+         * der Züge im Wurzelknoten aller Bäume addiert. Die Threads teilen sich keine Daten.
+         */
+        ROOT,
+
+        /**
+         * Alle Threads suchen ohne Sperren im selben Baum. Jeder besuchte Knoten erhält bis zur Auswertung einen
+         * vorläufigen Besuch ohne Gewinn (virtual loss), damit die Threads nicht alle denselben Pfad wählen.
+         */
+        TREE
+    }
+
+    public static final int DEFAULT_ITERATIONS = 2000;
+    public static final long DEFAULT_TIME_LIMIT = 500;
+
+    private static final int VIRTUAL_LOSS = 1;
+
+    // So viele Iterationen laufen pro Thread, bevor Zeit und Abbruchbedingung geprüft werden
+    private static final int CHECK_INTERVAL = 16;
+
+    // Ab so vielen Bewertungen wird ein Zustand nicht mehr weitergespielt, sondern der Mittelwert verwendet
+    private static final int TRANSPOSITION_COUNT = 32;
+
+    private static ExecutorService executor;
+
+    private int iterations;
+    private long timeLimit;
+    private double exploration;
+    private int rolloutRounds;
+    private int threads;
+    private Parallelism parallelism;
+    private TranspositionTable transpositionTable;
+    private volatile int lastIterations;
+
+    public MonteCarloTreeSearch() {
+        this.iterations = DEFAULT_ITERATIONS;
+        this.timeLimit = DEFAULT_TIME_LIMIT;
+        this.exploration = Math.sqrt(2) / 2;
+        this.rolloutRounds = 4;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.parallelism = Parallelism.ROOT;
+    }
+
+    /**
+     * Legt die höchste Anzahl von Iterationen pro Suche fest
+     * @param iterations die Anzahl der Iterationen, mindestens 1
+     */
+    public void setIterations(int iterations) {
+        if(iterations < 1)
+            throw new IllegalArgumentException("Es wird mindestens eine Iteration benötigt");
+
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Legt fest, wie lange eine Suche höchstens dauern darf
+     * @param timeLimit die Zeit in Millisekunden, 0 für keine Begrenzung
+     */
+    public void setTimeLimit(long timeLimit) {
+        if(timeLimit < 0)
+            throw new IllegalArgumentException("Die Zeit darf nicht negativ sein");
+
+        this.timeLimit = timeLimit;
+    }
+
+    public long getTimeLimit() {
+        return this.timeLimit;
+    }
+
+    /**
+     * Legt fest, wie viele Runden nach dem eigenen Zug zufällig weitergespielt werden, bevor bewertet wird
+     * @param rolloutRounds die Anzahl der Runden
+     */
+    public void setRolloutRounds(int rolloutRounds) {
+        if(rolloutRounds < 0)
+            throw new IllegalArgumentException("Die Anzahl der Runden darf nicht negativ sein");
+
+        this.rolloutRounds = rolloutRounds;
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * Legt fest, mit wie vielen Threads gesucht wird. Standardmäßig wird jeder Prozessorkern genutzt.
+     * @param threads die Anzahl der Threads, mindestens 1
+     */
+    public void setThreads(int threads) {
+        if(threads < 1)
+            throw new IllegalArgumentException("Es wird mindestens ein Thread benötigt");
+
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    public void setParallelism(Parallelism parallelism) {
+        if(parallelism == null)
+            throw new IllegalArgumentException();
+
+        this.parallelism = parallelism;
+    }
+
+    public Parallelism getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Legt die Tabelle fest, in der Bewertungen zwischen Iterationen, Threads und Suchen geteilt werden.
+     * Die Bewertungen gelten nur für dieselbe Anzahl von {@link #setRolloutRounds(int) Runden}.
+     * @param transpositionTable die Tabelle oder null, um jede Bewertung einzeln zu verwenden
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    /**
+     * Gibt die Anzahl der Iterationen der letzten Suche zurück
+     * @return die Anzahl der Iterationen
+     */
+    public int getLastIterations() {
+        return this.lastIterations;
+    }
+
+    /**
+     * Sucht den besten Zug für den Spieler am Zug
+     * @param root der aktuelle Zustand, wird nicht verändert
+     * @param random der Zufallsgenerator für Würfel und Entscheidungen
+     * @return der am häufigsten besuchte Zug
+     */
+    public int search(SearchState root, SplittableRandom random) {
+        return search(root, random, () -> false);
+    }
+
+    /**
+     * Sucht den besten Zug für den Spieler am Zug, bis das Budget aufgebraucht ist oder die Abbruchbedingung zutrifft
+     * @param root der aktuelle Zustand, wird nicht verändert
+     * @param random der Zufallsgenerator für Würfel und Entscheidungen
+     * @param stop die Abbruchbedingung, wird von allen Threads regelmäßig abgefragt
+     * @return der bis dahin am häufigsten besuchte Zug
+     */
+    public int search(SearchState root, SplittableRandom random, BooleanSupplier stop) {
+        long deadline = timeLimit > 0 ? System.nanoTime() + timeLimit * 1_000_000 : Long.MAX_VALUE;
+        int threads = Math.max(1, Math.min(this.threads, iterations));
+
+        SearchNode[] trees = new SearchNode[parallelism == Parallelism.ROOT ? threads : 1];
+        for(int i = 0; i < trees.length; i++)
+            trees[i] = new SearchNode(null, 0);
+
+        if(threads == 1) {
+            lastIterations = runIterations(trees[0], root, random, new AtomicInteger(iterations), deadline, stop, 0);
+            return getBestMove(trees, root);
+        }
+
+        // Jeder Thread erhält einen eigenen Zufallsgenerator, bei ROOT zusätzlich einen eigenen Baum und Anteil der Iterationen
+        AtomicInteger sharedBudget = new AtomicInteger(iterations);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for(int i = 1; i < threads; i++) {
+            SearchNode tree = trees[parallelism == Parallelism.ROOT ? i : 0];
+            AtomicInteger budget = parallelism == Parallelism.ROOT ? new AtomicInteger(getShare(i, threads)) : sharedBudget;
+            int virtualLoss = parallelism == Parallelism.TREE ? VIRTUAL_LOSS : 0;
+            SplittableRandom threadRandom = random.split();
+            futures.add(getExecutor().submit(() -> runIterations(tree, root, threadRandom, budget, deadline, stop, virtualLoss)));
+        }
+
+        int count = parallelism == Parallelism.ROOT ?
+            runIterations(trees[0], root, random, new AtomicInteger(getShare(0, threads)), deadline, stop, 0) :
+            runIterations(trees[0], root, random, sharedBudget, deadline, stop, VIRTUAL_LOSS);
+
+        try {
+            for(Future<Integer> future : futures)
+                count += future.get();
+        } catch (InterruptedException ex) {
+            for(Future<Integer> future : futures)
+                future.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Fehler bei der parallelen Suche", ex.getCause());
+        }
+
+        lastIterations = count;
+        return getBestMove(trees, root);
+    }
+
+    private int getShare(int thread, int threads) {
+        return iterations / threads + (thread < iterations % threads ? 1 : 0);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if(executor == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "MonteCarloTreeSearch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+
+    /**
+     * Führt Iterationen auf einem Baum aus, bis das Budget aufgebraucht, die Zeit abgelaufen ist oder die Abbruchbedingung zutrifft
+     * @param budget die verbleibenden Iterationen, bei {@link Parallelism#TREE} von allen Threads geteilt
+     * @param virtualLoss die vorläufigen Besuche pro Knoten, 0 wenn nur ein Thread im Baum sucht
+     * @return die Anzahl der ausgeführten Iterationen
+     */
+    private int runIterations(SearchNode tree, SearchState root, SplittableRandom random, AtomicInteger budget, long deadline,
+                              BooleanSupplier stop, int virtualLoss) {
+        SearchState state = new SearchState(root);
+        int[] moves = new int[root.getMaxMoves()];
+        int count = 0;
+
+        while(budget.getAndDecrement() > 0) {
+            // Die Uhr wird nicht bei jeder Iteration abgefragt, die ersten Iterationen laufen immer,
+            // damit auch eine sofort abgebrochene Suche einen begründeten Zug liefert
+            if(count > 0 && count % CHECK_INTERVAL == 0 &&
+              (System.nanoTime() >= deadline || stop.getAsBoolean() || Thread.currentThread().isInterrupted()))
+                break;
+
+            state.copyFrom(root);
+            iterate(tree, state, moves, random, virtualLoss);
+            count++;
+        }
+
+        return count;
+    }
+
+    private void iterate(SearchNode tree, SearchState state, int[] moves, SplittableRandom random, int virtualLoss) {
+        int player = state.getCurrentPlayer();
+        SearchNode node = tree;
+
+        // Auswahl und Erweiterung, solange der eigene Zug andauert
+        while(!state.isOver() && state.getTurnCount() == 0) {
+            int count = state.getMoves(moves);
+
+            int untried = 0;
+            for(int i = 0; i < count; i++) {
+                if(node.getChild(moves[i]) == null)
+                    moves[untried++] = moves[i];
+            }
+
+            if(untried > 0) {
+                int move = moves[random.nextInt(untried)];
+                node = node.addChild(move);
+                node.addVirtualLoss(virtualLoss);
+                state.apply(move, random);
+                break;
+            }
+
+            node = select(node, moves, count);
+            node.addVirtualLoss(virtualLoss);
+            state.apply(node.getMove(), random);
+        }
+
+        // Zufälliges Weiterspielen, zuerst bis zum Ende des eigenen Zuges
+        if(state.getTurnCount() == 0 && !state.isOver())
+            state.playRandomTurn(random);
+
+        TranspositionTable table = this.transpositionTable;
+        // Die Bewertung erfolgt aus Sicht des suchenden Spielers, daher geht er zusätzlich in den Hash ein
+        long hash = table != null ? state.getHash() ^ Zobrist.key(Zobrist.CURRENT_PLAYER, 1, player + 1) : 0;
+
+        double result;
+        long data = table != null ? table.get(hash) : 0;
+        if(TranspositionTable.getCount(data) >= TRANSPOSITION_COUNT) {
+            result = TranspositionTable.getMean(data);
+        } else {
+            int turns = rolloutRounds * state.getPlayerCount();
+            for(int i = 0; i < turns && !state.isOver(); i++)
+                state.playRandomTurn(random);
+
+            result = state.evaluate(player);
+            if(table != null)
+                table.add(hash, (float) result);
+        }
+
+        // Die Wurzel erhält keine vorläufigen Besuche
+        for(; node != tree; node = node.getParent())
+            node.update(result, virtualLoss);
+        tree.update(result, 0);
+    }
+
+    /**
+     * Wählt unter den im aktuellen Zustand möglichen Zügen das Kind mit dem höchsten UCT-Wert
+     */
+    private SearchNode select(SearchNode node, int[] moves, int count) {
+        SearchNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < count; i++) {
+            SearchNode child = node.getChild(moves[i]);
+            double value = child.getUct(exploration);
+            if(value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Gibt den Zug zurück, der im Ausgangszustand möglich ist und in allen Bäumen zusammen am häufigsten besucht wurde
+     */
+    private int getBestMove(SearchNode[] trees, SearchState root) {
+        int[] moves = new int[root.getMaxMoves()];
+        int count = root.getMoves(moves);
+        if(count == 0)
+            return SearchState.encode(SearchState.END_TURN, 0, 0);
+
+        int best = moves[count - 1];
+        int bestVisits = -1;
+        for(int i = 0; i < count; i++) {
+            int visits = 0;
+            for(SearchNode tree : trees) {
+                SearchNode child = tree.getChild(moves[i]);
+                if(child != null)
+                    visits += child.getVisits();
+            }
+
+            if(visits > bestVisits) {
+                bestVisits = visits;
+                best = moves[i];
+            }
+        }
+
+        return best;
+    }
+}
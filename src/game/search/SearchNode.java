@@ -0,0 +1,120 @@
+package game.search;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Ein Knoten im Suchbaum von {@link MonteCarloTreeSearch}. Ein Knoten steht für die Folge von Zügen vom Wurzelknoten aus,
+ * nicht für einen festen Zustand, da die Würfel bei jeder Iteration neu geworfen werden.
+ *
+ * Mehrere Threads können ohne Sperren gleichzeitig im selben Baum suchen: Kinder werden per compareAndSet vorne
+ * in eine einfach verkettete Liste eingefügt, Besuche und Bewertungen werden atomar addiert.
+ * Die Bewertungen werden dazu als Festkommazahl gespeichert.
+ */
+final class SearchNode {
+
+    private static final double SCALE = 1 << 20;
+
+    private static final AtomicReferenceFieldUpdater<SearchNode, SearchNode> FIRST_CHILD =
+        AtomicReferenceFieldUpdater.newUpdater(SearchNode.class, SearchNode.class, "firstChild");
+    private static final AtomicIntegerFieldUpdater<SearchNode> VISITS =
+        AtomicIntegerFieldUpdater.newUpdater(SearchNode.class, "visits");
+    private static final AtomicLongFieldUpdater<SearchNode> VALUE =
+        AtomicLongFieldUpdater.newUpdater(SearchNode.class, "value");
+
+    private final SearchNode parent;
+    private final int move;
+
+    // Wird vor dem Einfügen gesetzt und danach nicht mehr verändert
+    private SearchNode nextSibling;
+    private volatile SearchNode firstChild;
+    private volatile int visits;
+    private volatile long value;
+
+    SearchNode(SearchNode parent, int move) {
+        this.parent = parent;
+        this.move = move;
+    }
+
+    SearchNode getParent() {
+        return parent;
+    }
+
+    int getMove() {
+        return move;
+    }
+
+    int getVisits() {
+        return visits;
+    }
+
+    double getValue() {
+        return value / SCALE;
+    }
+
+    SearchNode getChild(int move) {
+        return findChild(firstChild, move);
+    }
+
+    private static SearchNode findChild(SearchNode child, int move) {
+        for(; child != null; child = child.nextSibling) {
+            if(child.move == move)
+                return child;
+        }
+
+        return null;
+    }
+
+    /**
+     * Fügt ein Kind hinzu. Hat ein anderer Thread das Kind gleichzeitig eingefügt, wird dessen Kind zurückgegeben.
+     * @param move der Zug des Kindes
+     * @return das Kind für den Zug
+     */
+    SearchNode addChild(int move) {
+        SearchNode child = new SearchNode(this, move);
+        while(true) {
+            SearchNode head = firstChild;
+            SearchNode existing = findChild(head, move);
+            if(existing != null)
+                return existing;
+
+            child.nextSibling = head;
+            if(FIRST_CHILD.compareAndSet(this, head, child))
+                return child;
+        }
+    }
+
+    /**
+     * Zählt einen vorläufigen Besuch ohne Gewinn, damit andere Threads bis zur Auswertung andere Knoten bevorzugen
+     * @param virtualLoss die Anzahl der vorläufigen Besuche
+     */
+    void addVirtualLoss(int virtualLoss) {
+        if(virtualLoss > 0)
+            VISITS.addAndGet(this, virtualLoss);
+    }
+
+    /**
+     * Addiert das Ergebnis einer Iteration und nimmt die vorläufigen Besuche dieser Iteration zurück
+     * @param result die Bewertung zwischen 0 und 1
+     * @param virtualLoss die Anzahl der vorläufigen Besuche, siehe {@link #addVirtualLoss(int)}
+     */
+    void update(double result, int virtualLoss) {
+        VISITS.addAndGet(this, 1 - virtualLoss);
+        VALUE.addAndGet(this, Math.round(result * SCALE));
+    }
+
+    /**
+     * Berechnet den UCT-Wert des Knotens: mittlere Bewertung plus Erkundungsbonus für selten besuchte Knoten.
+     * Ein gerade von einem anderen Thread eingefügtes Kind ohne Besuche wird zuerst gewählt.
+     * @param exploration die Gewichtung des Erkundungsbonus
+     * @return der UCT-Wert
+     */
+    double getUct(double exploration) {
+        int visits = this.visits;
+        if(visits <= 0)
+            return Double.MAX_VALUE;
+
+        return getValue() / visits + exploration * Math.sqrt(Math.log(Math.max(1, parent.visits)) / visits);
+    }
+}
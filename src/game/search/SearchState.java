@@ -0,0 +1,820 @@
+package game.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+
+import base.CompactGraph;
+import game.DiceComparison;
+import game.Game;
+import game.GameConstants;
+import game.Player;
+import game.Team;
+import game.Zobrist;
+import game.goals.CaptureTheFlagAlternativeGoal;
+import game.goals.CaptureTheFlagStandardGoal;
+import game.goals.RoundGoal;
+import game.map.Castle;
+import game.map.CastleStore;
+import game.map.GameMap;
+import game.map.Kingdom;
+
+/**
+ * Ein schneller Simulator für ein laufendes Spiel ab der zweiten Runde, der nur auf primitiven Arrays arbeitet.
+ * Er wird von {@link MonteCarloTreeSearch} für jede Iteration kopiert und weitergespielt, ohne das echte Spiel zu verändern.
+ *
+ * Die Regeln folgen {@link Game}: Truppen zu Beginn eines Zuges, Würfelrunden wie in {@link game.Battle},
+ * Punkte wie in {@link Game#doAttack} und die Bedingungen der vier Spielziele. Joker werden nicht simuliert.
+ *
+ * Ein Zug besteht aus drei Phasen: zuerst werden alle neuen Truppen auf eine Burg gesetzt, dann wird beliebig oft angegriffen,
+ * zuletzt können alle Truppen aus dem Hinterland an eine Grenzburg verschoben werden. Jede Entscheidung ist ein Zug als int,
+ * siehe {@link #getMoves(int[])} und {@link #apply(int, SplittableRandom)}.
+ */
+public class SearchState {
+
+    /**
+     * Alle neuen Truppen auf eine Burg setzen
+     */
+    public static final int PLACE = 1;
+
+    /**
+     * Mit allen verfügbaren Truppen einer Burg eine benachbarte Burg angreifen
+     */
+    public static final int ATTACK = 2;
+
+    /**
+     * Keine weiteren Angriffe in diesem Zug
+     */
+    public static final int END_ATTACKS = 3;
+
+    /**
+     * Alle Truppen aus dem Hinterland an eine Grenzburg verschieben und den Zug beenden
+     */
+    public static final int MOVE = 4;
+
+    /**
+     * Den Zug ohne Truppenbewegung beenden
+     */
+    public static final int END_TURN = 5;
+
+    public static final int PHASE_PLACE = 0;
+    public static final int PHASE_ATTACK = 1;
+    public static final int PHASE_MOVE = 2;
+
+    static final int GOAL_CONQUER = 0;
+    static final int GOAL_ROUNDS = 1;
+    static final int GOAL_LAST_FLAG = 2;
+    static final int GOAL_ALL_FLAGS = 3;
+
+    private static final int NONE = -1;
+
+    // Unveränderlich, wird von allen Kopien geteilt
+    private final int castleCount;
+    private final int playerCount;
+    private final int kingdomCount;
+    private final CompactGraph<Castle> graph;
+    private final int[] kingdomOf;
+    private final int[] kingdomSizes;
+    private final int[] teams;
+    private final int goal;
+    private final int maxRounds;
+
+    // Zustand der Burgen: Besitzer als Index des Spielers oder NONE
+    private final byte[] owners;
+    private final int[] troops;
+    private final byte[] flagOwners;
+
+    // Zustand der Spieler
+    private final int[] remainingTroops;
+    private final int[] points;
+    private final int[] castleCounts;
+    private final int[] kingdomCounts;
+    private final boolean[] lost;
+
+    // Reihenfolge der Spieler, order[turn] ist am Zug
+    private final int[] order;
+    private int turn;
+    private int startingPlayer;
+    private int round;
+    private int phase;
+    private int turnCount;
+    private boolean over;
+
+    private final int[] attackerDice = new int[3];
+    private final int[] defenderDice = new int[2];
+
+    private SearchState(int castleCount, int playerCount, int kingdomCount, CompactGraph<Castle> graph,
+                        int[] kingdomOf, int[] kingdomSizes, int[] teams, int goal, int maxRounds) {
+        this.castleCount = castleCount;
+        this.playerCount = playerCount;
+        this.kingdomCount = kingdomCount;
+        this.graph = graph;
+        this.kingdomOf = kingdomOf;
+        this.kingdomSizes = kingdomSizes;
+        this.teams = teams;
+        this.goal = goal;
+        this.maxRounds = maxRounds;
+
+        this.owners = new byte[castleCount];
+        this.troops = new int[castleCount];
+        this.flagOwners = new byte[castleCount];
+        this.remainingTroops = new int[playerCount];
+        this.points = new int[playerCount];
+        this.castleCounts = new int[playerCount];
+        this.kingdomCounts = new int[kingdomCount * playerCount];
+        this.lost = new boolean[playerCount];
+        this.order = new int[playerCount];
+    }
+
+    /**
+     * Erzeugt eine Kopie, die die unveränderlichen Daten der Karte mit dem Original teilt
+     * @param other der zu kopierende Zustand
+     */
+    public SearchState(SearchState other) {
+        this(other.castleCount, other.playerCount, other.kingdomCount, other.graph,
+            other.kingdomOf, other.kingdomSizes, other.teams, other.goal, other.maxRounds);
+        copyFrom(other);
+    }
+
+    /**
+     * Übernimmt den Zustand eines anderen Simulators desselben Spiels, ohne Objekte zu erzeugen
+     * @param other der zu kopierende Zustand
+     */
+    public void copyFrom(SearchState other) {
+        if(other.graph != this.graph)
+            throw new IllegalArgumentException("Der Zustand gehört zu einem anderen Spiel");
+
+        System.arraycopy(other.owners, 0, owners, 0, castleCount);
+        System.arraycopy(other.troops, 0, troops, 0, castleCount);
+        System.arraycopy(other.flagOwners, 0, flagOwners, 0, castleCount);
+        System.arraycopy(other.remainingTroops, 0, remainingTroops, 0, playerCount);
+        System.arraycopy(other.points, 0, points, 0, playerCount);
+        System.arraycopy(other.castleCounts, 0, castleCounts, 0, playerCount);
+        System.arraycopy(other.kingdomCounts, 0, kingdomCounts, 0, kingdomCounts.length);
+        System.arraycopy(other.lost, 0, lost, 0, playerCount);
+        System.arraycopy(other.order, 0, order, 0, playerCount);
+        this.turn = other.turn;
+        this.startingPlayer = other.startingPlayer;
+        this.round = other.round;
+        this.phase = other.phase;
+        this.turnCount = other.turnCount;
+        this.over = other.over;
+    }
+
+    /**
+     * Liest den aktuellen Stand eines Spiels ein. Der Spieler am Zug beginnt in der Phase {@link #PHASE_PLACE},
+     * falls er noch Truppen zu verteilen hat, sonst in der Phase {@link #PHASE_ATTACK}.
+     * @param game das Spiel, mindestens in der zweiten Runde
+     * @return der Simulator
+     */
+    public static SearchState of(Game game) {
+        if(game.getRound() < 2)
+            throw new IllegalArgumentException("Die Suche beginnt erst nach der Wahl der Burgen");
+
+        GameMap map = game.getMap();
+        CompactGraph<Castle> graph = map.getCompactGraph();
+        List<Castle> castles = map.getCastles();
+        List<Player> players = game.getPlayers();
+        List<Kingdom> kingdoms = map.getKingdoms();
+        int castleCount = castles.size();
+        int playerCount = players.size();
+
+        // Die Kanten werden aus der zwischengespeicherten Darstellung der Karte gelesen, die Id eines Knotens muss daher die Stelle seiner Burg sein
+        if(graph.getNodeCount() != castleCount)
+            throw new IllegalArgumentException("Die Burgen stehen nicht in der Reihenfolge ihres Speichers");
+
+        for(int i = 0; i < castleCount; i++) {
+            if(castles.get(i).getIndex() != i || graph.getNode(i).getValue() != castles.get(i))
+                throw new IllegalArgumentException("Die Burgen stehen nicht in der Reihenfolge ihres Speichers");
+        }
+
+        int[] kingdomOf = new int[castleCount];
+        int[] kingdomSizes = new int[kingdoms.size()];
+        for(int i = 0; i < castleCount; i++) {
+            kingdomOf[i] = kingdoms.indexOf(castles.get(i).getKingdom());
+            if(kingdomOf[i] != NONE)
+                kingdomSizes[kingdomOf[i]]++;
+        }
+
+        List<Team> teamList = new ArrayList<>();
+        int[] teams = new int[playerCount];
+        for(int i = 0; i < playerCount; i++) {
+            Team team = players.get(i).getTeam();
+            if(!teamList.contains(team))
+                teamList.add(team);
+            teams[i] = teamList.indexOf(team);
+        }
+
+        int goal, maxRounds = 0;
+        if(game.getGoal() instanceof RoundGoal) {
+            goal = GOAL_ROUNDS;
+            maxRounds = ((RoundGoal) game.getGoal()).getMaxRounds();
+        } else if(game.getGoal() instanceof CaptureTheFlagStandardGoal) {
+            goal = GOAL_LAST_FLAG;
+        } else if(game.getGoal() instanceof CaptureTheFlagAlternativeGoal) {
+            goal = GOAL_ALL_FLAGS;
+        } else {
+            goal = GOAL_CONQUER;
+        }
+
+        SearchState state = new SearchState(castleCount, playerCount, kingdoms.size(), graph,
+            kingdomOf, kingdomSizes, teams, goal, maxRounds);
+
+        CastleStore store = map.getCastleStore();
+        for(int i = 0; i < castleCount; i++) {
+            int owner = players.indexOf(store.getOwner(i));
+            state.owners[i] = (byte) owner;
+            state.troops[i] = store.getTroopCount(i);
+            state.flagOwners[i] = (byte) (store.isFlagCastle(i) ? players.indexOf(store.getFlagOwner(i)) : NONE);
+            if(owner != NONE) {
+                state.castleCounts[owner]++;
+                if(kingdomOf[i] != NONE)
+                    state.kingdomCounts[kingdomOf[i] * playerCount + owner]++;
+            }
+        }
+
+        for(int i = 0; i < playerCount; i++) {
+            Player player = players.get(i);
+            state.remainingTroops[i] = player.getRemainingTroops();
+            state.points[i] = player.getPoints();
+            state.lost[i] = true;
+        }
+
+        // Die Warteschlange enthält alle verbliebenen Spieler, der aktuelle Spieler steht am Ende
+        Queue<Player> queue = game.getPlayerQueue();
+        int count = 0;
+        for(Player player : queue) {
+            int index = players.indexOf(player);
+            state.order[count++] = index;
+            state.lost[index] = false;
+        }
+        for(int i = 0; i < playerCount; i++) {
+            if(state.lost[i])
+                state.order[count++] = i;
+        }
+
+        int current = players.indexOf(game.getCurrentPlayer());
+        for(int i = 0; i < playerCount; i++) {
+            if(state.order[i] == current)
+                state.turn = i;
+        }
+
+        state.startingPlayer = players.indexOf(game.getStartingPlayer());
+        state.round = game.getRound();
+        state.phase = state.remainingTroops[current] > 0 ? PHASE_PLACE : PHASE_ATTACK;
+        state.turnCount = 0;
+        state.over = game.isOver();
+        return state;
+    }
+
+    public static int encode(int type, int source, int target) {
+        return (type << 24) | (source << 12) | target;
+    }
+
+    public static int getType(int move) {
+        return move >>> 24;
+    }
+
+    public static int getSource(int move) {
+        return (move >>> 12) & 0xFFF;
+    }
+
+    public static int getTarget(int move) {
+        return move & 0xFFF;
+    }
+
+    public int getCastleCount() {
+        return this.castleCount;
+    }
+
+    public int getPlayerCount() {
+        return this.playerCount;
+    }
+
+    public int getCurrentPlayer() {
+        return this.order[turn];
+    }
+
+    public int getTeam(int player) {
+        return this.teams[player];
+    }
+
+    public int getPhase() {
+        return this.phase;
+    }
+
+    public void setPhase(int phase) {
+        this.phase = phase;
+    }
+
+    public int getRound() {
+        return this.round;
+    }
+
+    /**
+     * Gibt die Anzahl der seit dem Einlesen beendeten Züge zurück
+     * @return die Anzahl der Züge
+     */
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    public boolean isOver() {
+        return this.over;
+    }
+
+    public int getOwner(int castle) {
+        return this.owners[castle];
+    }
+
+    public int getTroopCount(int castle) {
+        return this.troops[castle];
+    }
+
+    /**
+     * Berechnet einen {@link Zobrist}-Hash über Besitzer, Truppen und Flaggen der Burgen, die verbleibenden Truppen,
+     * den Spieler am Zug und die Phase. Die Spieler werden wie in {@link #getOwner(int)} nummeriert.
+     * Der Hash wird nicht bei jedem Würfelwurf fortgeschrieben, sondern nur bei Bedarf neu berechnet,
+     * da die Suche ihn höchstens einmal pro Iteration braucht.
+     * @return der Hash
+     */
+    public long getHash() {
+        long hash = Zobrist.key(Zobrist.CURRENT_PLAYER, 0, getCurrentPlayer() + 1) ^ Zobrist.key(Zobrist.PHASE, 0, phase + 1);
+        for(int i = 0; i < castleCount; i++) {
+            hash ^= Zobrist.key(Zobrist.OWNER, i, owners[i] + 1);
+            hash ^= Zobrist.key(Zobrist.TROOPS, i, troops[i]);
+            hash ^= Zobrist.key(Zobrist.FLAG, i, flagOwners[i] + 1);
+        }
+
+        for(int i = 0; i < playerCount; i++)
+            hash ^= Zobrist.key(Zobrist.REMAINING_TROOPS, i, remainingTroops[i]);
+
+        return hash;
+    }
+
+    /**
+     * Gibt die höchste Anzahl möglicher Züge zurück, also die nötige Größe des Arrays für {@link #getMoves(int[])}
+     * @return die höchste Anzahl möglicher Züge
+     */
+    public int getMaxMoves() {
+        return Math.max(castleCount, graph.getLastEdge(castleCount - 1)) + 1;
+    }
+
+    /**
+     * Gibt die Truppen zurück, mit denen eine Burg angreifen kann. Flaggenburgen behalten 3 Truppen zurück.
+     * @param castle die Burg
+     * @return die Anzahl der verfügbaren Truppen
+     */
+    public int getAvailableTroops(int castle) {
+        return Math.max(0, troops[castle] - (flagOwners[castle] != NONE ? 3 : 1));
+    }
+
+    /**
+     * Prüft, ob eine Burg an eine Burg eines anderen Teams grenzt
+     * @param castle die Burg
+     * @return true, wenn die Burg eine Grenzburg ist
+     */
+    public boolean isBorder(int castle) {
+        int team = teams[owners[castle]];
+        for(int e = graph.getFirstEdge(castle); e < graph.getLastEdge(castle); e++) {
+            int owner = owners[graph.getTarget(e)];
+            if(owner != NONE && teams[owner] != team)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Schreibt alle in der aktuellen Phase möglichen Züge des Spielers am Zug in das Array
+     * @param moves nimmt die Züge auf, mindestens {@link #getMaxMoves()} groß
+     * @return die Anzahl der Züge
+     */
+    public int getMoves(int[] moves) {
+        if(over)
+            return 0;
+
+        int player = order[turn];
+        int team = teams[player];
+        int count = 0;
+
+        switch(phase) {
+            case PHASE_PLACE:
+                for(int c = 0; c < castleCount; c++) {
+                    if(owners[c] == player && isBorder(c))
+                        moves[count++] = encode(PLACE, c, c);
+                }
+
+                if(count == 0) {
+                    for(int c = 0; c < castleCount; c++) {
+                        if(owners[c] == player)
+                            moves[count++] = encode(PLACE, c, c);
+                    }
+                }
+
+                // Ohne Burg können keine Truppen gesetzt werden
+                if(count == 0)
+                    moves[count++] = encode(END_ATTACKS, 0, 0);
+                break;
+
+            case PHASE_ATTACK:
+                for(int c = 0; c < castleCount; c++) {
+                    if(owners[c] != player)
+                        continue;
+
+                    int available = getAvailableTroops(c);
+                    if(available == 0)
+                        continue;
+
+                    for(int e = graph.getFirstEdge(c); e < graph.getLastEdge(c); e++) {
+                        int target = graph.getTarget(e);
+                        int owner = owners[target];
+
+                        // Aussichtslose Angriffe werden nicht betrachtet
+                        if(owner != NONE && teams[owner] != team && 2 * available >= troops[target])
+                            moves[count++] = encode(ATTACK, c, target);
+                    }
+                }
+
+                moves[count++] = encode(END_ATTACKS, 0, 0);
+                break;
+
+            case PHASE_MOVE:
+                boolean reserves = false;
+                for(int c = 0; c < castleCount && !reserves; c++) {
+                    if(owners[c] == player && flagOwners[c] == NONE && troops[c] > 1 && !isBorder(c))
+                        reserves = true;
+                }
+
+                if(reserves) {
+                    for(int c = 0; c < castleCount; c++) {
+                        if(owners[c] == player && isBorder(c))
+                            moves[count++] = encode(MOVE, c, c);
+                    }
+                }
+
+                moves[count++] = encode(END_TURN, 0, 0);
+                break;
+        }
+
+        return count;
+    }
+
+    /**
+     * Führt einen Zug des Spielers am Zug aus. Die Würfel werden mit dem übergebenen Zufallsgenerator geworfen.
+     * @param move der Zug, siehe {@link #getMoves(int[])}
+     * @param random der Zufallsgenerator
+     */
+    public void apply(int move, SplittableRandom random) {
+        int player = order[turn];
+        int source = getSource(move);
+        int target = getTarget(move);
+
+        switch(getType(move)) {
+            case PLACE:
+                troops[source] += remainingTroops[player];
+                remainingTroops[player] = 0;
+                phase = PHASE_ATTACK;
+                break;
+
+            case ATTACK:
+                attack(source, target, getAvailableTroops(source), random);
+                break;
+
+            case END_ATTACKS:
+                phase = PHASE_MOVE;
+                break;
+
+            case MOVE:
+                for(int c = 0; c < castleCount; c++) {
+                    if(c != target && owners[c] == player && flagOwners[c] == NONE && troops[c] > 1 && !isBorder(c)) {
+                        troops[target] += troops[c] - 1;
+                        troops[c] = 1;
+                    }
+                }
+                endTurn();
+                break;
+
+            case END_TURN:
+                endTurn();
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unbekannter Zug: " + move);
+        }
+    }
+
+    /**
+     * Spielt den Rest des aktuellen Zuges mit einer schnellen, zufälligen Strategie: alle neuen Truppen auf eine zufällige
+     * Grenzburg, danach zufällige Angriffe mit Übermacht, bis keiner mehr möglich ist. Truppen werden nicht verschoben.
+     * @param random der Zufallsgenerator für Entscheidungen und Würfel
+     */
+    public void playRandomTurn(SplittableRandom random) {
+        if(over)
+            return;
+
+        int player = order[turn];
+        int team = teams[player];
+
+        if(phase == PHASE_PLACE && remainingTroops[player] > 0) {
+            int choice = NONE, seen = 0;
+            for(int c = 0; c < castleCount; c++) {
+                if(owners[c] == player && isBorder(c) && random.nextInt(++seen) == 0)
+                    choice = c;
+            }
+
+            if(choice != NONE) {
+                troops[choice] += remainingTroops[player];
+                remainingTroops[player] = 0;
+            }
+        }
+
+        if(phase != PHASE_MOVE) {
+            for(int attacks = 0; attacks < castleCount; attacks++) {
+                int source = NONE, target = NONE, seen = 0;
+                for(int c = 0; c < castleCount; c++) {
+                    if(owners[c] != player)
+                        continue;
+
+                    int available = getAvailableTroops(c);
+                    if(available < 2)
+                        continue;
+
+                    for(int e = graph.getFirstEdge(c); e < graph.getLastEdge(c); e++) {
+                        int other = graph.getTarget(e);
+                        int owner = owners[other];
+                        if(owner != NONE && teams[owner] != team && available > troops[other] && random.nextInt(++seen) == 0) {
+                            source = c;
+                            target = other;
+                        }
+                    }
+                }
+
+                if(source == NONE)
+                    break;
+
+                attack(source, target, getAvailableTroops(source), random);
+            }
+        }
+
+        endTurn();
+    }
+
+    /**
+     * Trägt einen Angriff wie {@link game.Battle#resolve()} aus. Eine eroberte Burg erhält eine Truppe,
+     * die übrigen angreifenden Truppen bleiben in der angreifenden Burg.
+     */
+    private void attack(int source, int target, int troopAttackCount, SplittableRandom random) {
+        int attacker = owners[source];
+        int defender = owners[target];
+        int attackUntil = Math.max(1, troops[source] - troopAttackCount);
+
+        while(troops[source] > attackUntil) {
+            int attackerCount = Math.min(troopAttackCount, Math.min(troops[source] - 1, 3));
+            int defenderCount = Math.min(2, troops[target]);
+            for(int i = 0; i < attackerCount; i++)
+                attackerDice[i] = random.nextInt(6) + 1;
+            for(int i = 0; i < defenderCount; i++)
+                defenderDice[i] = random.nextInt(6) + 1;
+
+            int result = DiceComparison.compare(attackerDice, 0, attackerCount, defenderDice, 0, defenderCount);
+            int comparisons = Math.min(attackerCount, defenderCount);
+            for(int i = 0; i < comparisons; i++) {
+                if(DiceComparison.attackerWins(result, i)) {
+                    troops[target]--;
+                    if(troops[target] == 0) {
+                        troops[source]--;
+                        setOwner(target, attacker);
+                        troops[target] = 1;
+                        points[attacker] += 50;
+                        return;
+                    }
+
+                    points[attacker] += 20;
+                } else {
+                    troops[source]--;
+                    points[defender] += 30;
+                }
+            }
+        }
+    }
+
+    private void setOwner(int castle, int player) {
+        int oldOwner = owners[castle];
+        int kingdom = kingdomOf[castle];
+        if(oldOwner != NONE) {
+            castleCounts[oldOwner]--;
+            if(kingdom != NONE)
+                kingdomCounts[kingdom * playerCount + oldOwner]--;
+        }
+
+        owners[castle] = (byte) player;
+        castleCounts[player]++;
+        if(kingdom != NONE)
+            kingdomCounts[kingdom * playerCount + player]++;
+    }
+
+    /**
+     * Beendet den Zug und beginnt den Zug des nächsten verbliebenen Spielers wie {@link Game#nextTurn()}
+     */
+    private void endTurn() {
+        turnCount++;
+        if(isCompleted()) {
+            over = true;
+            return;
+        }
+
+        int next = turn;
+        do {
+            next = (next + 1) % playerCount;
+            int player = order[next];
+            if(!lost[player] && hasLost(player)) {
+                lost[player] = true;
+                if(player == startingPlayer)
+                    startingPlayer = nextActivePlayer(next);
+            }
+        } while(lost[order[next]] && next != turn);
+
+        if(lost[order[next]]) {
+            over = true;
+            return;
+        }
+
+        turn = next;
+        int player = order[turn];
+        if(player == startingPlayer)
+            round++;
+
+        int addTroops = Math.max(3, castleCounts[player] / GameConstants.TROOPS_PER_ROUND_DIVISOR);
+        points[player] += addTroops * 5;
+        for(int k = 0; k < kingdomCount; k++) {
+            if(kingdomCounts[k * playerCount + player] == kingdomSizes[k]) {
+                points[player] += 10;
+                addTroops++;
+            }
+        }
+
+        remainingTroops[player] += addTroops;
+        phase = PHASE_PLACE;
+    }
+
+    private int nextActivePlayer(int position) {
+        for(int i = 1; i <= playerCount; i++) {
+            int player = order[(position + i) % playerCount];
+            if(!lost[player])
+                return player;
+        }
+
+        return NONE;
+    }
+
+    private boolean hasLost(int player) {
+        switch(goal) {
+            case GOAL_LAST_FLAG:
+                for(int c = 0; c < castleCount; c++) {
+                    if(flagOwners[c] == player)
+                        return owners[c] != player;
+                }
+                return false;
+            case GOAL_ALL_FLAGS:
+                return false;
+            default:
+                return castleCounts[player] == 0;
+        }
+    }
+
+    /**
+     * Prüft die Bedingung des Spielziels, bevor der nächste Spieler an die Reihe kommt
+     */
+    private boolean isCompleted() {
+        switch(goal) {
+            case GOAL_ROUNDS: {
+                if(round >= maxRounds && nextActivePlayer(turn) == startingPlayer)
+                    return true;
+
+                int active = 0;
+                for(int p = 0; p < playerCount; p++) {
+                    if(castleCounts[p] > 0)
+                        active++;
+                }
+                return active <= 1;
+            }
+            default:
+                return getWinningTeam() != NONE;
+        }
+    }
+
+    /**
+     * Bestimmt das Team, das nach dem Spielziel gewonnen hat oder gewinnen würde
+     * @return das Team oder NONE, falls es (noch) keinen Gewinner gibt
+     */
+    private int getWinningTeam() {
+        int team = NONE;
+        switch(goal) {
+            case GOAL_ROUNDS: {
+                int best = NONE;
+                for(int p = 0; p < playerCount; p++) {
+                    if(best == NONE || points[p] > points[best])
+                        best = p;
+                }
+                for(int p = 0; p < playerCount; p++) {
+                    if(teams[p] != teams[best] && points[p] == points[best])
+                        return NONE;
+                }
+                return teams[best];
+            }
+            case GOAL_LAST_FLAG:
+                for(int c = 0; c < castleCount; c++) {
+                    if(flagOwners[c] == NONE || owners[c] != flagOwners[c])
+                        continue;
+                    if(team == NONE)
+                        team = teams[owners[c]];
+                    else if(team != teams[owners[c]])
+                        return NONE;
+                }
+                return team;
+            case GOAL_ALL_FLAGS:
+                for(int c = 0; c < castleCount; c++) {
+                    if(flagOwners[c] == NONE)
+                        continue;
+                    if(owners[c] == NONE)
+                        return NONE;
+                    if(team == NONE)
+                        team = teams[owners[c]];
+                    else if(team != teams[owners[c]])
+                        return NONE;
+                }
+                return team;
+            default:
+                for(int c = 0; c < castleCount; c++) {
+                    if(owners[c] == NONE)
+                        return NONE;
+                    if(team == NONE)
+                        team = teams[owners[c]];
+                    else if(team != teams[owners[c]])
+                        return NONE;
+                }
+                return team;
+        }
+    }
+
+    /**
+     * Bewertet den Zustand aus Sicht eines Spielers mit einem Wert zwischen 0 und 1.
+     * Ein beendetes Spiel zählt 1 für einen Sieg des Teams, 0 für eine Niederlage und 0.5 für ein Unentschieden.
+     * Sonst zählt der Anteil des Teams an Burgen, Truppen und vollständigen Königreichen, beim Spielziel "Schnelles Spiel"
+     * zusätzlich der Anteil an den Punkten und bei Capture the Flag der Anteil an den gehaltenen Flaggen.
+     * @param player der Index des Spielers
+     * @return die Bewertung
+     */
+    public double evaluate(int player) {
+        int team = teams[player];
+        if(over) {
+            int winner = getWinningTeam();
+            return winner == NONE ? 0.5 : winner == team ? 1 : 0;
+        }
+
+        double own = 0, total = 0;
+        double ownPoints = 0, totalPoints = 0;
+        for(int p = 0; p < playerCount; p++) {
+            double strength = castleCounts[p] + remainingTroops[p];
+            for(int k = 0; k < kingdomCount; k++) {
+                if(kingdomCounts[k * playerCount + p] == kingdomSizes[k])
+                    strength += kingdomSizes[k];
+            }
+
+            total += strength;
+            totalPoints += points[p];
+            if(teams[p] == team) {
+                own += strength;
+                ownPoints += points[p];
+            }
+        }
+
+        int ownFlags = 0, flags = 0;
+        for(int c = 0; c < castleCount; c++) {
+            int owner = owners[c];
+            if(owner == NONE)
+                continue;
+
+            double strength = 0.5 * troops[c];
+            total += strength;
+            if(teams[owner] == team)
+                own += strength;
+
+            if(flagOwners[c] != NONE) {
+                flags++;
+                if(teams[owner] == team)
+                    ownFlags++;
+            }
+        }
+
+        double value = total > 0 ? own / total : 0.5;
+        if(goal == GOAL_ROUNDS && totalPoints > 0)
+            value = 0.5 * value + 0.5 * ownPoints / totalPoints;
+        else if((goal == GOAL_LAST_FLAG || goal == GOAL_ALL_FLAGS) && flags > 0)
+            value = 0.5 * value + 0.5 * ownFlags / flags;
+
+        return value;
+    }
+}
@@ -0,0 +1,130 @@
+package game.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Eine Tabelle fester Größe, die Bewertungen von Spielständen unter deren Zobrist-Hash speichert.
+ * Wird ein Spielstand über verschiedene Zugfolgen erneut erreicht, können die bisherigen Bewertungen weiterverwendet werden.
+ *
+ * Eine Tabelle darf nur mit Hashes aus einer Quelle befüllt werden, entweder {@link game.Game#getHash()} oder
+ * {@link SearchState#getHash()}. Beide nummerieren Spieler unterschiedlich und berücksichtigen andere Eigenschaften
+ * (Joker bzw. Phase des Zuges), derselbe Spielstand hat also in beiden verschiedene Hashes.
+ * {@link MonteCarloTreeSearch} verwendet ausschließlich {@link SearchState#getHash()}.
+ *
+ * Jeder Eintrag besteht aus zwei Zahlen: den Daten (Anzahl der Bewertungen und deren Summe) und dem Hash XOR den Daten.
+ * Beide werden ohne Sperren geschrieben. Überschneiden sich zwei Threads beim Schreiben, passen Hash und Daten
+ * nicht mehr zusammen und der Eintrag gilt beim Lesen als nicht vorhanden. Gleichzeitig hinzugefügte Bewertungen
+ * können dabei verloren gehen, was für eine Schätzung unerheblich ist.
+ *
+ * Jeder Hash hat genau einen Platz in der Tabelle. Ist der Platz von einem anderen Spielstand belegt, wird dieser ersetzt,
+ * sobald er nur noch eine Bewertung hat. Der Speicherbedarf ist daher unabhängig von der Dauer der Suche.
+ */
+public class TranspositionTable {
+
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * Erzeugt eine leere Tabelle
+     * @param capacity die Anzahl der Einträge, wird auf die nächste Zweierpotenz aufgerundet
+     */
+    public TranspositionTable(int capacity) {
+        if(capacity < 1 || capacity > 1 << 29)
+            throw new IllegalArgumentException("Ungültige Größe: " + capacity);
+
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity)
+            size <<= 1;
+
+        this.entries = new AtomicLongArray(size * 2);
+        this.mask = size - 1;
+    }
+
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Sucht die Daten zu einem Hash
+     * @param hash der Hash des Spielstands
+     * @return die Daten oder 0, wenn der Spielstand nicht in der Tabelle steht, siehe {@link #getCount(long)} und {@link #getMean(long)}
+     */
+    public long get(long hash) {
+        int slot = getSlot(hash);
+        long data = entries.get(slot + 1);
+        long check = entries.get(slot);
+        return (check ^ data) == hash ? data : 0;
+    }
+
+    /**
+     * Fügt eine Bewertung eines Spielstands hinzu
+     * @param hash der Hash des Spielstands
+     * @param value die Bewertung
+     * @return die Daten des Spielstands einschließlich der neuen Bewertung
+     */
+    public long add(long hash, float value) {
+        int slot = getSlot(hash);
+        long oldData = entries.get(slot + 1);
+        long oldCheck = entries.get(slot);
+
+        long data;
+        if((oldCheck ^ oldData) == hash) {
+            data = pack(getCount(oldData) + 1, getSum(oldData) + value);
+        } else {
+            data = pack(1, value);
+
+            // Ein anderer Spielstand mit mehr Bewertungen wird nicht ersetzt, sondern verliert eine Bewertung,
+            // damit häufig erreichte Spielstände länger erhalten bleiben als einmalige
+            int count = getCount(oldData);
+            if(count > 1) {
+                long decayed = pack(count - 1, getSum(oldData) * (count - 1) / count);
+                entries.set(slot + 1, decayed);
+                entries.set(slot, oldCheck ^ oldData ^ decayed);
+                return data;
+            }
+        }
+
+        entries.set(slot + 1, data);
+        entries.set(slot, hash ^ data);
+        return data;
+    }
+
+    /**
+     * Löscht alle Einträge
+     */
+    public void clear() {
+        for(int i = 0; i < entries.length(); i++)
+            entries.set(i, 0);
+    }
+
+    private int getSlot(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & mask) * 2;
+    }
+
+    private static long pack(int count, float sum) {
+        return ((long) count << 32) | (Float.floatToRawIntBits(sum) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gibt die Anzahl der Bewertungen zurück
+     * @param data die Daten aus {@link #get(long)} oder {@link #add(long, float)}
+     * @return die Anzahl, 0 für einen unbekannten Spielstand
+     */
+    public static int getCount(long data) {
+        return (int) (data >>> 32);
+    }
+
+    public static float getSum(long data) {
+        return Float.intBitsToFloat((int) data);
+    }
+
+    /**
+     * Gibt den Mittelwert der Bewertungen zurück
+     * @param data die Daten aus {@link #get(long)} oder {@link #add(long, float)}
+     * @return der Mittelwert oder NaN für einen unbekannten Spielstand
+     */
+    public static float getMean(long data) {
+        int count = getCount(data);
+        return count == 0 ? Float.NaN : getSum(data) / count;
+    }
+}
@@ -1,6 +1,7 @@
 package gui;
 
 import game.ScoreEntry;
+import game.map.CastleNames;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -10,7 +11,6 @@ import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
 import java.io.*;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
 
@@ -43,10 +43,11 @@ public class Resources {
     }
 
     /**
-     * Gibt die Instanz des Resourcen Managers zurück oder erzeugt eine neue
+     * Gibt die Instanz des Resourcen Managers zurück oder erzeugt eine neue.
+     * Mehrere gleichzeitig laufende Spiele teilen sich dieselbe Instanz.
      * @return Resourcen Manager
      */
-    public static Resources getInstance() {
+    public static synchronized Resources getInstance() {
         if(instance == null) {
             instance = new Resources();
             instance.load();
@@ -99,7 +100,7 @@ public class Resources {
             arrowDeactivated = loadImage("arrow_deactivated.png");
 
             // Load Castle names
-            castleNames = loadRegionNames();
+            castleNames = CastleNames.getNames();
 
             // Load font
             celticFont = loadFont("celtic.ttf");
@@ -232,25 +233,6 @@ public class Resources {
         return dices;
     }
 
-    private List<String> loadRegionNames() throws IOException {
-
-        List<String> regionNames = new LinkedList<>();
-        InputStream is = Resources.class.getClassLoader().getResourceAsStream("castles.txt");
-        InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-        BufferedReader br = new BufferedReader(isr);
-
-        String line;
-        while((line = br.readLine()) != null) {
-            line = line.trim();
-            if(line.length() > 0 && !line.startsWith("#")) {
-                regionNames.add(line);
-            }
-        }
-
-        br.close();
-        return regionNames;
-    }
-
     private BufferedImage colorImage(BufferedImage original, Color color) {
         ColorModel cm = original.getColorModel();
         boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
@@ -11,8 +11,9 @@ import javax.swing.border.LineBorder;
 
 import base.Edge;
 import game.AI;
+import game.Action;
+import game.BattleOdds;
 import game.Game;
-import game.GameConstants;
 import game.map.PathFinding;
 import game.Player;
 import game.map.Castle;
@@ -24,13 +25,6 @@ import gui.views.GameView;
 
 public class MapPanel extends JScrollPane {
 
-    public enum Action {
-        NONE,
-        MOVING,
-        ATTACKING,
-        TUNNELING
-    }
-
     private static final int CASTLE_SIZE = 50;
     private static final int ICON_SIZE = 20;
     private final GameView gameView;
@@ -198,8 +192,7 @@ public class MapPanel extends JScrollPane {
 
                     if(currentAction != Action.NONE) {
                         if(lastAction != currentAction) {
-                        	pathFinding = new PathFinding(game.getMap().getGraph(), selectedCastle, currentAction, currentPlayer);
-                            pathFinding.run();
+                        	preparePathFinding(currentPlayer);
                         }
 
                         setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
@@ -214,11 +207,11 @@ public class MapPanel extends JScrollPane {
                         setCursor(Cursor.getDefaultCursor());
                         if(justTriedTunneling) {
                         	justTriedTunneling = false;
-                        	GameConstants.getJokerByName("Tunnel graben").grantInvocation(game.getCurrentPlayer());
+                        	game.grantJokerInvocation(game.getJokerByName("Tunnel graben"), game.getCurrentPlayer());
                         	
                         	gameView.updateJokers();
                         }
-                    } else if(currentAction == Action.MOVING && pathFinding.getPath(nextCastle) != null) {
+                    } else if(currentAction == Action.MOVING && pathFinding.isReachable(nextCastle)) {
                     	NumberDialog nd = null;
                     	if(game.getGoal() instanceof game.CaptureTheFlagGoal && selectedCastle.isFlagCastle()) {
                     		nd = new NumberDialog("Wie viele Truppen möchtest du verschieben?", 1, selectedCastle.getTroopCount() - 3, selectedCastle.getTroopCount() - 3);
@@ -226,7 +219,7 @@ public class MapPanel extends JScrollPane {
                     		nd = new NumberDialog("Wie viele Truppen möchtest du verschieben?", 1, selectedCastle.getTroopCount() - 1, selectedCastle.getTroopCount() - 1);
                     	}
                         if(nd.showDialog(MapPanel.this)) {
-                            selectedCastle.moveTroops(nextCastle, nd.getValue());
+                            game.moveTroops(selectedCastle, nextCastle, nd.getValue());
                             currentAction = Action.NONE;
                             selectedCastle = null;
                             highlightedEdges = null;
@@ -234,7 +227,7 @@ public class MapPanel extends JScrollPane {
                             setCursor(Cursor.getDefaultCursor());
                             gameView.updateStats();
                         }
-                    } else if(currentAction == Action.ATTACKING && pathFinding.getPath(nextCastle) != null && nextCastle.getOwner().getTeam() != selectedCastle.getOwner().getTeam()) {
+                    } else if(currentAction == Action.ATTACKING && pathFinding.isReachable(nextCastle) && nextCastle.getOwner().getTeam() != selectedCastle.getOwner().getTeam()) {
                     	NumberDialog nd = null;
                     	if(game.getGoal() instanceof game.CaptureTheFlagGoal && selectedCastle.isFlagCastle()) {
                     		nd = new NumberDialog("Mit wie vielen Truppen möchtest du angreifen?", 1, selectedCastle.getTroopCount() - 3, selectedCastle.getTroopCount()  - 3);
@@ -249,8 +242,7 @@ public class MapPanel extends JScrollPane {
                     	justTriedTunneling = true;
                     	if(selectedCastle == null) {
                     		selectedCastle = nextCastle;
-                    		pathFinding = new PathFinding(game.getMap().getGraph(), selectedCastle, currentAction, currentPlayer);
-                            pathFinding.run();
+                    		preparePathFinding(currentPlayer);
                     		repaint();
                     	} else if(selectedCastle != nextCastle) {
                     		int temp = map.getEdges().size();
@@ -315,7 +307,7 @@ public class MapPanel extends JScrollPane {
                     targetCastle = getRegion(mousePos);
                     if(targetCastle != null) {
                         if(currentAction != Action.ATTACKING || targetCastle.getOwner().getTeam() != selectedCastle.getOwner().getTeam()) {
-                            highlightedEdges = pathFinding.getPath(targetCastle);
+                            highlightedEdges = pathFinding.findPath(targetCastle);
                             repaint();
                         } else {
                             targetCastle = null;
@@ -338,6 +330,19 @@ public class MapPanel extends JScrollPane {
         }
     };
 
+    /**
+     * Bereitet die Wegsuche ausgehend von der ausgewählten Burg vor.
+     * Das PathFinding-Objekt wird dabei wiederverwendet, solange sich die Karte nicht ändert.
+     * @param currentPlayer der Spieler, für den Wege gesucht werden
+     */
+    private void preparePathFinding(Player currentPlayer) {
+        if(pathFinding != null && pathFinding.isOnMap(game.getMap())) {
+            pathFinding.reset(selectedCastle, currentAction, currentPlayer);
+        } else {
+            pathFinding = new PathFinding(game.getMap(), selectedCastle, currentAction, currentPlayer);
+        }
+    }
+
     private boolean canChooseCastle() {
         if (selectedCastle == null)
             return false;
@@ -569,6 +574,15 @@ public class MapPanel extends JScrollPane {
                 titleText = "Truppen verschieben";
             } else if(currentAction == Action.ATTACKING) {
                 titleText = "Eine Burg angreifen";
+
+                // Siegchance mit der vorgeschlagenen Truppenzahl aus dem Angriffsdialog
+                if(targetCastle != null && highlightedEdges != null) {
+                    int troopCount = selectedCastle.getTroopCount() - (selectedCastle.isFlagCastle() ? 3 : 1);
+                    if(troopCount > 0) {
+                        BattleOdds odds = BattleOdds.get(selectedCastle.getTroopCount(), targetCastle.getTroopCount(), troopCount);
+                        titleText += String.format(" - Siegchance: %.0f %%", odds.getWinProbability() * 100);
+                    }
+                }
             } else {
                 return;
             }
@@ -593,7 +607,7 @@ public class MapPanel extends JScrollPane {
     }
 
     public void reset() {
-        currentAction = MapPanel.Action.NONE;
+        currentAction = Action.NONE;
         selectedCastle = null;
         highlightedEdges = null;
         targetCastle = null;
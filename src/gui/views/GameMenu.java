@@ -1,7 +1,9 @@
 package gui.views;
 
 import game.*;
+import game.goals.RoundGoal;
 import game.map.MapSize;
+import game.replay.GameRecorder;
 import gui.GameWindow;
 import gui.View;
 import gui.components.ColorChooserButton;
@@ -12,6 +14,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.font.TextAttribute;
+import java.io.File;
 import java.util.*;
 
 import javax.swing.*;
@@ -28,6 +31,7 @@ public class GameMenu extends View {
     private JCheckBox teamsCheck;
     private JComboBox mapSize;
     private JComboBox goal;
+    private JCheckBox recordCheck;
     private JComponent[][] playerConfig;
     private JButton btnStart, btnBack;
 
@@ -73,7 +77,8 @@ public class GameMenu extends View {
         lblMapSize.setLocation(offsetX, offsetY); offsetY += lblMapSize.getHeight();
         mapSize.setLocation(offsetX, offsetY); offsetY += mapSize.getHeight() + 10;
         lblGoal.setLocation(offsetX, offsetY); offsetY += lblGoal.getHeight();
-        goal.setLocation(offsetX, offsetY); offsetY += goal.getHeight();
+        goal.setLocation(offsetX, offsetY); offsetY += goal.getHeight() + 10;
+        recordCheck.setLocation(offsetX, offsetY); offsetY += recordCheck.getHeight();
         lblGoalDescription.setLocation(offsetX, offsetY);
         lblGoalDescription.setSize(goal.getWidth() + 25, getHeight() - offsetY - BUTTON_SIZE.height - 50);
 
@@ -156,6 +161,11 @@ public class GameMenu extends View {
                 lblGoalDescription.setText(GameConstants.GAME_GOALS[i].getDescription());
         });
 
+        // Recording
+        recordCheck = new JCheckBox("Spiel aufzeichnen");
+        recordCheck.setSize(150, 25);
+        add(recordCheck);
+
         // Buttons
         btnBack = createButton("Zurück");
         btnStart = createButton("Starten");
@@ -236,11 +246,17 @@ public class GameMenu extends View {
                 }
 
                 // Set Goal
-                Goal goal = GameConstants.GAME_GOALS[goalIndex];
+                Goal goal = GameConstants.createGoal(goalIndex);
                 GameView gameView = new GameView(getWindow(), game);
+                if (goal instanceof RoundGoal)
+                    chooseMaxRounds((RoundGoal) goal);
+
                 goal.onGameInit();
                 game.setMapSize(MapSize.values()[mapSize]);
                 game.setGoal(goal);
+                if (recordCheck.isSelected())
+                    game.setRecorder(new GameRecorder(new File(GameRecorder.LAST_GAME_FILE)));
+
                 game.start(gameView);
                 getWindow().setView(gameView);
             } catch(IllegalArgumentException ex) {
@@ -249,4 +265,18 @@ public class GameMenu extends View {
             }
         }
     }
+
+    /**
+     * Lässt den Spieler die Rundenzahl wählen, bis eine gültige Zahl eingegeben wurde
+     * @param goal das Spielziel, dessen Rundenzahl noch nicht feststeht
+     */
+    private void chooseMaxRounds(RoundGoal goal) {
+        while (!goal.hasMaxRounds()) {
+            try {
+                goal.setMaxRounds(Integer.parseInt(JOptionPane.showInputDialog("Wie viele Runden soll gespielt werden?", "10")));
+            } catch(IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, "Es werden nur Werte von mindestens 2 und höchstens 99 Runden akzeptiert.\nBitte gib einen anderen Wert ein.", "Falscher Wert", JOptionPane.WARNING_MESSAGE);
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 
 import javax.swing.*;
 import javax.swing.border.LineBorder;
@@ -13,13 +14,15 @@ import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
 
 import game.AI;
+import game.Action;
 import game.Game;
-import game.GameConstants;
 import game.GameInterface;
 import game.Joker;
 import game.Player;
+import game.ScoreEntry;
 import game.map.Castle;
 import gui.GameWindow;
+import gui.Resources;
 import gui.View;
 import gui.components.DicePanel;
 import gui.components.MapPanel;
@@ -299,6 +302,14 @@ public class GameView extends View implements GameInterface {
     	updateStats();
     }
 
+    @Override
+    public void onGoalReached(Game game) {
+    	Resources resources = Resources.getInstance();
+    	for(Player player : game.getPlayers()) {
+    		resources.addScoreEntry(new ScoreEntry(player, game.getGoal()));
+    	}
+    }
+
     @Override
     public void onGameStarted(Game game) {
         this.map.setGame(game);
@@ -341,6 +352,37 @@ public class GameView extends View implements GameInterface {
         updateStats();
     }
 
+    @Override
+    public void onLog(String message, Player... players) {
+        logLine(message, players);
+    }
+
+    @Override
+    public void onTunnelStarted(Player player) {
+        map.reset();
+        map.setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
+        map.setCurrentAction(Action.TUNNELING);
+        map.tryTunneling();
+        map.repaint();
+    }
+
+    @Override
+    public Player onChooseOpponent(Player player, List<Player> opponents) {
+        if(opponents.isEmpty()) {
+            JOptionPane.showMessageDialog(null, "Aktuell kannst du keinen Spieler Aussetzen lassen.\nMan kann nur Gegner, die nicht bereits aussetzen müssen aussetzen lassen.");
+            return null;
+        }
+
+        return (Player) JOptionPane.showInputDialog(
+                null,
+                "Welcher Spieler soll aussetzen?",
+                "Aussetzen",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                opponents.toArray(new Player[opponents.size()]),
+                opponents.get(0));
+    }
+
     @Override
     public int[] onRoll(Player player, int dices, boolean fastForward) {
         try {
@@ -407,7 +449,7 @@ public class GameView extends View implements GameInterface {
      * @param selectedJokerName Name des auszuwählenden Jokers
      */
     private void fillJokerList(String selectedJokerName) {
-    	for (Joker joker : GameConstants.JOKERS) {
+    	for (Joker joker : game.getJokers()) {
     		
     		joker.update();
     		
@@ -447,7 +489,7 @@ public class GameView extends View implements GameInterface {
     	Joker selectedJoker = getSelectedJoker();
     	
     	if (selectedJoker != null) {
-        	selectedJoker.invoke();	
+        	game.invokeJoker(selectedJoker);
         	logLine(selectedJoker.getLogMessage(), game.getCurrentPlayer());
     	}
     	
@@ -467,9 +509,8 @@ public class GameView extends View implements GameInterface {
     	
     	ArrayList<Joker> usableJokers = new ArrayList<>();
     	
-    	for (Joker joker : GameConstants.JOKERS) {
+    	for (Joker joker : game.getJokers()) {
     		if (joker.isUsable()) {
-    			joker.setMapPanel(this.map);
         		usableJokers.add(joker);
     		}
     	}
@@ -0,0 +1,138 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import game.BattleOdds;
+
+public class BattleOddsTest {
+
+	static final double EPSILON = 1e-12;
+
+	@Test
+	void singleRoundTest() {
+		// Ein Würfel gegen einen Würfel: der Angreifer gewinnt mit 15 von 36 Würfen
+		BattleOdds odds = BattleOdds.get(2, 1, 1);
+		assertEquals(15.0 / 36, odds.getWinProbability(), EPSILON);
+		assertEquals(21.0 / 36, odds.getExpectedAttackerLosses(), EPSILON);
+		assertEquals(15.0 / 36, odds.getExpectedDefenderLosses(), EPSILON);
+
+		// Zwei Würfel gegen einen: 125 von 216 Würfen gewinnen sofort, sonst bleibt ein Würfel gegen einen
+		odds = BattleOdds.get(3, 1, 2);
+		assertEquals(125.0 / 216 + 91.0 / 216 * 15.0 / 36, odds.getWinProbability(), EPSILON);
+		assertEquals(91.0 / 216 * (1 + 21.0 / 36), odds.getExpectedAttackerLosses(), EPSILON);
+	}
+
+	@Test
+	void trivialCasesTest() {
+		// Eine leere Burg ist sofort erobert
+		BattleOdds odds = BattleOdds.get(5, 0, 3);
+		assertEquals(1.0, odds.getWinProbability(), 0.0);
+		assertEquals(0.0, odds.getExpectedAttackerLosses(), 0.0);
+
+		// Mit nur einer Truppe kann nicht angegriffen werden
+		odds = BattleOdds.get(1, 3, 1);
+		assertEquals(0.0, odds.getWinProbability(), 0.0);
+		assertEquals(0.0, odds.getExpectedDefenderLosses(), 0.0);
+
+		assertThrows(IllegalArgumentException.class, () -> BattleOdds.get(0, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> BattleOdds.get(3, -1, 1));
+		assertThrows(IllegalArgumentException.class, () -> BattleOdds.get(3, 1, 0));
+	}
+
+	@Test
+	void compareWithReferenceTest() {
+		for (int attackerTroops = 1; attackerTroops <= 8; attackerTroops++) {
+			for (int defenderTroops = 0; defenderTroops <= 6; defenderTroops++) {
+				for (int troopAttackCount = 1; troopAttackCount <= attackerTroops + 1; troopAttackCount++) {
+					int attackUntil = Math.max(1, attackerTroops - troopAttackCount);
+					double[] expected = reference(attackerTroops, defenderTroops, troopAttackCount, attackUntil);
+					BattleOdds odds = BattleOdds.get(attackerTroops, defenderTroops, troopAttackCount);
+
+					String message = "Falsche Aussichten für " + attackerTroops + " gegen " + defenderTroops + " mit " + troopAttackCount + " Truppen!";
+					assertEquals(expected[0], odds.getWinProbability(), EPSILON, message);
+					assertEquals(expected[1], odds.getExpectedAttackerLosses(), EPSILON, message);
+					assertEquals(expected[2], odds.getExpectedDefenderLosses(), EPSILON, message);
+				}
+			}
+		}
+	}
+
+	@Test
+	void largeBattleTest() {
+		// Vergrößert die Tabellen über die Anfangsgröße hinaus
+		BattleOdds weaker = BattleOdds.get(80, 70, 79);
+		BattleOdds stronger = BattleOdds.get(80, 40, 79);
+		assertTrue(weaker.getWinProbability() > 0 && weaker.getWinProbability() < 1);
+		assertTrue(stronger.getWinProbability() > weaker.getWinProbability(), "Gegen weniger Verteidiger sinken die Aussichten!");
+		assertTrue(stronger.getExpectedDefenderLosses() <= 40 + EPSILON);
+
+		// Jenseits der größten Tabelle wird der Angriff einzeln berechnet
+		BattleOdds huge = BattleOdds.get(400, 150, 399);
+		assertTrue(huge.getWinProbability() > stronger.getWinProbability() && huge.getWinProbability() <= 1 + 1e-9);
+		assertEquals(huge.getWinProbability(), BattleOdds.get(400, 150, 399).getWinProbability(), 0.0);
+		assertTrue(BattleOdds.get(160, 150, 159).getWinProbability() < huge.getWinProbability());
+	}
+
+	/**
+	 * Berechnet Gewinnwahrscheinlichkeit und erwartete Verluste rekursiv nach den Regeln von Battle,
+	 * die Würfelrunden werden dabei vollständig ausgezählt
+	 */
+	double[] reference(int troops, int defenders, int troopAttackCount, int attackUntil) {
+		if (defenders == 0)
+			return new double[] { 1, 0, 0 };
+		if (troops <= attackUntil)
+			return new double[] { 0, 0, 0 };
+
+		int attackerDice = Math.min(troopAttackCount, Math.min(troops - 1, 3));
+		int defenderDice = Math.min(2, defenders);
+		int comparisons = Math.min(attackerDice, defenderDice);
+		double[] outcomes = countOutcomes(attackerDice, defenderDice);
+
+		double[] result = new double[3];
+		for (int attackerLost = 0; attackerLost <= comparisons; attackerLost++) {
+			int defenderLost = comparisons - attackerLost;
+			double[] next = reference(troops - attackerLost, defenders - defenderLost, troopAttackCount, attackUntil);
+			result[0] += outcomes[attackerLost] * next[0];
+			result[1] += outcomes[attackerLost] * (attackerLost + next[1]);
+			result[2] += outcomes[attackerLost] * (defenderLost + next[2]);
+		}
+
+		return result;
+	}
+
+	double[] countOutcomes(int attackerDice, int defenderDice) {
+		int comparisons = Math.min(attackerDice, defenderDice);
+		int total = (int) Math.pow(6, attackerDice + defenderDice);
+		double[] outcomes = new double[comparisons + 1];
+
+		for (int roll = 0; roll < total; roll++) {
+			int[] attacker = new int[attackerDice];
+			int[] defender = new int[defenderDice];
+			int value = roll;
+			for (int i = 0; i < attackerDice; i++, value /= 6)
+				attacker[i] = value % 6 + 1;
+			for (int i = 0; i < defenderDice; i++, value /= 6)
+				defender[i] = value % 6 + 1;
+
+			Arrays.sort(attacker);
+			Arrays.sort(defender);
+
+			// Die höchsten Würfel stehen am Ende, bei Gleichstand gewinnt der Verteidiger
+			int attackerLost = 0;
+			for (int i = 1; i <= comparisons; i++) {
+				if (attacker[attackerDice - i] <= defender[defenderDice - i])
+					attackerLost++;
+			}
+
+			outcomes[attackerLost] += 1.0 / total;
+		}
+
+		return outcomes;
+	}
+}
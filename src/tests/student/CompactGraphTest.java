@@ -0,0 +1,88 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import base.CompactGraph;
+import base.Edge;
+import base.Graph;
+import base.Node;
+
+public class CompactGraphTest {
+
+	Graph<Integer> testGraph;
+
+	// Gewicht einer Kante ist die Summe der Werte beider Knoten
+	ToDoubleFunction<Edge<Integer>> weight = edge -> edge.getNodeA().getValue() + edge.getNodeB().getValue();
+
+	@BeforeEach
+	void createNewGraph() {
+		testGraph = new Graph<Integer>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 30; i++)
+			testGraph.addNode(i);
+
+		List<Node<Integer>> nodes = testGraph.getNodes();
+		for (int i = 0; i < 80; i++)
+			testGraph.addEdge(nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size())));
+	}
+
+	@Test
+	void adjacencyTest() {
+		CompactGraph<Integer> compact = CompactGraph.of(testGraph, weight);
+		List<Node<Integer>> nodes = testGraph.getNodes();
+		assertEquals(nodes.size(), compact.getNodeCount());
+
+		for (int id = 0; id < compact.getNodeCount(); id++) {
+			Node<Integer> node = compact.getNode(id);
+			assertTrue(node == nodes.get(id), "Die Id entspricht nicht der Position in Graph#getNodes()!");
+			assertEquals(id, compact.getId(node));
+
+			// Die Kanten in der kompakten Darstellung müssen genau den Kanten des Graphen entsprechen
+			Set<Edge<Integer>> expected = new HashSet<>(testGraph.getEdges(node));
+			Set<Edge<Integer>> actual = new HashSet<>();
+			for (int position = compact.getFirstEdge(id); position < compact.getLastEdge(id); position++) {
+				Edge<Integer> edge = compact.getEdge(position);
+				actual.add(edge);
+
+				assertTrue(compact.getNode(compact.getTarget(position)) == edge.getOtherNode(node), "Der Zielknoten passt nicht zur Kante!");
+				assertEquals(weight.applyAsDouble(edge), compact.getWeight(position), 0.0, "Das Gewicht passt nicht zur Kante!");
+			}
+
+			assertEquals(testGraph.getDegree(node), compact.getLastEdge(id) - compact.getFirstEdge(id));
+			assertEquals(expected, actual, "Die Kanten von Knoten " + node.getValue() + " stimmen nicht überein!");
+		}
+	}
+
+	@Test
+	void frozenTest() {
+		CompactGraph<Integer> compact = CompactGraph.of(testGraph, weight);
+		assertTrue(compact.isCurrent());
+		assertTrue(compact.getGraph() == testGraph);
+
+		Node<Integer> nodeA = testGraph.getNode(0);
+		int degree = compact.getLastEdge(0) - compact.getFirstEdge(0);
+		Node<Integer> nodeB = testGraph.addNode(100);
+		assertFalse(compact.isCurrent(), "Ein neuer Knoten wurde nicht erkannt!");
+
+		// Die kompakte Darstellung bleibt unverändert, bis sie neu erzeugt wird
+		testGraph.addEdge(nodeA, nodeB);
+		assertEquals(degree, compact.getLastEdge(0) - compact.getFirstEdge(0));
+
+		CompactGraph<Integer> updated = CompactGraph.of(testGraph, weight);
+		assertTrue(updated.isCurrent());
+		assertEquals(degree + 1, updated.getLastEdge(0) - updated.getFirstEdge(0));
+		assertEquals(compact.getNodeCount() + 1, updated.getNodeCount());
+	}
+}
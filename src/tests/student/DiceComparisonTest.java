@@ -0,0 +1,105 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import game.DiceComparison;
+
+public class DiceComparisonTest {
+
+	/**
+	 * Vergleicht die Würfel wie vor dem Sortiernetz: beide Seiten kopieren, sortieren und paarweise vergleichen
+	 */
+	int naiveCompare(int[] attackerDice, int[] defenderDice) {
+		int[] attacker = attackerDice.clone();
+		int[] defender = defenderDice.clone();
+		Arrays.sort(attacker);
+		Arrays.sort(defender);
+
+		int result = 0;
+		int comparisons = Math.min(attacker.length, defender.length);
+		for (int i = 0; i < comparisons; i++) {
+			if (attacker[attacker.length - 1 - i] > defender[defender.length - 1 - i])
+				result |= 1 << i;
+		}
+
+		return result;
+	}
+
+	@Test
+	void allRollsTest() {
+		// Alle Würfe für 1 bis 3 Würfel auf jeder Seite
+		for (int attackerCount = 1; attackerCount <= DiceComparison.MAX_DICE; attackerCount++) {
+			for (int defenderCount = 1; defenderCount <= DiceComparison.MAX_DICE; defenderCount++) {
+				int total = (int) Math.pow(6, attackerCount + defenderCount);
+				int[] attacker = new int[attackerCount];
+				int[] defender = new int[defenderCount];
+
+				for (int roll = 0; roll < total; roll++) {
+					int value = roll;
+					for (int i = 0; i < attackerCount; i++, value /= 6)
+						attacker[i] = value % 6 + 1;
+					for (int i = 0; i < defenderCount; i++, value /= 6)
+						defender[i] = value % 6 + 1;
+
+					int expected = naiveCompare(attacker, defender);
+					int actual = DiceComparison.compare(attacker, defender);
+					assertEquals(expected, actual, "Falsches Ergebnis für " + Arrays.toString(attacker) + " gegen " + Arrays.toString(defender) + "!");
+
+					int comparisons = Math.min(attackerCount, defenderCount);
+					assertEquals(comparisons, DiceComparison.getAttackerLosses(actual, comparisons) + DiceComparison.getDefenderLosses(actual));
+				}
+			}
+		}
+	}
+
+	@Test
+	void knownRollsTest() {
+		// Gleichstand gewinnt der Verteidiger
+		int result = DiceComparison.compare(new int[] { 6, 3, 5 }, new int[] { 6, 4 });
+		assertFalse(DiceComparison.attackerWins(result, 0), "Bei Gleichstand hat der Angreifer gewonnen!");
+		assertTrue(DiceComparison.attackerWins(result, 1));
+		assertEquals(1, DiceComparison.getAttackerLosses(result, 2));
+		assertEquals(1, DiceComparison.getDefenderLosses(result));
+
+		// Der Würfel mit dem kleinsten Wert des Angreifers wird nicht verglichen
+		result = DiceComparison.compare(new int[] { 1, 2, 2 }, new int[] { 1 });
+		assertEquals(1, result);
+	}
+
+	@Test
+	void compareAllTest() {
+		Random random = new Random(5);
+		int rounds = 500;
+		int[] attackerRolls = new int[rounds * 3];
+		int[] defenderRolls = new int[rounds * 2];
+		for (int i = 0; i < attackerRolls.length; i++)
+			attackerRolls[i] = random.nextInt(6) + 1;
+		for (int i = 0; i < defenderRolls.length; i++)
+			defenderRolls[i] = random.nextInt(6) + 1;
+
+		int[] expected = new int[rounds];
+		for (int round = 0; round < rounds; round++) {
+			int[] attacker = Arrays.copyOfRange(attackerRolls, round * 3, round * 3 + 3);
+			int[] defender = Arrays.copyOfRange(defenderRolls, round * 2, round * 2 + 2);
+			expected[round] = naiveCompare(attacker, defender);
+		}
+
+		int[] results = new int[rounds];
+		DiceComparison.compareAll(attackerRolls, 3, defenderRolls, 2, results, rounds);
+		assertArrayEquals(expected, results, "Die gesammelte Auswertung weicht von der einzelnen ab!");
+	}
+
+	@Test
+	void tooManyDiceTest() {
+		assertThrows(IllegalArgumentException.class, () -> DiceComparison.compare(new int[] { 1, 2, 3, 4 }, new int[] { 1 }));
+	}
+}
@@ -0,0 +1,103 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import base.DisjointSet;
+
+public class DisjointSetTest {
+
+	DisjointSet set;
+
+	@BeforeEach
+	void createNewSet() {
+		set = new DisjointSet();
+		for (int i = 0; i < 6; i++)
+			set.add();
+	}
+
+	@Test
+	void unionFindTest() {
+		assertEquals(6, set.size());
+		assertEquals(6, set.getComponentCount());
+		assertFalse(set.connected(0, 1), "Neue Elemente liegen fälschlicherweise in derselben Menge!");
+
+		assertTrue(set.union(0, 1));
+		assertTrue(set.union(2, 3));
+		assertTrue(set.union(1, 3));
+		assertEquals(3, set.getComponentCount());
+		assertTrue(set.connected(0, 2), "Die Vereinigung ist nicht transitiv!");
+		assertEquals(set.find(0), set.find(3));
+		assertFalse(set.connected(0, 4));
+
+		// Erneutes Vereinigen derselben Menge ändert nichts
+		assertFalse(set.union(3, 0));
+		assertTrue(set.connected(4, 4));
+		assertEquals(3, set.getComponentCount());
+
+		set.union(4, 5);
+		set.union(5, 2);
+		assertEquals(1, set.getComponentCount());
+		for (int i = 1; i < 6; i++)
+			assertTrue(set.connected(0, i), "Element " + i + " liegt nicht in der gemeinsamen Menge!");
+	}
+
+	@Test
+	void growTest() {
+		// Über die Anfangsgröße hinaus wachsen und eine Kette bilden
+		for (int i = 6; i < 100; i++)
+			assertEquals(i, set.add());
+
+		for (int i = 1; i < 100; i++)
+			set.union(i - 1, i);
+
+		assertEquals(100, set.size());
+		assertEquals(1, set.getComponentCount());
+		assertTrue(set.connected(0, 99));
+	}
+
+	@Test
+	void randomConnectivityTest() {
+		Random random = new Random(3);
+		DisjointSet randomSet = new DisjointSet();
+		int count = 50;
+		for (int i = 0; i < count; i++)
+			randomSet.add();
+
+		// Vergleich mit einer naiven Zuordnung von Elementen zu Mengennummern
+		int[] labels = new int[count];
+		for (int i = 0; i < count; i++)
+			labels[i] = i;
+
+		for (int round = 0; round < 60; round++) {
+			int a = random.nextInt(count);
+			int b = random.nextInt(count);
+			boolean merged = randomSet.union(a, b);
+			assertEquals(labels[a] != labels[b], merged);
+
+			int oldLabel = labels[b];
+			for (int i = 0; i < count; i++) {
+				if (labels[i] == oldLabel)
+					labels[i] = labels[a];
+			}
+
+			int components = 0;
+			for (int i = 0; i < count; i++) {
+				if (labels[i] == i)
+					components++;
+			}
+			assertEquals(components, randomSet.getComponentCount());
+		}
+
+		for (int a = 0; a < count; a++) {
+			for (int b = 0; b < count; b++)
+				assertEquals(labels[a] == labels[b], randomSet.connected(a, b));
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import game.Game;
+import game.GameConstants;
+import game.Goal;
+import game.HeadlessGameInterface;
+import game.Player;
+import game.Team;
+import game.goals.RoundGoal;
+import game.map.Castle;
+import game.map.MapSize;
+import game.players.BasicAI;
+import game.players.JokerAI;
+import game.replay.GameRecorder;
+import game.replay.GameReplay;
+
+public class GameReplayTest {
+
+	/**
+	 * Spielt ein Spiel zweier KIs ohne Anzeige und zeichnet es auf
+	 */
+	Game playRecordedGame(int goalIndex, long seed, GameRecorder recorder) throws InterruptedException {
+		Game game = new Game();
+		Class<?>[] playerTypes = { BasicAI.class, JokerAI.class };
+		for (int i = 0; i < playerTypes.length; i++) {
+			Player player = Player.createPlayer(playerTypes[i], "Spieler " + (i + 1), GameConstants.PLAYER_COLORS[i]);
+			player.setTeam(new Team());
+			game.addPlayer(player);
+		}
+
+		Goal goal = GameConstants.createGoal(goalIndex);
+		if (goal instanceof RoundGoal)
+			goal = new RoundGoal(8);
+
+		game.setMapSize(MapSize.SMALL);
+		game.setGoal(goal);
+		game.setSeed(seed);
+		game.setRecorder(recorder);
+
+		HeadlessGameInterface gameInterface = new HeadlessGameInterface(new Random(seed));
+		game.start(gameInterface);
+		if (!gameInterface.awaitGameOver(60, TimeUnit.SECONDS))
+			game.abort();
+
+		return game;
+	}
+
+	void assertSameState(Game expected, Game actual) {
+		List<Castle> expectedCastles = expected.getMap().getCastles();
+		List<Castle> actualCastles = actual.getMap().getCastles();
+		assertEquals(expectedCastles.size(), actualCastles.size());
+
+		for (int i = 0; i < expectedCastles.size(); i++) {
+			Castle castle = expectedCastles.get(i);
+			Castle replayed = actualCastles.get(i);
+			int owner = expected.getPlayers().indexOf(castle.getOwner());
+			int replayedOwner = actual.getPlayers().indexOf(replayed.getOwner());
+
+			assertEquals(castle.getName(), replayed.getName());
+			assertEquals(owner, replayedOwner, "Falscher Besitzer von " + castle.getName() + "!");
+			assertEquals(castle.getTroopCount(), replayed.getTroopCount(), "Falsche Truppen in " + castle.getName() + "!");
+		}
+
+		for (int i = 0; i < expected.getPlayers().size(); i++) {
+			Player player = expected.getPlayers().get(i);
+			Player replayed = actual.getPlayers().get(i);
+			assertEquals(player.getName(), replayed.getName());
+			assertEquals(player.getPoints(), replayed.getPoints(), "Falsche Punkte von " + player.getName() + "!");
+			assertEquals(player.getRemainingTroops(), replayed.getRemainingTroops());
+		}
+
+		assertEquals(expected.getMap().getEdges().size(), actual.getMap().getEdges().size());
+		assertEquals(expected.getRound(), actual.getRound());
+		assertEquals(expected.getHash(), actual.getHash(), "Der Hash des wiederholten Spiels weicht ab!");
+	}
+
+	@Test
+	void roundTripTest() throws InterruptedException, IOException {
+		for (int goalIndex = 0; goalIndex < GameConstants.GAME_GOALS.length; goalIndex++) {
+			GameRecorder recorder = new GameRecorder();
+			Game game = playRecordedGame(goalIndex, 100 + goalIndex, recorder);
+
+			GameReplay replay = new GameReplay(recorder.toByteArray());
+			assertEquals(BasicAI.class.getName(), replay.getRecordedPlayerTypes()[0]);
+
+			Game replayed = replay.replayAll();
+			assertSameState(game, replayed);
+			assertEquals(game.isOver(), replayed.isOver());
+		}
+	}
+
+	@Test
+	void partialReplayTest() throws InterruptedException, IOException {
+		GameRecorder recorder = new GameRecorder();
+		playRecordedGame(0, 7, recorder);
+		byte[] log = recorder.toByteArray();
+
+		// Zwei Wiederholungen desselben Protokolls stimmen nach jeder Anzahl von Zügen überein
+		GameReplay first = new GameReplay(log);
+		GameReplay second = new GameReplay(log);
+		for (int turn = 1; turn <= 6; turn++) {
+			first.replayTurns(turn);
+			while (second.getTurn() < turn && second.hasNext())
+				second.step();
+
+			assertEquals(first.getTurn(), second.getTurn());
+			assertSameState(first.getGame(), second.getGame());
+		}
+
+		assertTrue(first.getTurn() > 0, "Es wurde kein Zug wiederholt!");
+	}
+
+	@Test
+	void invalidLogTest() {
+		assertThrows(IllegalArgumentException.class, () -> new GameReplay(new byte[] { 1, 2, 3, 4, 5 }));
+	}
+}
@@ -0,0 +1,128 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import base.IndexedMinHeap;
+
+public class IndexedMinHeapTest {
+
+	IndexedMinHeap heap;
+
+	@BeforeEach
+	void createNewHeap() {
+		heap = new IndexedMinHeap(8);
+	}
+
+	@Test
+	void pollOrderTest() {
+		heap.add(3, 5.0);
+		heap.add(0, 2.0);
+		heap.add(7, 9.0);
+		heap.add(5, 1.0);
+		heap.add(2, 4.0);
+		assertEquals(5, heap.size());
+
+		// Die Indizes müssen aufsteigend nach ihren Schlüsseln entnommen werden
+		assertEquals(5, heap.poll());
+		assertEquals(0, heap.poll());
+		assertEquals(2, heap.poll());
+		assertEquals(3, heap.poll());
+		assertEquals(7, heap.poll());
+		assertTrue(heap.isEmpty());
+		assertThrows(NoSuchElementException.class, () -> heap.poll());
+	}
+
+	@Test
+	void decreaseKeyTest() {
+		heap.add(1, 10.0);
+		heap.add(2, 20.0);
+		heap.add(3, 30.0);
+
+		// Der größte Schlüssel wird zum kleinsten
+		heap.decreaseKey(3, 5.0);
+		assertEquals(5.0, heap.getKey(3), 0.0);
+
+		// Ein größerer Schlüssel wird ignoriert
+		heap.decreaseKey(1, 50.0);
+		assertEquals(10.0, heap.getKey(1), 0.0);
+
+		heap.addOrDecrease(2, 7.0);
+		heap.addOrDecrease(4, 8.0);
+
+		assertEquals(3, heap.poll());
+		assertEquals(2, heap.poll());
+		assertEquals(4, heap.poll());
+		assertEquals(1, heap.poll());
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	void containsAndClearTest() {
+		heap.add(4, 1.0);
+		heap.add(6, 2.0);
+		assertTrue(heap.contains(4));
+		assertThrows(IllegalArgumentException.class, () -> heap.add(4, 3.0));
+
+		heap.poll();
+		assertFalse(heap.contains(4), "Ein entnommener Index ist noch enthalten!");
+		assertTrue(heap.contains(6));
+
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(6), "Nach dem Leeren ist noch ein Index enthalten!");
+
+		// Nach dem Leeren können alle Indizes erneut hinzugefügt werden
+		heap.add(6, 0.5);
+		assertEquals(6, heap.poll());
+	}
+
+	@Test
+	void randomOperationsTest() {
+		Random random = new Random(42);
+		int capacity = 64;
+		IndexedMinHeap randomHeap = new IndexedMinHeap(capacity);
+		double[] keys = new double[capacity];
+
+		for (int round = 0; round < 200; round++) {
+			int index = random.nextInt(capacity);
+			double key = random.nextDouble() * 100;
+
+			if (randomHeap.contains(index)) {
+				randomHeap.decreaseKey(index, key);
+				keys[index] = Math.min(keys[index], key);
+			} else {
+				randomHeap.add(index, key);
+				keys[index] = key;
+			}
+
+			// Vergleiche gelegentlich das Minimum mit einer PriorityQueue über dieselben Schlüssel
+			if (round % 10 == 9) {
+				PriorityQueue<Double> expected = new PriorityQueue<>();
+				for (int i = 0; i < capacity; i++) {
+					if (randomHeap.contains(i))
+						expected.add(keys[i]);
+				}
+
+				int smallest = randomHeap.poll();
+				assertEquals(expected.peek(), keys[smallest], 0.0, "Der entnommene Index hat nicht den kleinsten Schlüssel!");
+			}
+		}
+
+		double previous = Double.NEGATIVE_INFINITY;
+		while (!randomHeap.isEmpty()) {
+			double key = keys[randomHeap.poll()];
+			assertTrue(previous <= key, "Die Indizes wurden nicht aufsteigend entnommen!");
+			previous = key;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import base.Graph;
+import base.Node;
+import game.map.Castle;
+import game.map.NearestCastles;
+
+public class NearestCastlesTest {
+
+	static final int WIDTH = 800;
+	static final int HEIGHT = 600;
+
+	Graph<Castle> testGraph;
+
+	@BeforeEach
+	void createNewGraph() {
+		testGraph = new Graph<Castle>();
+		Random random = new Random(11);
+
+		for (int i = 0; i < 60; i++)
+			testGraph.addNode(new Castle(new Point(random.nextInt(WIDTH), random.nextInt(HEIGHT)), "Burg " + i));
+	}
+
+	/**
+	 * Vergleicht die Ringsuche für jede Burg und jede Stelle mit einer vollständig sortierten Liste.
+	 * Da gleich weit entfernte Burgen in beliebiger Reihenfolge stehen dürfen, werden die Entfernungen verglichen.
+	 */
+	void compareWithBruteForce(NearestCastles nearestCastles) {
+		List<Node<Castle>> nodes = testGraph.getNodes();
+
+		for (Node<Castle> node : nodes) {
+			Castle castle = node.getValue();
+			List<Double> expected = new ArrayList<>();
+			for (Node<Castle> other : nodes)
+				expected.add(castle.distance(other.getValue()));
+			expected.sort(null);
+
+			assertTrue(nearestCastles.get(node, 0) == node, "An Stelle 0 steht nicht die Burg selbst!");
+			for (int level = 0; level < nodes.size(); level++) {
+				Node<Castle> neighbor = nearestCastles.get(node, level);
+				assertEquals(expected.get(level), castle.distance(neighbor.getValue()), 1e-9,
+					"Falsche Entfernung an Stelle " + level + " für " + castle.getName() + "!");
+			}
+
+			assertNull(nearestCastles.get(node, nodes.size()), "Es wurden mehr Burgen gefunden als vorhanden sind!");
+		}
+	}
+
+	@Test
+	void smallCellsTest() {
+		compareWithBruteForce(new NearestCastles(testGraph.getNodes(), WIDTH, HEIGHT, 40));
+	}
+
+	@Test
+	void largeCellsTest() {
+		// Eine einzige Zelle für die gesamte Karte
+		compareWithBruteForce(new NearestCastles(testGraph.getNodes(), WIDTH, HEIGHT, 1000));
+	}
+
+	@Test
+	void partialQueryTest() {
+		NearestCastles nearestCastles = new NearestCastles(testGraph.getNodes(), WIDTH, HEIGHT, 50);
+		Node<Castle> node = testGraph.getNodes().get(0);
+
+		// Eine spätere Stelle darf vor einer früheren abgefragt werden
+		Node<Castle> fifth = nearestCastles.get(node, 5);
+		Node<Castle> first = nearestCastles.get(node, 1);
+		assertTrue(node.getValue().distance(first.getValue()) <= node.getValue().distance(fifth.getValue()));
+		assertTrue(nearestCastles.get(node, 5) == fifth, "Wiederholte Abfragen liefern verschiedene Burgen!");
+
+		assertNull(nearestCastles.get(new Graph<Castle>().addNode(node.getValue()), 0), "Ein unbekannter Knoten wurde gefunden!");
+	}
+}
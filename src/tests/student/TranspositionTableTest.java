@@ -0,0 +1,81 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import game.search.TranspositionTable;
+
+public class TranspositionTableTest {
+
+	TranspositionTable table;
+
+	// Beide Hashes unterscheiden sich nur oberhalb der Tabellengröße und teilen sich daher einen Platz
+	static final long HASH_A = 0x1234_5678_0000_0005L;
+	static final long HASH_B = HASH_A + 16;
+
+	@BeforeEach
+	void createNewTable() {
+		table = new TranspositionTable(16);
+	}
+
+	@Test
+	void capacityTest() {
+		assertEquals(16, table.getCapacity());
+		assertEquals(1024, new TranspositionTable(1000).getCapacity());
+		assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+	}
+
+	@Test
+	void hitAndMissTest() {
+		assertEquals(0, table.get(HASH_A), "Eine leere Tabelle enthält einen Eintrag!");
+		assertTrue(Float.isNaN(TranspositionTable.getMean(table.get(HASH_A))));
+
+		table.add(HASH_A, 0.5f);
+		long data = table.add(HASH_A, 1.0f);
+		assertEquals(data, table.get(HASH_A));
+		assertEquals(2, TranspositionTable.getCount(data));
+		assertEquals(1.5f, TranspositionTable.getSum(data), 0f);
+		assertEquals(0.75f, TranspositionTable.getMean(data), 1e-6f);
+
+		// Ein anderer Hash auf demselben Platz darf den Eintrag nicht lesen
+		assertEquals(0, table.get(HASH_B), "Ein fremder Hash hat einen Treffer erzielt!");
+
+		table.clear();
+		assertEquals(0, table.get(HASH_A), "Nach dem Leeren ist noch ein Eintrag vorhanden!");
+	}
+
+	@Test
+	void replaceTest() {
+		// Ein Eintrag mit nur einer Bewertung wird sofort ersetzt
+		table.add(HASH_A, 1.0f);
+		table.add(HASH_B, 0.25f);
+		assertEquals(0, table.get(HASH_A));
+		assertEquals(1, TranspositionTable.getCount(table.get(HASH_B)));
+		assertEquals(0.25f, TranspositionTable.getMean(table.get(HASH_B)), 0f);
+	}
+
+	@Test
+	void decayTest() {
+		table.add(HASH_A, 0.6f);
+		table.add(HASH_A, 0.6f);
+		table.add(HASH_A, 0.6f);
+
+		// Ein Eintrag mit mehreren Bewertungen verliert je Kollision eine Bewertung, behält aber seinen Mittelwert
+		long data = table.add(HASH_B, 0.1f);
+		assertEquals(1, TranspositionTable.getCount(data));
+		assertEquals(0, table.get(HASH_B), "Der häufiger bewertete Eintrag wurde sofort ersetzt!");
+		assertEquals(2, TranspositionTable.getCount(table.get(HASH_A)));
+		assertEquals(0.6f, TranspositionTable.getMean(table.get(HASH_A)), 1e-6f);
+
+		table.add(HASH_B, 0.1f);
+		assertEquals(1, TranspositionTable.getCount(table.get(HASH_A)));
+
+		table.add(HASH_B, 0.1f);
+		assertEquals(0, table.get(HASH_A));
+		assertEquals(1, TranspositionTable.getCount(table.get(HASH_B)));
+	}
+}
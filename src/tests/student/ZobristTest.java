@@ -0,0 +1,132 @@
+package tests.student;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import game.Player;
+import game.Team;
+import game.Zobrist;
+import game.gameExceptions.alreadyFlagCastleException;
+import game.map.Castle;
+import game.map.CastleStore;
+import game.map.GameMap;
+import game.players.Human;
+
+public class ZobristTest {
+
+	GameMap gameMap;
+	CastleStore store;
+	Player[] players;
+
+	@BeforeEach
+	void createNewMap() {
+		gameMap = GameMap.generateRandomMap(15, 10, 40, 14, 2, new Random(1));
+		store = gameMap.getCastleStore();
+		players = new Player[] { new Human("Spieler 1", Color.RED), new Human("Spieler 2", Color.BLUE) };
+		for (Player player : players)
+			player.setTeam(new Team());
+	}
+
+	/**
+	 * Berechnet den Hash aller Burgen vollständig neu
+	 */
+	long fullHash() {
+		long hash = 0;
+		for (int i = 0; i < store.size(); i++) {
+			hash ^= Zobrist.key(Zobrist.OWNER, i, store.getOwnerId(i));
+			hash ^= Zobrist.key(Zobrist.TROOPS, i, store.getTroopCount(i));
+			hash ^= Zobrist.key(Zobrist.FLAG, i, store.getPlayerId(store.getFlagOwner(i)));
+		}
+
+		return hash;
+	}
+
+	@Test
+	void keyTest() {
+		assertEquals(0, Zobrist.key(Zobrist.TROOPS, 3, 0), "Der Wert 0 muss den Schlüssel 0 haben!");
+		assertEquals(Zobrist.key(Zobrist.TROOPS, 3, 5), Zobrist.key(Zobrist.TROOPS, 3, 5));
+		assertNotEquals(Zobrist.key(Zobrist.TROOPS, 3, 5), Zobrist.key(Zobrist.TROOPS, 4, 5));
+		assertNotEquals(Zobrist.key(Zobrist.TROOPS, 3, 5), Zobrist.key(Zobrist.OWNER, 3, 5));
+
+		assertEquals(0, Zobrist.change(Zobrist.OWNER, 1, 2, 2));
+		assertEquals(Zobrist.key(Zobrist.OWNER, 1, 2) ^ Zobrist.key(Zobrist.OWNER, 1, 1), Zobrist.change(Zobrist.OWNER, 1, 2, 1));
+	}
+
+	@Test
+	void incrementalHashTest() throws alreadyFlagCastleException {
+		assertEquals(0, store.getHash(), "Eine leere Karte muss den Hash 0 haben!");
+
+		Random random = new Random(2);
+		List<Castle> castles = gameMap.getCastles();
+		for (int step = 0; step < 300; step++) {
+			Castle castle = castles.get(random.nextInt(castles.size()));
+			switch (random.nextInt(5)) {
+				case 0:
+					castle.setOwner(players[random.nextInt(players.length)]);
+					break;
+				case 1:
+				case 2:
+					castle.addTroops(1 + random.nextInt(4));
+					break;
+				case 3:
+					castle.removeTroops(1 + random.nextInt(3));
+					break;
+				default:
+					if (castle.getOwner() != null && !castle.isFlagCastle())
+						castle.makeFlagCastle(castle.getOwner());
+					break;
+			}
+
+			assertEquals(fullHash(), store.getHash(), "Der Hash weicht nach Schritt " + step + " von der Neuberechnung ab!");
+		}
+	}
+
+	@Test
+	void restoreTest() {
+		List<Castle> castles = gameMap.getCastles();
+		castles.get(0).setOwner(players[0]);
+		castles.get(0).addTroops(3);
+		castles.get(1).setOwner(players[1]);
+		castles.get(1).addTroops(2);
+
+		long hash = store.getHash();
+		CastleStore.Snapshot snapshot = store.snapshot();
+		assertEquals(hash, snapshot.getHash());
+
+		castles.get(1).setOwner(players[0]);
+		castles.get(0).addTroops(4);
+		castles.get(2).setOwner(players[1]);
+		assertNotEquals(hash, store.getHash());
+
+		store.restore(snapshot);
+		assertEquals(hash, store.getHash(), "Nach dem Wiederherstellen weicht der Hash ab!");
+		assertEquals(fullHash(), store.getHash());
+
+		// Derselbe Zustand auf anderem Weg ergibt denselben Hash
+		castles.get(0).addTroops(1);
+		castles.get(0).removeTroops(1);
+		assertEquals(hash, store.getHash());
+	}
+
+	@Test
+	void playerHashTest() {
+		Player player = players[0];
+		assertEquals(0, player.getHash());
+
+		player.addTroops(5);
+		assertEquals(Zobrist.key(Zobrist.REMAINING_TROOPS, 0, 5), player.getHash());
+
+		player.removeTroops(2);
+		assertEquals(Zobrist.key(Zobrist.REMAINING_TROOPS, 0, 3), player.getHash());
+
+		player.removeTroops(3);
+		assertEquals(0, player.getHash());
+	}
+}